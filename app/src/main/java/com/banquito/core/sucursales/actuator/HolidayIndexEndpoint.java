@@ -0,0 +1,24 @@
+package com.banquito.core.sucursales.actuator;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.banquito.core.sucursales.service.HolidayCalendarIndex;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "holidayindex")
+public class HolidayIndexEndpoint {
+
+    private final HolidayCalendarIndex holidayCalendarIndex;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return holidayCalendarIndex.stats();
+    }
+}
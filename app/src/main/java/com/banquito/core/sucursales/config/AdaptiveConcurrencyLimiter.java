@@ -0,0 +1,169 @@
+package com.banquito.core.sucursales.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Límite de peticiones concurrentes que se ajusta con la latencia observada (gradiente, como Netflix
+ * concurrency-limits): compara la latencia reciente con una media de largo plazo y, si la reciente crece más
+ * que la tolerancia, reduce el límite en proporción; mientras se mantiene, lo sube en sqrt(límite). Una
+ * muestra fallida por falta de recursos (MongoDB caído o sin conexión libre) lo reduce un 10%.
+ *
+ * Sin lugar libre, la petición espera hasta maxWait en una cola de hasta maxQueue; si no, se rechaza de inmediato.
+ * Se usa ReentrantLock y no synchronized para no fijar hilos virtuales mientras esperan.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_SMOOTHING = 0.2;
+    private static final double LONG_SMOOTHING = 2.0 / 601;
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long maxWaitNanos;
+    private final int maxQueue;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private double shortRtt;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimiter(BranchProperties.Limit limit, double tolerance, Duration maxWait, int maxQueue) {
+        if (limit.getMinLimit() < 1 || limit.getMaxLimit() < limit.getMinLimit()) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min-limit <= max-limit");
+        }
+        this.minLimit = limit.getMinLimit();
+        this.maxLimit = limit.getMaxLimit();
+        this.tolerance = tolerance;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.maxQueue = maxQueue;
+        this.limit = Math.clamp(limit.getInitialLimit(), minLimit, maxLimit);
+    }
+
+    /**
+     * true si la petición obtuvo lugar (debe llamar a release), false si se descarta.
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            // Mientras haya cola, los que llegan no se adelantan a los que esperan
+            if (queued == 0 && inFlight < (int) limit) {
+                inFlight++;
+                return true;
+            }
+            if (queued >= maxQueue || maxWaitNanos <= 0) {
+                return false;
+            }
+            queued++;
+            try {
+                long nanos = maxWaitNanos;
+                while (inFlight >= (int) limit) {
+                    if (nanos <= 0) {
+                        return false;
+                    }
+                    nanos = released.awaitNanos(nanos);
+                }
+                inFlight++;
+                return true;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(long elapsedNanos, Outcome outcome) {
+        lock.lock();
+        try {
+            // Con pocas peticiones en curso la latencia no dice nada de la capacidad: el límite no sube
+            boolean saturated = inFlight >= limit / 2;
+            inFlight--;
+            switch (outcome) {
+                case SUCCESS -> sample(elapsedNanos, saturated);
+                case DROPPED -> limit = Math.max(minLimit, limit * BACKOFF);
+                case IGNORED -> {
+                }
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sample(long elapsedNanos, boolean saturated) {
+        double rtt = Math.max(elapsedNanos, 1);
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+            return;
+        }
+        shortRtt += (rtt - shortRtt) * SHORT_SMOOTHING;
+        longRtt += (rtt - longRtt) * LONG_SMOOTHING;
+        // La latencia bajó con claridad: la referencia de largo plazo se acerca más rápido
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        double gradient = Math.clamp(tolerance * longRtt / shortRtt, 0.5, 1.0);
+        double target = limit * gradient + Math.sqrt(limit);
+        if (target > limit && !saturated) {
+            return;
+        }
+        limit = Math.clamp(limit * (1 - LIMIT_SMOOTHING) + target * LIMIT_SMOOTHING, minLimit, maxLimit);
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double latencyMillis() {
+        lock.lock();
+        try {
+            return shortRtt / TimeUnit.MILLISECONDS.toNanos(1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public enum Outcome {
+        // La latencia de la petición es una muestra válida
+        SUCCESS,
+        // Falló por falta de recursos (MongoDB caído, sin conexión libre): se reduce el límite
+        DROPPED,
+        // Falló por otra causa: no dice nada de la carga
+        IGNORED
+    }
+}
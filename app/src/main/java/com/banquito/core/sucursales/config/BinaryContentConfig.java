@@ -0,0 +1,120 @@
+package com.banquito.core.sucursales.config;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+import org.springframework.boot.http.converter.autoconfigure.ServerHttpMessageConvertersCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueDeserializer;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.module.SimpleModule;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Codificaciones binarias negociadas por Accept/Content-Type para los clientes internos de alto volumen:
+ * application/cbor y application/x-jackson-smile. Ocupan los lugares de CBOR y Smile en la lista por defecto
+ * de Spring, después de JSON, así que JSON sigue siendo la respuesta sin Accept o con Accept: *&#47;*.
+ *
+ * Con branch.binary-content.date-encoding=epoch las fechas viajan como enteros (días o milisegundos desde
+ * 1970-01-01) en lugar de texto ISO. LocalDateTime no tiene zona: se toma la hora local como UTC, con la
+ * misma precisión de milisegundos con que se guarda en MongoDB. Al leer se aceptan ambas formas.
+ */
+@Slf4j
+@Configuration
+public class BinaryContentConfig {
+
+    @Bean
+    public ServerHttpMessageConvertersCustomizer binaryContentConverters(BranchProperties branchProperties) {
+        BranchProperties.DateEncoding dateEncoding = branchProperties.getBinaryContent().getDateEncoding();
+        log.info("Binary content (CBOR, Smile) with {} dates", dateEncoding);
+        return builder -> builder
+                .withCborConverter(new JacksonCborHttpMessageConverter(cborMapper(dateEncoding)))
+                .withSmileConverter(new JacksonSmileHttpMessageConverter(smileMapper(dateEncoding)));
+    }
+
+    public static CBORMapper cborMapper(BranchProperties.DateEncoding dateEncoding) {
+        CBORMapper.Builder builder = CBORMapper.builder();
+        if (dateEncoding == BranchProperties.DateEncoding.EPOCH) {
+            builder.addModule(epochDateModule());
+        }
+        return builder.build();
+    }
+
+    public static SmileMapper smileMapper(BranchProperties.DateEncoding dateEncoding) {
+        SmileMapper.Builder builder = SmileMapper.builder();
+        if (dateEncoding == BranchProperties.DateEncoding.EPOCH) {
+            builder.addModule(epochDateModule());
+        }
+        return builder.build();
+    }
+
+    static SimpleModule epochDateModule() {
+        return new SimpleModule("epoch-dates")
+                .addSerializer(LocalDate.class, new EpochDaySerializer())
+                .addDeserializer(LocalDate.class, new EpochDayDeserializer())
+                .addSerializer(LocalDateTime.class, new EpochMillisSerializer())
+                .addDeserializer(LocalDateTime.class, new EpochMillisDeserializer());
+    }
+
+    private static class EpochDaySerializer extends ValueSerializer<LocalDate> {
+        @Override
+        public void serialize(LocalDate value, JsonGenerator gen, SerializationContext ctxt) {
+            gen.writeNumber(value.toEpochDay());
+        }
+    }
+
+    private static class EpochDayDeserializer extends ValueDeserializer<LocalDate> {
+        @Override
+        public LocalDate deserialize(JsonParser p, DeserializationContext ctxt) {
+            if (p.isExpectedNumberIntToken()) {
+                return LocalDate.ofEpochDay(p.getLongValue());
+            }
+            if (p.currentToken() != JsonToken.VALUE_STRING) {
+                return (LocalDate) ctxt.handleUnexpectedToken(LocalDate.class, p);
+            }
+            try {
+                return LocalDate.parse(p.getString());
+            } catch (DateTimeParseException ex) {
+                throw ctxt.weirdStringException(p.getString(), LocalDate.class, ex.getMessage());
+            }
+        }
+    }
+
+    private static class EpochMillisSerializer extends ValueSerializer<LocalDateTime> {
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator gen, SerializationContext ctxt) {
+            gen.writeNumber(value.toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+    }
+
+    private static class EpochMillisDeserializer extends ValueDeserializer<LocalDateTime> {
+        @Override
+        public LocalDateTime deserialize(JsonParser p, DeserializationContext ctxt) {
+            if (p.isExpectedNumberIntToken()) {
+                return LocalDateTime.ofInstant(Instant.ofEpochMilli(p.getLongValue()), ZoneOffset.UTC);
+            }
+            if (p.currentToken() != JsonToken.VALUE_STRING) {
+                return (LocalDateTime) ctxt.handleUnexpectedToken(LocalDateTime.class, p);
+            }
+            try {
+                return LocalDateTime.parse(p.getString());
+            } catch (DateTimeParseException ex) {
+                throw ctxt.weirdStringException(p.getString(), LocalDateTime.class, ex.getMessage());
+            }
+        }
+    }
+}
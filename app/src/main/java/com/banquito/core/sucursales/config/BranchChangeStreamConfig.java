@@ -0,0 +1,134 @@
+package com.banquito.core.sucursales.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.scheduling.TaskScheduler;
+
+import com.banquito.core.sucursales.service.BranchService;
+import com.banquito.core.sucursales.service.HolidayCalendarIndex;
+import com.banquito.core.sucursales.service.HolidayCalendarRegistry;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Escucha el change stream de las colecciones de sucursales y calendarios para invalidar la caché,
+ * el índice de feriados y los calendarios compartidos de este nodo cuando otra réplica los modifica.
+ * Requiere un replica set. Si el cursor falla se reabre desde el último evento (ResumableChangeStream); si ya no
+ * se puede retomar, se vacían la caché y el índice, o se recargan los calendarios.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "branch.change-stream", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BranchChangeStreamConfig {
+
+    private static final List<String> HOLIDAY_FIELDS = List.of("branchHolidays", "calendarIds");
+    private static final Set<String> TOUCH_FIELDS = Set.of("version", "lastModifiedDate");
+
+    @Bean
+    public MessageListenerContainer branchChangeStreamContainer(MongoTemplate mongoTemplate,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        // Cada suscripción mantiene un cursor bloqueado esperando cambios: en el perfil virtual-threads, un hilo virtual
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("branch-change-stream-");
+        executor.setVirtualThreads(virtualThreads);
+        return new DefaultMessageListenerContainer(mongoTemplate, executor);
+    }
+
+    @Bean
+    public ResumableChangeStream branchInvalidationSubscription(MessageListenerContainer branchChangeStreamContainer,
+            TaskScheduler taskScheduler, BranchProperties branchProperties, CacheManager cacheManager,
+            HolidayCalendarIndex holidayCalendarIndex) {
+        List<Cache> caches = Stream.of(BranchService.BRANCH_CACHE, BranchService.BRANCH_HOLIDAYS_CACHE)
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .toList();
+        ResumableChangeStream stream = new ResumableChangeStream("branches", branchChangeStreamContainer,
+                taskScheduler, branchProperties.getChangeStream(), change -> {
+                    if (change.getDocumentKey() == null) {
+                        return;
+                    }
+                    String branchId = toId(change.getDocumentKey().get("_id"));
+                    log.debug("Change stream event for branch ID: {}, invalidating local state", branchId);
+                    caches.forEach(cache -> cache.evict(branchId));
+                    holidayCalendarIndex.onChange(branchId, version(change), touchesHolidays(change));
+                }, () -> {
+                    caches.forEach(Cache::clear);
+                    holidayCalendarIndex.clear();
+                });
+        stream.start();
+        return stream;
+    }
+
+    @Bean
+    public ResumableChangeStream holidayCalendarInvalidationSubscription(
+            MessageListenerContainer branchChangeStreamContainer, TaskScheduler taskScheduler,
+            BranchProperties branchProperties, HolidayCalendarRegistry holidayCalendarRegistry) {
+        ResumableChangeStream stream = new ResumableChangeStream("holidayCalendars", branchChangeStreamContainer,
+                taskScheduler, branchProperties.getChangeStream(), change -> {
+                    if (change.getDocumentKey() == null) {
+                        return;
+                    }
+                    String calendarId = toId(change.getDocumentKey().get("_id"));
+                    log.debug("Change stream event for holiday calendar ID: {}, refreshing", calendarId);
+                    holidayCalendarRegistry.refresh(calendarId);
+                }, holidayCalendarRegistry::reload);
+        stream.start();
+        return stream;
+    }
+
+    // Versión de la sucursal después del cambio, si el evento la trae
+    static Long version(ChangeStreamDocument<Document> event) {
+        if (event.getUpdateDescription() != null && event.getUpdateDescription().getUpdatedFields() != null) {
+            BsonValue version = event.getUpdateDescription().getUpdatedFields().get("version");
+            return version != null && version.isNumber() ? version.asNumber().longValue() : null;
+        }
+        Object version = event.getFullDocument() == null ? null : event.getFullDocument().get("version");
+        return version instanceof Number number ? number.longValue() : null;
+    }
+
+    /**
+     * Si el cambio puede alterar el calendario de la sucursal: todo lo que no es una actualización, las que tocan
+     * branchHolidays o calendarIds y las que sólo incrementan la versión, que en modo bucketed marcan un cambio en
+     * los documentos de feriados.
+     */
+    static boolean touchesHolidays(ChangeStreamDocument<Document> event) {
+        UpdateDescription update = event.getUpdateDescription();
+        if (event.getOperationType() != OperationType.UPDATE || update == null) {
+            return true;
+        }
+        List<String> fields = new ArrayList<>();
+        if (update.getUpdatedFields() != null) {
+            fields.addAll(update.getUpdatedFields().keySet());
+        }
+        if (update.getRemovedFields() != null) {
+            fields.addAll(update.getRemovedFields());
+        }
+        if (update.getTruncatedArrays() != null) {
+            update.getTruncatedArrays().forEach(array -> fields.add(array.getField()));
+        }
+        return fields.stream().allMatch(TOUCH_FIELDS::contains)
+                || fields.stream().anyMatch(field -> HOLIDAY_FIELDS.stream().anyMatch(field::startsWith));
+    }
+
+    private static String toId(BsonValue id) {
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+}
@@ -0,0 +1,62 @@
+package com.banquito.core.sucursales.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Aplica ConcurrencyLimits a los endpoints anotados con @ConcurrencyLimited. El lugar se toma antes de leer el
+ * cuerpo y se libera al terminar la respuesta; un 503 (MongoDB caído o sin conexión libre) reduce el límite.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitConfig.class.getName() + ".permit";
+
+    private final ConcurrencyLimits concurrencyLimits;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConcurrencyLimitInterceptor());
+    }
+
+    private class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            if (handler instanceof HandlerMethod method) {
+                ConcurrencyLimited limited = method.getMethodAnnotation(ConcurrencyLimited.class);
+                if (limited != null) {
+                    request.setAttribute(PERMIT_ATTRIBUTE, concurrencyLimits.acquire(limited.value()));
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                Exception ex) {
+            if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof ConcurrencyLimits.Permit permit) {
+                request.removeAttribute(PERMIT_ATTRIBUTE);
+                permit.release(outcome(response.getStatus(), ex));
+            }
+        }
+
+        private static AdaptiveConcurrencyLimiter.Outcome outcome(int status, Exception ex) {
+            if (status == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+                return AdaptiveConcurrencyLimiter.Outcome.DROPPED;
+            }
+            return ex != null || status >= 500
+                    ? AdaptiveConcurrencyLimiter.Outcome.IGNORED
+                    : AdaptiveConcurrencyLimiter.Outcome.SUCCESS;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.banquito.core.sucursales.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * El endpoint ocupa un lugar del límite de concurrencia de su clase mientras se atiende (ConcurrencyLimitConfig).
+ * No aplica a respuestas asíncronas (streaming NDJSON, SSE): el lugar se liberaría antes de terminar.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimited {
+
+    ConcurrencyLimits.EndpointClass value();
+}
@@ -0,0 +1,139 @@
+package com.banquito.core.sucursales.config;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+import com.banquito.core.sucursales.exception.ConcurrencyLimitExceededException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Un AdaptiveConcurrencyLimiter por clase de endpoint, para que una ráfaga de escrituras o de listados lentos no
+ * deje sin lugar a las consultas de feriados. Métricas, etiquetadas con endpoint.class:
+ * <ul>
+ * <li>branch.concurrency.limit, branch.concurrency.in.flight y branch.concurrency.queued: límite actual,
+ * peticiones en curso y en espera.</li>
+ * <li>branch.concurrency.latency: latencia reciente (media móvil) con la que se ajusta el límite.</li>
+ * <li>branch.concurrency.rejected: peticiones descartadas con 503.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimits {
+
+    private final BranchProperties.ConcurrencyLimit properties;
+    private final Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejections = new EnumMap<>(EndpointClass.class);
+
+    public ConcurrencyLimits(BranchProperties branchProperties, MeterRegistry meterRegistry) {
+        this.properties = branchProperties.getConcurrencyLimit();
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(limitOf(endpointClass),
+                    properties.getTolerance(), properties.getMaxWait(), properties.getMaxQueue());
+            limiters.put(endpointClass, limiter);
+            String tag = endpointClass.tag();
+            Gauge.builder("branch.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                    .tag("endpoint.class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("branch.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                    .tag("endpoint.class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("branch.concurrency.queued", limiter, AdaptiveConcurrencyLimiter::queued)
+                    .tag("endpoint.class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("branch.concurrency.latency", limiter, AdaptiveConcurrencyLimiter::latencyMillis)
+                    .tag("endpoint.class", tag)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            rejections.put(endpointClass, Counter.builder("branch.concurrency.rejected")
+                    .tag("endpoint.class", tag)
+                    .register(meterRegistry));
+        }
+        log.info("Concurrency limits {}: reads up to {}, holiday checks up to {}, writes up to {}",
+                properties.isEnabled() ? "enabled" : "disabled", properties.getReads().getMaxLimit(),
+                properties.getHolidayChecks().getMaxLimit(), properties.getWrites().getMaxLimit());
+    }
+
+    /**
+     * Lugar para una petición de la clase dada; sin lugar dentro de max-wait lanza
+     * ConcurrencyLimitExceededException.
+     */
+    public Permit acquire(EndpointClass endpointClass) {
+        if (!properties.isEnabled()) {
+            return Permit.NONE;
+        }
+        AdaptiveConcurrencyLimiter limiter = limiters.get(endpointClass);
+        if (!limiter.tryAcquire()) {
+            rejections.get(endpointClass).increment();
+            throw new ConcurrencyLimitExceededException(endpointClass, properties.getRetryAfter());
+        }
+        return new Permit(limiter, System.nanoTime());
+    }
+
+    /**
+     * Ejecuta la operación con un lugar de la clase dada: el límite se ajusta sólo con su latencia, no con la
+     * de toda la petición.
+     */
+    public <T> T call(EndpointClass endpointClass, Supplier<T> supplier) {
+        Permit permit = acquire(endpointClass);
+        AdaptiveConcurrencyLimiter.Outcome outcome = AdaptiveConcurrencyLimiter.Outcome.IGNORED;
+        try {
+            T result = supplier.get();
+            outcome = AdaptiveConcurrencyLimiter.Outcome.SUCCESS;
+            return result;
+        } catch (DataAccessResourceFailureException ex) {
+            outcome = AdaptiveConcurrencyLimiter.Outcome.DROPPED;
+            throw ex;
+        } finally {
+            permit.release(outcome);
+        }
+    }
+
+    private BranchProperties.Limit limitOf(EndpointClass endpointClass) {
+        return switch (endpointClass) {
+            case READS -> properties.getReads();
+            case HOLIDAY_CHECKS -> properties.getHolidayChecks();
+            case WRITES -> properties.getWrites();
+        };
+    }
+
+    public enum EndpointClass {
+        // Lecturas de sucursales y listados
+        READS,
+        // Lecturas de MongoDB de isHoliday, días hábiles y verificación en lote para sucursales fuera de
+        // HolidayCalendarIndex (BranchService); los aciertos del índice no pasan por el límite
+        HOLIDAY_CHECKS,
+        // Altas, cambios, feriados e importaciones
+        WRITES;
+
+        public String tag() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    public static final class Permit {
+
+        static final Permit NONE = new Permit(null, 0);
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long start;
+
+        private Permit(AdaptiveConcurrencyLimiter limiter, long start) {
+            this.limiter = limiter;
+            this.start = start;
+        }
+
+        public void release(AdaptiveConcurrencyLimiter.Outcome outcome) {
+            if (limiter != null) {
+                limiter.release(System.nanoTime() - start, outcome);
+            }
+        }
+    }
+}
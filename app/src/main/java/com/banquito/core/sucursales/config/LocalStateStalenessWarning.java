@@ -0,0 +1,37 @@
+package com.banquito.core.sucursales.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sin change stream este nodo no se entera de las escrituras de otras réplicas: la caché de sucursales
+ * sólo se renueva al expirar y el índice de feriados y los calendarios compartidos en la recarga periódica.
+ * Se avisa al arrancar con esas cotas para que la configuración no pase desapercibida con varias réplicas.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "branch.change-stream", name = "enabled", havingValue = "false")
+public class LocalStateStalenessWarning {
+
+    private final String cacheSpec;
+    private final String holidayIndexRefresh;
+
+    public LocalStateStalenessWarning(@Value("${spring.cache.caffeine.spec:}") String cacheSpec,
+            @Value("${branch.holiday-index.refresh-interval:PT5M}") String holidayIndexRefresh) {
+        this.cacheSpec = cacheSpec;
+        this.holidayIndexRefresh = holidayIndexRefresh;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warn() {
+        log.warn("branch.change-stream.enabled=false: writes from other replicas are not seen by this node. "
+                + "Cached branches may be stale until they expire (cache spec '{}'), the holiday index and shared "
+                + "calendars until the next reload (every {}). Run a single replica or enable the change stream.",
+                cacheSpec, holidayIndexRefresh);
+    }
+}
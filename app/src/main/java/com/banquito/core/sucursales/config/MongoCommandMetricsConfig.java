@@ -0,0 +1,22 @@
+package com.banquito.core.sucursales.config;
+
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registra MongoCommandMetricsListener en el cliente de MongoDB. Reemplaza al listener de comandos de Spring
+ * Boot (management.metrics.mongodb.command.enabled=false), que sólo mide la latencia; las métricas del pool
+ * de conexiones siguen siendo las de Spring Boot.
+ */
+@Configuration
+public class MongoCommandMetricsConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandMetricsCustomizer(MeterRegistry meterRegistry) {
+        MongoCommandMetricsListener listener = new MongoCommandMetricsListener(meterRegistry);
+        return builder -> builder.addCommandListener(listener);
+    }
+}
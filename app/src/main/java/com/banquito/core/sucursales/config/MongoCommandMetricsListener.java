@@ -0,0 +1,112 @@
+package com.banquito.core.sucursales.config;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas por comando de MongoDB, etiquetadas por comando y colección:
+ * <ul>
+ * <li>mongodb.command: latencia, con estado SUCCESS o FAILED.</li>
+ * <li>mongodb.command.reply.size: bytes de la respuesta. El driver la entrega como RawBsonDocument, así
+ * que el tamaño se lee del buffer sin volver a serializar.</li>
+ * <li>mongodb.command.documents: documentos devueltos (firstBatch/nextBatch de find, aggregate y getMore)
+ * o afectados (n de insert, update y delete).</li>
+ * </ul>
+ */
+public class MongoCommandMetricsListener implements CommandListener {
+
+    private static final String NONE = "none";
+    private static final Set<String> WRITE_COMMANDS = Set.of("insert", "update", "delete");
+
+    private final MeterRegistry meterRegistry;
+    // La colección sólo viene en el comando; se guarda por requestId hasta que llega la respuesta
+    private final Map<Integer, String> collections = new ConcurrentHashMap<>();
+
+    public MongoCommandMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        BsonDocument command = event.getCommand();
+        BsonValue target = "getMore".equals(event.getCommandName())
+                ? command.get("collection")
+                : command.get(event.getCommandName());
+        if (target != null && target.isString()) {
+            collections.put(event.getRequestId(), target.asString().getValue());
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        String collection = collection(event.getRequestId());
+        timer(event.getCommandName(), collection, "SUCCESS").record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+
+        BsonDocument response = event.getResponse();
+        if (response instanceof RawBsonDocument raw) {
+            DistributionSummary.builder("mongodb.command.reply.size")
+                    .baseUnit("bytes")
+                    .tags("command", event.getCommandName(), "collection", collection)
+                    .register(meterRegistry)
+                    .record(raw.getByteBuffer().remaining());
+        }
+        int documents = documents(event.getCommandName(), response);
+        if (documents >= 0) {
+            DistributionSummary.builder("mongodb.command.documents")
+                    .tags("command", event.getCommandName(), "collection", collection)
+                    .register(meterRegistry)
+                    .record(documents);
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        String collection = collection(event.getRequestId());
+        timer(event.getCommandName(), collection, "FAILED").record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    private String collection(int requestId) {
+        String collection = collections.remove(requestId);
+        return collection == null ? NONE : collection;
+    }
+
+    private Timer timer(String command, String collection, String status) {
+        return Timer.builder("mongodb.command")
+                .tags("command", command, "collection", collection, "status", status)
+                .register(meterRegistry);
+    }
+
+    private static int documents(String command, BsonDocument response) {
+        if (response == null) {
+            return -1;
+        }
+        BsonValue cursor = response.get("cursor");
+        if (cursor != null && cursor.isDocument()) {
+            BsonValue batch = cursor.asDocument().containsKey("firstBatch")
+                    ? cursor.asDocument().get("firstBatch")
+                    : cursor.asDocument().get("nextBatch");
+            return batch instanceof BsonArray array ? array.size() : -1;
+        }
+        if (!WRITE_COMMANDS.contains(command)) {
+            return -1;
+        }
+        BsonValue n = response.get("n");
+        return n != null && n.isNumber() ? n.asNumber().intValue() : -1;
+    }
+}
@@ -0,0 +1,81 @@
+package com.banquito.core.sucursales.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.SpringProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Crea los índices declarados con @Indexed/@CompoundIndex antes de que el servidor web acepte peticiones.
+ * La unicidad de emailAddress depende sólo del índice único, así que con branch.mongo-indexes.required
+ * (por defecto) la aplicación no arranca si no puede crearlo o si no quedó como único en MongoDB.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoIndexInitializer implements SmartInitializingSingleton {
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mongoMappingContext;
+    private final BranchProperties branchProperties;
+
+    // Corre al terminar de crear los singletons; el servidor web empieza a aceptar conexiones después
+    @Override
+    public void afterSingletonsInstantiated() {
+        // Corrida de entrenamiento CDS (dockerfile): el contexto se detiene tras el refresh y no atiende tráfico
+        if (SpringProperties.getProperty("spring.context.exit") != null) {
+            log.info("Context exits after refresh, skipping index creation");
+            return;
+        }
+        boolean required = branchProperties.getMongoIndexes().isRequired();
+        IndexResolver resolver = IndexResolver.create(mongoMappingContext);
+        for (MongoPersistentEntity<?> entity : mongoMappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(Document.class)) {
+                continue;
+            }
+            try {
+                IndexOperations indexOperations = mongoTemplate.indexOps(entity.getType());
+                List<IndexDefinition> definitions = new ArrayList<>();
+                resolver.resolveIndexFor(entity.getTypeInformation()).forEach(definitions::add);
+                definitions.forEach(indexOperations::createIndex);
+                verifyUnique(entity.getCollection(), definitions, indexOperations.getIndexInfo());
+                log.info("Indexes ensured for collection: {}", entity.getCollection());
+            } catch (DataAccessException | IllegalStateException ex) {
+                if (required) {
+                    throw new IllegalStateException("Could not ensure indexes for collection "
+                            + entity.getCollection() + ": " + ex.getMessage(), ex);
+                }
+                log.error("Could not ensure indexes for collection {}: {}", entity.getCollection(), ex.getMessage());
+            }
+        }
+    }
+
+    private static void verifyUnique(String collection, List<IndexDefinition> definitions, List<IndexInfo> existing) {
+        for (IndexDefinition definition : definitions) {
+            if (!Boolean.TRUE.equals(definition.getIndexOptions().getBoolean("unique"))) {
+                continue;
+            }
+            List<String> keys = List.copyOf(definition.getIndexKeys().keySet());
+            boolean present = existing.stream().anyMatch(info -> info.isUnique()
+                    && info.getIndexFields().stream().map(IndexField::getKey).toList().equals(keys));
+            if (!present) {
+                throw new IllegalStateException("Unique index on " + keys + " is missing in " + collection);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.banquito.core.sucursales.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Observación branch.repository (timer y span) en cada método de los repositorios de Spring Data, incluidos
+ * los fragmentos *CustomImpl. Los repositorios son proxies de interfaces y @Observed no los alcanza, así
+ * que el interceptor se agrega al crear cada proxy. Reemplaza a spring.data.repository.invocations
+ * (management.metrics.data.repository.autotime.enabled=false) para no medir dos veces.
+ */
+@Configuration
+public class RepositoryObservationConfig {
+
+    public static final String REPOSITORY_OBSERVATION = "branch.repository";
+
+    @Bean
+    public static BeanPostProcessor repositoryObservationPostProcessor(ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repository) -> proxyFactory.addAdvice(interceptor(observationRegistry,
+                                    repository.getRepositoryInterface().getName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static MethodInterceptor interceptor(ObjectProvider<ObservationRegistry> observationRegistry, String repository) {
+        return invocation -> {
+            ObservationRegistry registry = observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP);
+            Observation observation = Observation.createNotStarted(REPOSITORY_OBSERVATION, registry)
+                    .contextualName(repository.substring(repository.lastIndexOf('.') + 1) + "#" + invocation.getMethod().getName())
+                    .lowCardinalityKeyValue("class", repository)
+                    .lowCardinalityKeyValue("method", invocation.getMethod().getName())
+                    .start();
+            try (Observation.Scope scope = observation.openScope()) {
+                return invocation.proceed();
+            } catch (Throwable ex) {
+                observation.error(ex);
+                throw ex;
+            } finally {
+                observation.stop();
+            }
+        };
+    }
+}
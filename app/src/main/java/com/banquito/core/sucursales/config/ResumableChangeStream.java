@@ -0,0 +1,135 @@
+package com.banquito.core.sucursales.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+import org.springframework.scheduling.TaskScheduler;
+
+import com.mongodb.MongoServerException;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Suscripción al change stream de una colección que se vuelve a registrar cuando el cursor falla, con espera
+ * exponencial y desde el último token recibido. Si el token ya no está en el oplog, o el cursor falló antes del
+ * primer evento, los cambios intermedios no se pueden leer y se llama a onReset para descartar el estado local.
+ */
+@Slf4j
+public class ResumableChangeStream {
+
+    // ChangeStreamHistoryLost, InvalidResumeToken y ChangeStreamFatalError
+    private static final Set<Integer> LOST_HISTORY_CODES = Set.of(286, 260, 280);
+
+    private final String collection;
+    private final MessageListenerContainer container;
+    private final TaskScheduler taskScheduler;
+    private final BranchProperties.ChangeStream config;
+    private final Consumer<ChangeStreamDocument<Document>> listener;
+    private final Runnable onReset;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile BsonDocument resumeToken;
+    private volatile Subscription subscription;
+    private volatile Duration retryDelay;
+
+    public ResumableChangeStream(String collection, MessageListenerContainer container, TaskScheduler taskScheduler,
+            BranchProperties.ChangeStream config, Consumer<ChangeStreamDocument<Document>> listener,
+            Runnable onReset) {
+        this.collection = collection;
+        this.container = container;
+        this.taskScheduler = taskScheduler;
+        this.config = config;
+        this.listener = listener;
+        this.onReset = onReset;
+    }
+
+    public void start() {
+        lock.lock();
+        try {
+            register();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void restart() {
+        lock.lock();
+        try {
+            register();
+            // Después de registrar: un cambio anterior a la apertura del nuevo cursor queda cubierto por el reinicio
+            if (resumeToken == null) {
+                log.warn("Change stream of {} restarted without a resume token, discarding local state", collection);
+                onReset.run();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void register() {
+        ChangeStreamRequest.ChangeStreamRequestBuilder<Document> builder = ChangeStreamRequest.builder(this::onMessage)
+                .collection(collection);
+        if (resumeToken != null) {
+            builder.resumeAfter(resumeToken);
+        }
+        subscription = container.register(builder.build(), Document.class, this::onError);
+    }
+
+    private void onMessage(Message<ChangeStreamDocument<Document>, Document> message) {
+        ChangeStreamDocument<Document> change = message.getRaw();
+        if (change == null) {
+            return;
+        }
+        try {
+            listener.accept(change);
+        } catch (RuntimeException ex) {
+            log.error("Could not apply change event of {}: {}", collection, ex.getMessage());
+        }
+        resumeToken = change.getResumeToken();
+        retryDelay = null;
+    }
+
+    private void onError(Throwable ex) {
+        lock.lock();
+        try {
+            if (isLostHistory(ex)) {
+                resumeToken = null;
+            }
+            retryDelay = retryDelay == null
+                    ? config.getRetryDelay()
+                    : min(retryDelay.multipliedBy(2), config.getMaxRetryDelay());
+            log.error("Change stream of {} interrupted, local state is not invalidated by other replicas until it "
+                    + "restarts in {}: {}", collection, retryDelay, ex.getMessage());
+            if (subscription != null) {
+                container.remove(subscription);
+                subscription = null;
+            }
+            taskScheduler.schedule(this::restart, Instant.now().plus(retryDelay));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean isLostHistory(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoServerException server && LOST_HISTORY_CODES.contains(server.getCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
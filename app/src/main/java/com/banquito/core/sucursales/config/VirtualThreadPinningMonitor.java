@@ -0,0 +1,66 @@
+package com.banquito.core.sucursales.config;
+
+import java.util.stream.Collectors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Con hilos virtuales, registra cada vez que uno queda fijado a su hilo portador (bloqueo dentro de
+ * synchronized o de código nativo) más tiempo que el umbral. Usa el evento JFR jdk.VirtualThreadPinned,
+ * así que cubre también el código de librerías (logging, mappers, driver de MongoDB).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "spring.threads.virtual", name = "enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final int MAX_FRAMES = 12;
+
+    private final BranchProperties branchProperties;
+
+    private RecordingStream stream;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned")
+                .withThreshold(branchProperties.getVirtualThreads().getPinnedThreshold())
+                .withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        stream.startAsync();
+        log.info("Virtual thread pinning monitor started, threshold {}",
+                branchProperties.getVirtualThreads().getPinnedThreshold());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        String frames = event.getStackTrace() == null
+                ? "(no stack trace)"
+                : event.getStackTrace().getFrames().stream()
+                        .limit(MAX_FRAMES)
+                        .map(VirtualThreadPinningMonitor::toString)
+                        .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+        log.warn("Virtual thread pinned for {} ms{}", event.getDuration().toMillis(), frames);
+    }
+
+    private static String toString(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
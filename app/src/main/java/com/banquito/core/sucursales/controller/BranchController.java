@@ -0,0 +1,480 @@
+package com.banquito.core.sucursales.controller;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.banquito.core.sucursales.config.ConcurrencyLimited;
+import com.banquito.core.sucursales.config.ConcurrencyLimits.EndpointClass;
+import com.banquito.core.sucursales.dto.BranchBatchCreateDTO;
+import com.banquito.core.sucursales.dto.BranchBatchCreateResultDTO;
+import com.banquito.core.sucursales.dto.BranchChangesDTO;
+import com.banquito.core.sucursales.dto.BranchCreateDTO;
+import com.banquito.core.sucursales.dto.BranchHolidayDTO;
+import com.banquito.core.sucursales.dto.BranchPageDTO;
+import com.banquito.core.sucursales.dto.BranchResponseDTO;
+import com.banquito.core.sucursales.dto.BranchSummaryDTO;
+import com.banquito.core.sucursales.dto.BranchUpdateDTO;
+import com.banquito.core.sucursales.dto.HolidayCheckRequestDTO;
+import com.banquito.core.sucursales.dto.HolidayCheckResponseDTO;
+import com.banquito.core.sucursales.dto.HolidayImportRequestDTO;
+import com.banquito.core.sucursales.dto.HolidayImportResponseDTO;
+import com.banquito.core.sucursales.model.BranchCatalogVersion;
+import com.banquito.core.sucursales.service.BranchEventBroadcaster;
+import com.banquito.core.sucursales.service.BranchService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/branches")
+@RequiredArgsConstructor
+@Tag(name = "Branch Management", description = "API para gestionar sucursales y sus feriados")
+public class BranchController {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final BranchService branchService;
+    private final BranchEventBroadcaster branchEventBroadcaster;
+    private final JsonMapper jsonMapper;
+
+    @Operation(summary = "Listar todas las sucursales", description = "Retorna un listado completo de sucursales registradas; con includeHolidays=false se omiten los feriados propios")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Listado obtenido exitosamente"),
+        @ApiResponse(responseCode = "304", description = "El listado no cambió desde el ETag enviado")
+    })
+    @ConcurrencyLimited(EndpointClass.READS)
+    @GetMapping
+    public ResponseEntity<List<BranchResponseDTO>> getAllBranches(
+            @RequestParam(defaultValue = "true") boolean includeHolidays,
+            WebRequest request) {
+        log.info("REST request to get all branches");
+        String variant = variant(request, includeHolidays);
+        if (hasIfNoneMatch(request) && notModified(request, catalogETag(branchService.getCatalogVersion(), variant))) {
+            return null;
+        }
+        List<BranchResponseDTO> branches = branchService.getAllBranches(includeHolidays);
+        long versionSum = branches.stream().mapToLong(branch -> versionOf(branch.getVersion())).sum();
+        return ResponseEntity.ok()
+                .eTag(catalogETag(new BranchCatalogVersion(branches.size(), versionSum), variant))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(branches);
+    }
+
+    @Operation(summary = "Listar sucursales en streaming", description = "Emite cada sucursal como una línea JSON (NDJSON) a medida que se lee de la base de datos")
+    @ApiResponse(responseCode = "200", description = "Stream iniciado exitosamente")
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllBranches(
+            @RequestParam(defaultValue = "true") boolean includeHolidays) {
+        log.info("REST request to stream all branches");
+        StreamingResponseBody body = out -> {
+            try (Stream<BranchResponseDTO> branches = branchService.streamBranches(includeHolidays)) {
+                for (BranchResponseDTO branch : (Iterable<BranchResponseDTO>) branches::iterator) {
+                    out.write(jsonMapper.writeValueAsBytes(branch));
+                    out.write('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @Operation(summary = "Listar sucursales paginadas", description = "Paginación por cursor (keyset sobre el ID); opcionalmente excluye los feriados")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página obtenida exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Cursor o tamaño de página inválido")
+    })
+    @ConcurrencyLimited(EndpointClass.READS)
+    @GetMapping("/page")
+    public ResponseEntity<BranchPageDTO> getBranchPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "true") boolean includeHolidays) {
+        log.info("REST request to get branch page after cursor: {}", cursor);
+        return ResponseEntity.ok(branchService.getBranchPage(cursor, size, includeHolidays));
+    }
+
+    @Operation(summary = "Cambios desde una fecha o token", description = "Sincronización incremental: devuelve sólo las sucursales modificadas desde 'since' o desde el token de continuación, más las sucursales desactivadas")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cambios obtenidos exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Parámetros o token inválidos")
+    })
+    @ConcurrencyLimited(EndpointClass.READS)
+    @GetMapping("/changes")
+    public ResponseEntity<BranchChangesDTO> getChanges(
+            @RequestParam(required = false) LocalDateTime since,
+            @RequestParam(required = false) String token,
+            @RequestParam(required = false) Integer size) {
+        log.info("REST request to get branch changes since: {}", since);
+        return ResponseEntity.ok(branchService.getChanges(since, token, size));
+    }
+
+    @Operation(summary = "Suscribirse a cambios de sucursales", description = "Server-Sent Events alimentados por el change stream: BRANCH_CREATED, BRANCH_UPDATED, PHONE_UPDATED, HOLIDAY_ADDED, HOLIDAY_REMOVED. Con Last-Event-ID se reanuda desde el último evento recibido, aunque lo haya emitido otra réplica, o se emite RESYNC_REQUIRED")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Suscripción iniciada"),
+        @ApiResponse(responseCode = "503", description = "Change stream deshabilitado o límite de suscriptores alcanzado")
+    })
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeToEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("REST request to subscribe to branch events, last event ID: {}", lastEventId);
+        return branchEventBroadcaster.subscribe(lastEventId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "30")
+                        .build());
+    }
+
+    @Operation(summary = "Crear nueva sucursal", description = "Crea una sucursal con estado ACTIVE y sin feriados iniciales")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Sucursal creada"),
+        @ApiResponse(responseCode = "400", description = "Datos inválidos o email duplicado")
+    })
+    @ConcurrencyLimited(EndpointClass.WRITES)
+    @PostMapping
+    public ResponseEntity<BranchResponseDTO> createBranch(@Valid @RequestBody BranchCreateDTO dto) {
+        log.info("REST request to create branch with email: {}", dto.getEmailAddress());
+        return ResponseEntity.ok(branchService.createBranch(dto));
+    }
+
+    @Operation(summary = "Crear sucursales en lote", description = "Inserta todas las sucursales en una sola escritura no ordenada; los emails duplicados se reportan por elemento con estado 400 sin afectar al resto")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lote procesado; ver el estado de cada elemento"),
+        @ApiResponse(responseCode = "400", description = "Datos inválidos o lote demasiado grande")
+    })
+    @ConcurrencyLimited(EndpointClass.WRITES)
+    @PostMapping("/batch")
+    public ResponseEntity<BranchBatchCreateResultDTO> createBranches(@Valid @RequestBody BranchBatchCreateDTO request) {
+        log.info("REST request to create {} branches in batch", request.getBranches().size());
+        return ResponseEntity.ok(branchService.createBranches(request.getBranches()));
+    }
+
+    @Operation(summary = "Obtener sucursal por ID", description = "Busca una sucursal específica por su identificador único; con includeHolidays=false se omiten los feriados propios")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Sucursal encontrada"),
+        @ApiResponse(responseCode = "304", description = "La sucursal no cambió desde el ETag enviado"),
+        @ApiResponse(responseCode = "404", description = "Sucursal no encontrada")
+    })
+    @ConcurrencyLimited(EndpointClass.READS)
+    @GetMapping("/{id}")
+    public ResponseEntity<BranchResponseDTO> getBranchById(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "true") boolean includeHolidays,
+            WebRequest request) {
+        log.info("REST request to get branch with ID: {}", id);
+        String variant = variant(request, includeHolidays);
+        if (hasIfNoneMatch(request)) {
+            Optional<Long> version = branchService.getBranchVersion(id);
+            if (version.isPresent() && notModified(request, versionETag(version.get(), variant))) {
+                return null;
+            }
+        }
+        BranchResponseDTO branch = includeHolidays ? branchService.getBranchWithHolidays(id) : branchService.getBranchById(id);
+        return ResponseEntity.ok()
+                .eTag(versionETag(versionOf(branch.getVersion()), variant))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(branch);
+    }
+
+    @Operation(summary = "Actualizar teléfono de sucursal", description = "Permite modificar únicamente el número de teléfono")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Sucursal actualizada"),
+        @ApiResponse(responseCode = "404", description = "Sucursal no encontrada")
+    })
+    @ConcurrencyLimited(EndpointClass.WRITES)
+    @PutMapping("/{id}")
+    public ResponseEntity<BranchResponseDTO> updateBranch(
+            @PathVariable String id, 
+            @Valid @RequestBody BranchUpdateDTO dto) {
+        log.info("REST request to update branch ID: {}", id);
+        return ResponseEntity.ok(branchService.updateBranch(id, dto));
+    }
+
+    @Operation(summary = "Agregar feriado", description = "Añade un nuevo feriado a la lista de la sucursal")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Feriado agregado"),
+        @ApiResponse(responseCode = "404", description = "Sucursal no encontrada"),
+        @ApiResponse(responseCode = "400", description = "El feriado ya existe para esa fecha")
+    })
+    @ConcurrencyLimited(EndpointClass.WRITES)
+    @PostMapping("/{id}/holidays")
+    public ResponseEntity<Void> addHoliday(
+            @PathVariable String id, 
+            @Valid @RequestBody BranchHolidayDTO holidayDTO) {
+        log.info("REST request to add holiday to branch ID: {}", id);
+        branchService.addHoliday(id, holidayDTO);
+        return ResponseEntity.ok().build();
+    }
+
+    @Operation(summary = "Eliminar feriado", description = "Elimina un feriado basado en su fecha")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Feriado eliminado"),
+        @ApiResponse(responseCode = "404", description = "Sucursal o feriado no encontrado"),
+        @ApiResponse(responseCode = "409", description = "El feriado viene de un calendario compartido de la sucursal")
+    })
+    @ConcurrencyLimited(EndpointClass.WRITES)
+    @DeleteMapping("/{id}/holidays")
+    public ResponseEntity<Void> removeHoliday(
+            @PathVariable String id,
+            @RequestParam LocalDate date) {
+        log.info("REST request to remove holiday date: {} from branch ID: {}", date, id);
+        branchService.removeHoliday(id, date);
+        return ResponseEntity.ok().build();
+    }
+
+    @Operation(summary = "Asociar calendario compartido", description = "La sucursal pasa a observar los feriados del calendario, además de los propios")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Calendario asociado"),
+        @ApiResponse(responseCode = "404", description = "Sucursal o calendario no encontrado"),
+        @ApiResponse(responseCode = "400", description = "La sucursal ya usa el calendario")
+    })
+    @ConcurrencyLimited(EndpointClass.WRITES)
+    @PostMapping("/{id}/calendars/{calendarId}")
+    public ResponseEntity<BranchResponseDTO> linkCalendar(@PathVariable String id, @PathVariable String calendarId) {
+        log.info("REST request to link calendar ID: {} to branch ID: {}", calendarId, id);
+        return ResponseEntity.ok(branchService.linkCalendar(id, calendarId));
+    }
+
+    @Operation(summary = "Desasociar calendario compartido", description = "La sucursal deja de observar los feriados del calendario")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Calendario desasociado"),
+        @ApiResponse(responseCode = "404", description = "Sucursal no encontrada o no usa el calendario")
+    })
+    @ConcurrencyLimited(EndpointClass.WRITES)
+    @DeleteMapping("/{id}/calendars/{calendarId}")
+    public ResponseEntity<BranchResponseDTO> unlinkCalendar(@PathVariable String id, @PathVariable String calendarId) {
+        log.info("REST request to unlink calendar ID: {} from branch ID: {}", calendarId, id);
+        return ResponseEntity.ok(branchService.unlinkCalendar(id, calendarId));
+    }
+
+    @Operation(summary = "Listar feriados", description = "Obtiene los feriados efectivos de una sucursal: los propios más los de sus calendarios compartidos")
+    @ConcurrencyLimited(EndpointClass.READS)
+    @GetMapping("/{id}/holidays")
+    public ResponseEntity<List<BranchHolidayDTO>> getHolidays(@PathVariable String id, WebRequest request) {
+        log.info("REST request to get holidays for branch ID: {}", id);
+        String variant = variant(request, true);
+        Optional<Long> version = branchService.getBranchVersion(id);
+        if (version.isPresent() && hasIfNoneMatch(request) && notModified(request, versionETag(version.get(), variant))) {
+            return null;
+        }
+        List<BranchHolidayDTO> holidays = branchService.getHolidays(id);
+        return version.isPresent()
+                ? ResponseEntity.ok().eTag(versionETag(version.get(), variant)).varyBy(HttpHeaders.ACCEPT).body(holidays)
+                : ResponseEntity.ok(holidays);
+    }
+
+    @Operation(summary = "Verificar si es feriado", description = "Devuelve true si la fecha dada es feriado en la sucursal")
+    @GetMapping("/{id}/isHoliday")
+    public ResponseEntity<Boolean> isHoliday(
+            @PathVariable String id, 
+            @RequestParam LocalDate date) {
+        log.info("REST request to check holiday date: {} for branch ID: {}", date, id);
+        return ResponseEntity.ok(branchService.isHoliday(id, date));
+    }
+
+    @Operation(summary = "Siguiente día hábil", description = "Devuelve el primer día hábil posterior a la fecha dada, considerando fines de semana y feriados de la sucursal")
+    @GetMapping("/{id}/nextBusinessDay")
+    public ResponseEntity<LocalDate> nextBusinessDay(
+            @PathVariable String id,
+            @RequestParam LocalDate date) {
+        log.info("REST request to get next business day after: {} for branch ID: {}", date, id);
+        return ResponseEntity.ok(branchService.nextBusinessDay(id, date));
+    }
+
+    @Operation(summary = "Sumar días hábiles", description = "Suma (o resta, si es negativo) N días hábiles a la fecha dada")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Fecha calculada"),
+        @ApiResponse(responseCode = "400", description = "El desplazamiento excede el rango permitido"),
+        @ApiResponse(responseCode = "404", description = "Sucursal no encontrada")
+    })
+    @GetMapping("/{id}/addBusinessDays")
+    public ResponseEntity<LocalDate> addBusinessDays(
+            @PathVariable String id,
+            @RequestParam LocalDate date,
+            @RequestParam int days) {
+        log.info("REST request to add {} business days to: {} for branch ID: {}", days, date, id);
+        return ResponseEntity.ok(branchService.addBusinessDays(id, date, days));
+    }
+
+    @Operation(summary = "Contar días hábiles", description = "Cuenta los días hábiles entre dos fechas, excluyendo la fecha inicial e incluyendo la final")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cantidad calculada"),
+        @ApiResponse(responseCode = "400", description = "El rango excede el máximo permitido"),
+        @ApiResponse(responseCode = "404", description = "Sucursal no encontrada")
+    })
+    @GetMapping("/{id}/businessDaysBetween")
+    public ResponseEntity<Long> businessDaysBetween(
+            @PathVariable String id,
+            @RequestParam LocalDate from,
+            @RequestParam LocalDate to) {
+        log.info("REST request to count business days between: {} and {} for branch ID: {}", from, to, id);
+        return ResponseEntity.ok(branchService.businessDaysBetween(id, from, to));
+    }
+
+    @Operation(summary = "Verificar feriados en lote", description = "Evalúa una lista de pares (sucursal, fecha) o una matriz sucursales × rango de fechas en una sola llamada")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Verificación realizada"),
+        @ApiResponse(responseCode = "400", description = "Solicitud inválida o demasiado grande")
+    })
+    @PostMapping("/holidays/check")
+    public ResponseEntity<HolidayCheckResponseDTO> checkHolidays(
+            @Valid @RequestBody HolidayCheckRequestDTO request) {
+        log.info("REST request to check holidays in batch");
+        return ResponseEntity.ok(branchService.checkHolidays(request));
+    }
+
+    @Operation(summary = "Importar calendario de feriados", description = "Carga un calendario en todas las sucursales, en una lista de sucursales o en las de un estado. Las fechas existentes con el mismo nombre se omiten y las que tienen otro nombre se reportan como conflicto")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importación realizada (o simulada con dryRun)"),
+        @ApiResponse(responseCode = "400", description = "Calendario o selección de sucursales inválidos")
+    })
+    @ConcurrencyLimited(EndpointClass.WRITES)
+    @PostMapping(value = "/holidays/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<HolidayImportResponseDTO> importHolidays(
+            @Valid @RequestBody HolidayImportRequestDTO request) {
+        log.info("REST request to import {} holidays", request.getHolidays().size());
+        return ResponseEntity.ok(branchService.importHolidays(request));
+    }
+
+    @Operation(summary = "Importar calendario de feriados desde CSV", description = "Igual que la importación JSON; el cuerpo es un CSV 'date,name' y la selección de sucursales va en los parámetros")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importación realizada (o simulada con dryRun)"),
+        @ApiResponse(responseCode = "400", description = "CSV o selección de sucursales inválidos")
+    })
+    @ConcurrencyLimited(EndpointClass.WRITES)
+    @PostMapping(value = "/holidays/import", consumes = "text/csv")
+    public ResponseEntity<HolidayImportResponseDTO> importHolidaysCsv(
+            @RequestBody String csv,
+            @RequestParam(required = false) List<String> branchIds,
+            @RequestParam(required = false) String state,
+            @RequestParam(defaultValue = "false") boolean all,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        log.info("REST request to import holidays from CSV");
+        HolidayImportRequestDTO request = HolidayImportRequestDTO.builder()
+                .holidays(branchService.parseHolidayCsv(csv))
+                .branchIds(branchIds)
+                .state(state)
+                .all(all)
+                .dryRun(dryRun)
+                .build();
+        return ResponseEntity.ok(branchService.importHolidays(request));
+    }
+
+    @Operation(summary = "Sucursales cerradas", description = "Lista las sucursales con al menos un feriado en la fecha o rango de fechas indicado")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Listado obtenido exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Rango de fechas inválido")
+    })
+    @ConcurrencyLimited(EndpointClass.READS)
+    @GetMapping("/closed")
+    public ResponseEntity<List<BranchSummaryDTO>> getClosedBranches(
+            @RequestParam(required = false) LocalDate date,
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(required = false) LocalDate to) {
+        log.info("REST request to get branches closed on date: {} or between: {} and {}", date, from, to);
+        if (date != null) {
+            return ResponseEntity.ok(branchService.getClosedBranches(date, date));
+        }
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Either date or from/to must be provided");
+        }
+        return ResponseEntity.ok(branchService.getClosedBranches(from, to));
+    }
+
+    private static boolean hasIfNoneMatch(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+    }
+
+    private static long versionOf(Long version) {
+        return version == null ? 0L : version;
+    }
+
+    // El 304 también lleva Vary: una caché compartida no debe validar con él la representación de otro Accept
+    private static boolean notModified(WebRequest request, String eTag) {
+        if (!request.checkNotModified(eTag)) {
+            return false;
+        }
+        HttpServletResponse response = request instanceof NativeWebRequest nativeRequest
+                ? nativeRequest.getNativeResponse(HttpServletResponse.class)
+                : null;
+        if (response != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return true;
+    }
+
+    /**
+     * Parte del ETag que distingue los cuerpos de una misma versión: la representación que elige la
+     * negociación de contenido (JSON, CBOR o Smile) y si se omitieron los feriados propios.
+     */
+    private static String variant(WebRequest request, boolean includeHolidays) {
+        return representation(request.getHeader(HttpHeaders.ACCEPT)) + (includeHolidays ? "" : "-noholidays");
+    }
+
+    // JSON va primero entre los convertidores, así que gana con */* o sin Accept
+    private static String representation(String accept) {
+        List<MediaType> acceptable;
+        try {
+            acceptable = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException ex) {
+            return "json";
+        }
+        acceptable.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : acceptable) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return "json";
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return "cbor";
+            }
+            if (type.isCompatibleWith(SMILE)) {
+                return "smile";
+            }
+        }
+        return "json";
+    }
+
+    private static String versionETag(long version, String variant) {
+        return "\"" + version + "-" + variant + "\"";
+    }
+
+    private static String catalogETag(BranchCatalogVersion version, String variant) {
+        return "\"" + version.getCount() + "-" + version.getVersionSum() + "-" + variant + "\"";
+    }
+}
@@ -0,0 +1,101 @@
+package com.banquito.core.sucursales.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.banquito.core.sucursales.config.ConcurrencyLimited;
+import com.banquito.core.sucursales.config.ConcurrencyLimits.EndpointClass;
+import com.banquito.core.sucursales.dto.BranchHolidayDTO;
+import com.banquito.core.sucursales.dto.HolidayCalendarCreateDTO;
+import com.banquito.core.sucursales.dto.HolidayCalendarDTO;
+import com.banquito.core.sucursales.service.HolidayCalendarService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/holiday-calendars")
+@RequiredArgsConstructor
+@Tag(name = "Holiday Calendars", description = "API para gestionar calendarios de feriados compartidos entre sucursales")
+public class HolidayCalendarController {
+
+    private final HolidayCalendarService holidayCalendarService;
+
+    @Operation(summary = "Listar calendarios", description = "Retorna los calendarios compartidos (nacionales y regionales)")
+    @ApiResponse(responseCode = "200", description = "Listado obtenido exitosamente")
+    @GetMapping
+    public ResponseEntity<List<HolidayCalendarDTO>> getCalendars() {
+        log.info("REST request to get all holiday calendars");
+        return ResponseEntity.ok(holidayCalendarService.getCalendars());
+    }
+
+    @Operation(summary = "Crear calendario", description = "Crea un calendario compartido con sus feriados iniciales")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Calendario creado"),
+        @ApiResponse(responseCode = "400", description = "Datos inválidos o código duplicado")
+    })
+    @ConcurrencyLimited(EndpointClass.WRITES)
+    @PostMapping
+    public ResponseEntity<HolidayCalendarDTO> createCalendar(@Valid @RequestBody HolidayCalendarCreateDTO dto) {
+        log.info("REST request to create holiday calendar with code: {}", dto.getCode());
+        return ResponseEntity.ok(holidayCalendarService.createCalendar(dto));
+    }
+
+    @Operation(summary = "Obtener calendario por ID", description = "Busca un calendario compartido por su identificador")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Calendario encontrado"),
+        @ApiResponse(responseCode = "404", description = "Calendario no encontrado")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<HolidayCalendarDTO> getCalendar(@PathVariable String id) {
+        log.info("REST request to get holiday calendar with ID: {}", id);
+        return ResponseEntity.ok(holidayCalendarService.getCalendar(id));
+    }
+
+    @Operation(summary = "Agregar feriado al calendario", description = "El feriado aplica a todas las sucursales que usan el calendario, sin reescribir sus documentos")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Feriado agregado"),
+        @ApiResponse(responseCode = "404", description = "Calendario no encontrado"),
+        @ApiResponse(responseCode = "400", description = "El feriado ya existe para esa fecha")
+    })
+    @ConcurrencyLimited(EndpointClass.WRITES)
+    @PostMapping("/{id}/holidays")
+    public ResponseEntity<Void> addHoliday(
+            @PathVariable String id,
+            @Valid @RequestBody BranchHolidayDTO holidayDTO) {
+        log.info("REST request to add holiday to calendar ID: {}", id);
+        holidayCalendarService.addHoliday(id, holidayDTO);
+        return ResponseEntity.ok().build();
+    }
+
+    @Operation(summary = "Eliminar feriado del calendario", description = "Elimina un feriado del calendario basado en su fecha")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Feriado eliminado"),
+        @ApiResponse(responseCode = "404", description = "Calendario o feriado no encontrado")
+    })
+    @ConcurrencyLimited(EndpointClass.WRITES)
+    @DeleteMapping("/{id}/holidays")
+    public ResponseEntity<Void> removeHoliday(
+            @PathVariable String id,
+            @RequestParam LocalDate date) {
+        log.info("REST request to remove holiday date: {} from calendar ID: {}", date, id);
+        holidayCalendarService.removeHoliday(id, date);
+        return ResponseEntity.ok().build();
+    }
+}
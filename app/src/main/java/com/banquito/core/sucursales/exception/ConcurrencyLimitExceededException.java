@@ -0,0 +1,24 @@
+package com.banquito.core.sucursales.exception;
+
+import java.time.Duration;
+
+import com.banquito.core.sucursales.config.ConcurrencyLimits.EndpointClass;
+
+import lombok.Getter;
+
+/**
+ * La clase de endpoint alcanzó su límite de concurrencia y la petición se descarta sin llegar a MongoDB.
+ * Sin stack trace: bajo carga se lanza muchas veces y nunca se registra.
+ */
+@Getter
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private final EndpointClass endpointClass;
+    private final Duration retryAfter;
+
+    public ConcurrencyLimitExceededException(EndpointClass endpointClass, Duration retryAfter) {
+        super("Concurrency limit reached for " + endpointClass.tag(), null, false, false);
+        this.endpointClass = endpointClass;
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,49 @@
+package com.banquito.core.sucursales.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchHoliday;
+
+/**
+ * Almacenamiento de los feriados propios de las sucursales, según branch.holiday-storage.mode.
+ * Toda escritura incrementa la versión y lastModifiedDate de la sucursal, base del ETag y de /changes.
+ */
+public interface BranchHolidayStore {
+
+    boolean addIfAbsent(String branchId, BranchHoliday holiday);
+
+    boolean remove(String branchId, LocalDate date);
+
+    boolean contains(String branchId, LocalDate date);
+
+    /**
+     * Completa branchHolidays de sucursales leídas con includeHolidays.
+     */
+    void attach(List<Branch> branches);
+
+    Stream<Branch> attach(Stream<Branch> branches);
+
+    /**
+     * Sucursales con su ID, calendarIds y las fechas de sus feriados propios, para el índice en memoria.
+     */
+    Stream<Branch> streamHolidayDates();
+
+    List<Branch> findHolidayDates(Collection<String> branchIds);
+
+    /**
+     * Sucursales seleccionadas con sus feriados propios; basta con los de los años indicados.
+     */
+    List<Branch> findHolidaysFor(Collection<String> branchIds, String state, Collection<Integer> years);
+
+    /**
+     * Agrega los feriados sin duplicar fechas; devuelve cuántas sucursales recibieron la carga completa.
+     */
+    long addAll(Map<String, List<BranchHoliday>> holidaysByBranch);
+
+    List<Branch> findClosedBetween(LocalDate from, LocalDate to, Collection<String> calendarIds);
+}
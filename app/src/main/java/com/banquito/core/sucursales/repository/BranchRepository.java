@@ -0,0 +1,31 @@
+package com.banquito.core.sucursales.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.core.sucursales.model.Branch;
+
+@Repository
+public interface BranchRepository extends MongoRepository<Branch, String>, BranchRepositoryCustom {
+
+    Optional<Branch> findByEmailAddress(String emailAddress);
+    
+    Boolean existsByEmailAddress(String emailAddress);
+
+    @Query(value = "{}", fields = "{ 'branchHolidays.date': 1, 'calendarIds': 1, 'version': 1 }")
+    Stream<Branch> streamAllHolidayDates();
+
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ 'branchHolidays.date': 1, 'calendarIds': 1, 'version': 1 }")
+    List<Branch> findHolidayDatesByIdIn(Collection<String> ids);
+
+    @Query(value = "{ $or: [ { 'branchHolidays': { $elemMatch: { 'date': { $gte: ?0, $lte: ?1 } } } }, { 'calendarIds': { $in: ?2 } } ] }",
+            fields = "{ 'name': 1 }")
+    List<Branch> findClosedBetween(LocalDate from, LocalDate to, Collection<String> calendarIds);
+}
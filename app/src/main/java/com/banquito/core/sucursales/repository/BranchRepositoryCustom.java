@@ -0,0 +1,59 @@
+package com.banquito.core.sucursales.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchCatalogVersion;
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.mongodb.bulk.BulkWriteError;
+
+public interface BranchRepositoryCustom {
+
+    Branch insertWithServerTime(Branch branch);
+
+    List<BulkWriteError> insertUnordered(List<Branch> branches);
+
+    LocalDateTime currentTime();
+
+    Optional<Branch> findById(String id, boolean includeHolidays);
+
+    Optional<Branch> updatePhoneNumber(String id, String phoneNumber);
+
+    boolean pushHolidayIfAbsent(String branchId, BranchHoliday holiday);
+
+    boolean pullHoliday(String branchId, LocalDate date);
+
+    Optional<Branch> addCalendar(String branchId, String calendarId);
+
+    Optional<Branch> removeCalendar(String branchId, String calendarId);
+
+    long touchByCalendarId(String calendarId);
+
+    long touch(Collection<String> branchIds);
+
+    long updateHolidayLayout(List<Branch> branches);
+
+    List<Branch> findWithEmbeddedHolidays(String afterId, int limit);
+
+    long clearEmbeddedHolidays(List<Branch> branches);
+
+    List<Branch> findHolidaysFor(Collection<String> branchIds, String state);
+
+    long pushHolidays(Map<String, List<BranchHoliday>> holidaysByBranch);
+
+    List<Branch> findPageAfter(String afterId, int limit, boolean includeHolidays);
+
+    Stream<Branch> streamAll(boolean includeHolidays);
+
+    List<Branch> findChangedAfter(LocalDateTime since, String afterId, LocalDateTime until, int limit);
+
+    Optional<Long> findVersionById(String id);
+
+    BranchCatalogVersion getCatalogVersion();
+}
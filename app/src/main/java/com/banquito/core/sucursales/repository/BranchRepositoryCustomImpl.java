@@ -0,0 +1,320 @@
+package com.banquito.core.sucursales.repository;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchCatalogVersion;
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.mongodb.MongoCommandException;
+import com.mongodb.bulk.BulkWriteError;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+// Resultado de agregación: no es entidad ni tipo de repositorio, AOT no lo registra por su cuenta
+@RegisterReflectionForBinding(BranchCatalogVersion.class)
+public class BranchRepositoryCustomImpl implements BranchRepositoryCustom {
+
+    private static final Set<String> SERVER_SET_FIELDS = Set.of("_id", "creationDate", "lastModifiedDate");
+    private static final String LEGACY_HELLO = "isMaster";
+    private static final int COMMAND_NOT_FOUND = 59;
+
+    private final MongoTemplate mongoTemplate;
+    private volatile String helloCommand = "hello";
+
+    @Override
+    public Branch insertWithServerTime(Branch branch) {
+        Update update = insertUpdate(branch);
+        return mongoTemplate.findAndModify(query(where("id").is(branch.getId())), update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), Branch.class);
+    }
+
+    @Override
+    public List<BulkWriteError> insertUnordered(List<Branch> branches) {
+        List<Pair<Query, Update>> inserts = branches.stream()
+                .map(branch -> {
+                    Update update = insertUpdate(branch);
+                    return Pair.of(query(where("id").is(branch.getId())), update);
+                })
+                .toList();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Branch.class).upsert(inserts).execute();
+            return List.of();
+        } catch (BulkOperationException ex) {
+            return ex.getErrors();
+        }
+    }
+
+    /**
+     * Alta como upsert sobre un ID nuevo: creationDate y lastModifiedDate los fija $currentDate en la misma
+     * escritura, con el reloj de MongoDB como las actualizaciones, sin consultar antes la hora del servidor.
+     */
+    private Update insertUpdate(Branch branch) {
+        if (branch.getId() == null) {
+            branch.setId(new ObjectId().toHexString());
+        }
+        if (branch.getVersion() == null) {
+            branch.setVersion(0L);
+        }
+        Document document = new Document();
+        mongoTemplate.getConverter().write(branch, document);
+        Update update = new Update()
+                .currentDate("creationDate")
+                .currentDate("lastModifiedDate");
+        document.forEach((field, value) -> {
+            if (!SERVER_SET_FIELDS.contains(field)) {
+                update.setOnInsert(field, value);
+            }
+        });
+        return update;
+    }
+
+    /**
+     * Hora del servidor de MongoDB, la misma que fija $currentDate en las escrituras. /changes ordena
+     * por lastModifiedDate: con el reloj de cada réplica de la aplicación un desfase saltaría cambios.
+     */
+    @Override
+    public LocalDateTime currentTime() {
+        Document reply;
+        try {
+            reply = mongoTemplate.executeCommand(new Document(helloCommand, 1));
+        } catch (DataAccessException ex) {
+            // hello existe desde MongoDB 4.4.2; en servidores anteriores se usa isMaster
+            if (!(ex.getMostSpecificCause() instanceof MongoCommandException command)
+                    || command.getErrorCode() != COMMAND_NOT_FOUND || LEGACY_HELLO.equals(helloCommand)) {
+                throw ex;
+            }
+            helloCommand = LEGACY_HELLO;
+            reply = mongoTemplate.executeCommand(new Document(helloCommand, 1));
+        }
+        return LocalDateTime.ofInstant(reply.getDate("localTime").toInstant(), ZoneId.systemDefault());
+    }
+
+    @Override
+    public Optional<Branch> findById(String id, boolean includeHolidays) {
+        return Optional.ofNullable(mongoTemplate.findOne(withHolidays(query(where("id").is(id)), includeHolidays), Branch.class));
+    }
+
+    @Override
+    public Optional<Branch> updatePhoneNumber(String id, String phoneNumber) {
+        Update update = new Update()
+                .set("phoneNumber", phoneNumber)
+                .currentDate("lastModifiedDate")
+                .inc("version", 1);
+        return Optional.ofNullable(mongoTemplate.findAndModify(withHolidays(query(where("id").is(id)), false), update,
+                FindAndModifyOptions.options().returnNew(true), Branch.class));
+    }
+
+    @Override
+    public boolean pushHolidayIfAbsent(String branchId, BranchHoliday holiday) {
+        Update update = new Update()
+                .push("branchHolidays", holiday)
+                .currentDate("lastModifiedDate")
+                .inc("version", 1);
+        return mongoTemplate.updateFirst(
+                query(where("id").is(branchId).and("branchHolidays.date").ne(holiday.getDate())),
+                update, Branch.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean pullHoliday(String branchId, LocalDate date) {
+        Update update = new Update()
+                .pull("branchHolidays", query(where("date").is(date)))
+                .currentDate("lastModifiedDate")
+                .inc("version", 1);
+        return mongoTemplate.updateFirst(
+                query(where("id").is(branchId).and("branchHolidays.date").is(date)),
+                update, Branch.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public Optional<Branch> addCalendar(String branchId, String calendarId) {
+        Update update = new Update()
+                .addToSet("calendarIds", calendarId)
+                .currentDate("lastModifiedDate")
+                .inc("version", 1);
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                withHolidays(query(where("id").is(branchId).and("calendarIds").ne(calendarId)), false),
+                update, FindAndModifyOptions.options().returnNew(true), Branch.class));
+    }
+
+    @Override
+    public Optional<Branch> removeCalendar(String branchId, String calendarId) {
+        Update update = new Update()
+                .pull("calendarIds", calendarId)
+                .currentDate("lastModifiedDate")
+                .inc("version", 1);
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                withHolidays(query(where("id").is(branchId).and("calendarIds").is(calendarId)), false),
+                update, FindAndModifyOptions.options().returnNew(true), Branch.class));
+    }
+
+    @Override
+    public long touchByCalendarId(String calendarId) {
+        // Sólo metadatos: los feriados efectivos cambian, pero el ETag y /changes dependen de la versión de la sucursal
+        Update update = new Update()
+                .currentDate("lastModifiedDate")
+                .inc("version", 1);
+        return mongoTemplate.updateMulti(query(where("calendarIds").is(calendarId)), update, Branch.class)
+                .getModifiedCount();
+    }
+
+    @Override
+    public long touch(Collection<String> branchIds) {
+        if (branchIds.isEmpty()) {
+            return 0;
+        }
+        Update update = new Update()
+                .currentDate("lastModifiedDate")
+                .inc("version", 1);
+        return mongoTemplate.updateMulti(query(where("id").in(branchIds)), update, Branch.class).getModifiedCount();
+    }
+
+    @Override
+    public long updateHolidayLayout(List<Branch> branches) {
+        if (branches.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Branch.class);
+        for (Branch branch : branches) {
+            Update update = new Update()
+                    .set("branchHolidays", branch.getBranchHolidays())
+                    .set("calendarIds", branch.getCalendarIds())
+                    .currentDate("lastModifiedDate")
+                    .inc("version", 1);
+            // Sólo si nadie modificó la sucursal desde que se leyó
+            bulk.updateOne(query(where("id").is(branch.getId()).and("version").is(branch.getVersion())), update);
+        }
+        return bulk.execute().getModifiedCount();
+    }
+
+    @Override
+    public List<Branch> findWithEmbeddedHolidays(String afterId, int limit) {
+        Query query = query(where("branchHolidays.0").exists(true));
+        if (afterId != null) {
+            query.addCriteria(where("id").gt(afterId));
+        }
+        query.with(Sort.by("id")).limit(limit);
+        query.fields().include("branchHolidays");
+        return mongoTemplate.find(query, Branch.class);
+    }
+
+    @Override
+    public long clearEmbeddedHolidays(List<Branch> branches) {
+        if (branches.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Branch.class);
+        // Los feriados efectivos no cambian, así que no se toca la versión. Se exige que la lista siga siendo la
+        // copiada y no la versión: en modo bucketed cada alta o baja la incrementa sin cambiar la lista, y una lista
+        // que quedara haría que la siguiente corrida devolviera a los buckets feriados ya borrados
+        branches.forEach(branch -> bulk.updateOne(
+                query(where("id").is(branch.getId()).and("branchHolidays").is(branch.getBranchHolidays())),
+                new Update().unset("branchHolidays")));
+        return bulk.execute().getModifiedCount();
+    }
+
+    @Override
+    public List<Branch> findHolidaysFor(Collection<String> branchIds, String state) {
+        Query query = branchIds != null
+                ? query(where("id").in(branchIds))
+                : state != null ? query(where("state").is(state)) : new Query();
+        query.fields().include("branchHolidays");
+        return mongoTemplate.find(query, Branch.class);
+    }
+
+    @Override
+    public long pushHolidays(Map<String, List<BranchHoliday>> holidaysByBranch) {
+        if (holidaysByBranch.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Branch.class);
+        holidaysByBranch.forEach((branchId, holidays) -> {
+            List<LocalDate> dates = holidays.stream().map(BranchHoliday::getDate).toList();
+            Update update = new Update()
+                    .push("branchHolidays").each(holidays.toArray())
+                    .currentDate("lastModifiedDate")
+                    .inc("version", 1);
+            // Si otra escritura agregó alguna de las fechas, la sucursal no coincide y no se duplica
+            bulk.updateOne(query(where("id").is(branchId).and("branchHolidays.date").nin(dates)), update);
+        });
+        return bulk.execute().getMatchedCount();
+    }
+
+    @Override
+    public List<Branch> findPageAfter(String afterId, int limit, boolean includeHolidays) {
+        Query query = afterId == null ? new Query() : query(where("id").gt(afterId));
+        query.with(Sort.by("id")).limit(limit);
+        return mongoTemplate.find(withHolidays(query, includeHolidays), Branch.class);
+    }
+
+    @Override
+    public Stream<Branch> streamAll(boolean includeHolidays) {
+        Query query = new Query().with(Sort.by("id"));
+        return mongoTemplate.stream(withHolidays(query, includeHolidays), Branch.class);
+    }
+
+    @Override
+    public List<Branch> findChangedAfter(LocalDateTime since, String afterId, LocalDateTime until, int limit) {
+        Criteria position = afterId == null
+                ? where("lastModifiedDate").gte(since)
+                : new Criteria().orOperator(
+                        where("lastModifiedDate").gt(since),
+                        where("lastModifiedDate").is(since).and("id").gt(afterId));
+        Query query = query(new Criteria().andOperator(position, where("lastModifiedDate").lt(until)))
+                .with(Sort.by("lastModifiedDate", "id"))
+                .limit(limit);
+        return mongoTemplate.find(query, Branch.class);
+    }
+
+    @Override
+    public Optional<Long> findVersionById(String id) {
+        Query query = query(where("id").is(id));
+        query.fields().include("version");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Branch.class))
+                .map(branch -> branch.getVersion() == null ? 0L : branch.getVersion());
+    }
+
+    @Override
+    public BranchCatalogVersion getCatalogVersion() {
+        BranchCatalogVersion version = mongoTemplate.aggregate(
+                newAggregation(group().count().as("count").sum("version").as("versionSum")),
+                Branch.class, BranchCatalogVersion.class).getUniqueMappedResult();
+        return version == null ? new BranchCatalogVersion(0, 0) : version;
+    }
+
+    private static Query withHolidays(Query query, boolean includeHolidays) {
+        if (!includeHolidays) {
+            query.fields().exclude("branchHolidays");
+        }
+        return query;
+    }
+}
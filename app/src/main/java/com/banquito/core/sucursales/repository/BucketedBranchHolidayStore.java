@@ -0,0 +1,249 @@
+package com.banquito.core.sucursales.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.core.sucursales.config.RepositoryObservationConfig;
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.banquito.core.sucursales.model.BranchHolidayBucket;
+
+import io.micrometer.observation.annotation.Observed;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Feriados en la colección branchHolidayBuckets, un documento por (branchId, year). Los buckets se
+ * escriben antes de incrementar la versión de la sucursal: quien vea la versión nueva ya ve los feriados.
+ */
+@Observed(name = RepositoryObservationConfig.REPOSITORY_OBSERVATION)
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "branch.holiday-storage", name = "mode", havingValue = "bucketed")
+public class BucketedBranchHolidayStore implements BranchHolidayStore {
+
+    private static final int ATTACH_BATCH_SIZE = 500;
+
+    private final BranchRepository branchRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean addIfAbsent(String branchId, BranchHoliday holiday) {
+        if (!branchRepository.existsById(branchId)) {
+            return false;
+        }
+        Query query = bucket(branchId, holiday.getDate().getYear()).addCriteria(where("holidays.date").ne(holiday.getDate()));
+        Update update = new Update().push("holidays", holiday);
+        boolean added;
+        try {
+            // Si el bucket ya tiene la fecha no coincide y el upsert choca con el índice único (branchId, year)
+            mongoTemplate.upsert(query, update, BranchHolidayBucket.class);
+            added = true;
+        } catch (DuplicateKeyException ex) {
+            // O bien otro upsert creó el bucket al mismo tiempo: ahora existe y basta con actualizarlo
+            added = mongoTemplate.updateFirst(query, update, BranchHolidayBucket.class).getMatchedCount() > 0;
+        }
+        if (added) {
+            branchRepository.touch(List.of(branchId));
+        }
+        return added;
+    }
+
+    @Override
+    public boolean remove(String branchId, LocalDate date) {
+        boolean removed = mongoTemplate.updateFirst(
+                bucket(branchId, date.getYear()).addCriteria(where("holidays.date").is(date)),
+                new Update().pull("holidays", query(where("date").is(date))),
+                BranchHolidayBucket.class).getMatchedCount() > 0;
+        if (removed) {
+            branchRepository.touch(List.of(branchId));
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean contains(String branchId, LocalDate date) {
+        return mongoTemplate.exists(bucket(branchId, date.getYear()).addCriteria(where("holidays.date").is(date)),
+                BranchHolidayBucket.class);
+    }
+
+    @Override
+    public void attach(List<Branch> branches) {
+        if (branches.isEmpty()) {
+            return;
+        }
+        Map<String, List<BranchHoliday>> holidays = holidaysByBranch(
+                query(where("branchId").in(branches.stream().map(Branch::getId).toList())), false);
+        branches.forEach(branch -> branch.setBranchHolidays(holidays.getOrDefault(branch.getId(), new ArrayList<>())));
+    }
+
+    @Override
+    public Stream<Branch> attach(Stream<Branch> branches) {
+        // Por lotes: una consulta de buckets cada ATTACH_BATCH_SIZE sucursales, sin cargar todo en memoria
+        Iterator<Branch> source = branches.iterator();
+        Iterator<List<Branch>> batches = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public List<Branch> next() {
+                List<Branch> batch = new ArrayList<>(ATTACH_BATCH_SIZE);
+                while (source.hasNext() && batch.size() < ATTACH_BATCH_SIZE) {
+                    batch.add(source.next());
+                }
+                attach(batch);
+                return batch;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(batches, Spliterator.ORDERED), false)
+                .flatMap(List::stream)
+                .onClose(branches::close);
+    }
+
+    @Override
+    public Stream<Branch> streamHolidayDates() {
+        Map<String, List<BranchHoliday>> dates = holidaysByBranch(new Query(), true);
+        Query query = new Query();
+        query.fields().include("calendarIds").include("version");
+        return mongoTemplate.stream(query, Branch.class).map(branch -> {
+            branch.setBranchHolidays(dates.getOrDefault(branch.getId(), List.of()));
+            return branch;
+        });
+    }
+
+    @Override
+    public List<Branch> findHolidayDates(Collection<String> branchIds) {
+        Query query = query(where("id").in(branchIds));
+        query.fields().include("calendarIds").include("version");
+        List<Branch> branches = mongoTemplate.find(query, Branch.class);
+        Map<String, List<BranchHoliday>> dates = holidaysByBranch(query(where("branchId").in(branchIds)), true);
+        branches.forEach(branch -> branch.setBranchHolidays(dates.getOrDefault(branch.getId(), List.of())));
+        return branches;
+    }
+
+    @Override
+    public List<Branch> findHolidaysFor(Collection<String> branchIds, String state, Collection<Integer> years) {
+        Query query = branchIds != null
+                ? query(where("id").in(branchIds))
+                : state != null ? query(where("state").is(state)) : new Query();
+        query.fields().include("id");
+        List<Branch> branches = mongoTemplate.find(query, Branch.class);
+        // Sin selección por ID o estado no hace falta filtrar los buckets por sucursal
+        Query buckets = branchIds == null && state == null
+                ? new Query()
+                : query(where("branchId").in(branches.stream().map(Branch::getId).toList()));
+        if (years != null) {
+            buckets.addCriteria(where("year").in(years));
+        }
+        Map<String, List<BranchHoliday>> holidays = holidaysByBranch(buckets, false);
+        branches.forEach(branch -> branch.setBranchHolidays(holidays.getOrDefault(branch.getId(), new ArrayList<>())));
+        return branches;
+    }
+
+    @Override
+    public long addAll(Map<String, List<BranchHoliday>> holidaysByBranch) {
+        if (holidaysByBranch.isEmpty()) {
+            return 0;
+        }
+        List<String> owners = new ArrayList<>();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BranchHolidayBucket.class);
+        holidaysByBranch.forEach((branchId, holidays) -> holidays.stream()
+                .collect(Collectors.groupingBy(holiday -> holiday.getDate().getYear(), LinkedHashMap::new, Collectors.toList()))
+                .forEach((year, yearHolidays) -> {
+                    List<LocalDate> dates = yearHolidays.stream().map(BranchHoliday::getDate).toList();
+                    // Igual que en el modo embebido: si otra escritura agregó alguna fecha, el bucket no coincide
+                    bulk.upsert(bucket(branchId, year).addCriteria(where("holidays.date").nin(dates)),
+                            new Update().push("holidays").each(yearHolidays.toArray()));
+                    owners.add(branchId);
+                }));
+        Set<Integer> failedOperations = new HashSet<>();
+        try {
+            bulk.execute();
+        } catch (BulkOperationException ex) {
+            ex.getErrors().forEach(error -> failedOperations.add(error.getIndex()));
+        }
+        Set<String> failed = new HashSet<>();
+        Set<String> changed = new HashSet<>();
+        for (int i = 0; i < owners.size(); i++) {
+            (failedOperations.contains(i) ? failed : changed).add(owners.get(i));
+        }
+        branchRepository.touch(changed);
+        return holidaysByBranch.size() - failed.size();
+    }
+
+    @Override
+    public List<Branch> findClosedBetween(LocalDate from, LocalDate to, Collection<String> calendarIds) {
+        List<String> branchIds = mongoTemplate.findDistinct(
+                query(where("holidays").elemMatch(where("date").gte(from).lte(to))),
+                "branchId", BranchHolidayBucket.class, String.class);
+        Query query = query(new Criteria().orOperator(where("id").in(branchIds), where("calendarIds").in(calendarIds)));
+        query.fields().include("name");
+        return mongoTemplate.find(query, Branch.class);
+    }
+
+    /**
+     * Copia los feriados embebidos de las sucursales a sus buckets. $addToSet hace que repetir la
+     * migración sobre las mismas sucursales no duplique feriados.
+     */
+    public void copyFromEmbedded(List<Branch> branches) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BranchHolidayBucket.class);
+        int operations = 0;
+        for (Branch branch : branches) {
+            Map<Integer, List<BranchHoliday>> byYear = branch.getBranchHolidays().stream()
+                    .collect(Collectors.groupingBy(holiday -> holiday.getDate().getYear()));
+            for (Map.Entry<Integer, List<BranchHoliday>> year : byYear.entrySet()) {
+                bulk.upsert(bucket(branch.getId(), year.getKey()),
+                        new Update().addToSet("holidays").each(year.getValue().toArray()));
+                operations++;
+            }
+        }
+        if (operations > 0) {
+            bulk.execute();
+        }
+    }
+
+    private Map<String, List<BranchHoliday>> holidaysByBranch(Query query, boolean datesOnly) {
+        query.with(Sort.by("branchId", "year"));
+        query.fields().include("branchId").include(datesOnly ? "holidays.date" : "holidays");
+        Map<String, List<BranchHoliday>> holidays = new HashMap<>();
+        try (Stream<BranchHolidayBucket> buckets = mongoTemplate.stream(query, BranchHolidayBucket.class)) {
+            buckets.filter(bucket -> bucket.getHolidays() != null).forEach(bucket -> holidays
+                    .computeIfAbsent(bucket.getBranchId(), id -> new ArrayList<>())
+                    .addAll(bucket.getHolidays()));
+        }
+        return holidays;
+    }
+
+    private static Query bucket(String branchId, int year) {
+        return query(where("branchId").is(branchId).and("year").is(year));
+    }
+}
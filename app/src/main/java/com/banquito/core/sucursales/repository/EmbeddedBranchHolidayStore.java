@@ -0,0 +1,85 @@
+package com.banquito.core.sucursales.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.core.sucursales.config.RepositoryObservationConfig;
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchHoliday;
+
+import io.micrometer.observation.annotation.Observed;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Feriados embebidos en el documento de la sucursal (lista branchHolidays).
+ */
+@Observed(name = RepositoryObservationConfig.REPOSITORY_OBSERVATION)
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "branch.holiday-storage", name = "mode", havingValue = "embedded", matchIfMissing = true)
+public class EmbeddedBranchHolidayStore implements BranchHolidayStore {
+
+    private final BranchRepository branchRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean addIfAbsent(String branchId, BranchHoliday holiday) {
+        return branchRepository.pushHolidayIfAbsent(branchId, holiday);
+    }
+
+    @Override
+    public boolean remove(String branchId, LocalDate date) {
+        return branchRepository.pullHoliday(branchId, date);
+    }
+
+    @Override
+    public boolean contains(String branchId, LocalDate date) {
+        return mongoTemplate.exists(query(where("id").is(branchId).and("branchHolidays.date").is(date)), Branch.class);
+    }
+
+    @Override
+    public void attach(List<Branch> branches) {
+        // Ya vienen en el documento
+    }
+
+    @Override
+    public Stream<Branch> attach(Stream<Branch> branches) {
+        return branches;
+    }
+
+    @Override
+    public Stream<Branch> streamHolidayDates() {
+        return branchRepository.streamAllHolidayDates();
+    }
+
+    @Override
+    public List<Branch> findHolidayDates(Collection<String> branchIds) {
+        return branchRepository.findHolidayDatesByIdIn(branchIds);
+    }
+
+    @Override
+    public List<Branch> findHolidaysFor(Collection<String> branchIds, String state, Collection<Integer> years) {
+        return branchRepository.findHolidaysFor(branchIds, state);
+    }
+
+    @Override
+    public long addAll(Map<String, List<BranchHoliday>> holidaysByBranch) {
+        return branchRepository.pushHolidays(holidaysByBranch);
+    }
+
+    @Override
+    public List<Branch> findClosedBetween(LocalDate from, LocalDate to, Collection<String> calendarIds) {
+        return branchRepository.findClosedBetween(from, to, calendarIds);
+    }
+}
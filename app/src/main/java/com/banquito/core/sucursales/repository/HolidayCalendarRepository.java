@@ -0,0 +1,14 @@
+package com.banquito.core.sucursales.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.core.sucursales.model.HolidayCalendar;
+
+@Repository
+public interface HolidayCalendarRepository extends MongoRepository<HolidayCalendar, String>, HolidayCalendarRepositoryCustom {
+
+    Optional<HolidayCalendar> findByCode(String code);
+}
@@ -0,0 +1,14 @@
+package com.banquito.core.sucursales.repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.banquito.core.sucursales.model.HolidayCalendar;
+
+public interface HolidayCalendarRepositoryCustom {
+
+    Optional<HolidayCalendar> pushHolidayIfAbsent(String calendarId, BranchHoliday holiday);
+
+    Optional<HolidayCalendar> pullHoliday(String calendarId, LocalDate date);
+}
@@ -0,0 +1,45 @@
+package com.banquito.core.sucursales.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.banquito.core.sucursales.model.HolidayCalendar;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class HolidayCalendarRepositoryCustomImpl implements HolidayCalendarRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<HolidayCalendar> pushHolidayIfAbsent(String calendarId, BranchHoliday holiday) {
+        Update update = new Update()
+                .push("holidays", holiday)
+                .set("lastModifiedDate", LocalDateTime.now())
+                .inc("version", 1);
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                query(where("id").is(calendarId).and("holidays.date").ne(holiday.getDate())),
+                update, FindAndModifyOptions.options().returnNew(true), HolidayCalendar.class));
+    }
+
+    @Override
+    public Optional<HolidayCalendar> pullHoliday(String calendarId, LocalDate date) {
+        Update update = new Update()
+                .pull("holidays", query(where("date").is(date)))
+                .set("lastModifiedDate", LocalDateTime.now())
+                .inc("version", 1);
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                query(where("id").is(calendarId).and("holidays.date").is(date)),
+                update, FindAndModifyOptions.options().returnNew(true), HolidayCalendar.class));
+    }
+}
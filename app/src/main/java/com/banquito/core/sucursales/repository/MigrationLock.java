@@ -0,0 +1,52 @@
+package com.banquito.core.sucursales.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Candado de las migraciones de arranque en la colección migrations, un documento por migración, para que
+ * varias réplicas que arrancan juntas no la ejecuten a la vez. Vence a los lockLease: si la réplica que lo
+ * tiene muere, otra lo toma en el siguiente arranque.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MigrationLock {
+
+    private static final String COLLECTION = "migrations";
+
+    private final MongoTemplate mongoTemplate;
+    private final String owner = UUID.randomUUID().toString();
+
+    public boolean acquire(String migration, Duration lease) {
+        Date now = new Date();
+        Update update = new Update()
+                .set("owner", owner)
+                .set("lockedUntil", Date.from(now.toInstant().plus(lease)));
+        try {
+            // Sin documento lo crea el upsert; con el candado vigente no coincide y el upsert choca con el _id
+            mongoTemplate.findAndModify(query(where("_id").is(migration).and("lockedUntil").lt(now)), update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), Document.class, COLLECTION);
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    public void release(String migration) {
+        mongoTemplate.updateFirst(query(where("_id").is(migration).and("owner").is(owner)),
+                new Update().set("lockedUntil", new Date()), COLLECTION);
+    }
+}
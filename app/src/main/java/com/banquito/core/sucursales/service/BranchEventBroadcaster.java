@@ -0,0 +1,202 @@
+package com.banquito.core.sucursales.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.banquito.core.sucursales.config.BranchProperties;
+import com.banquito.core.sucursales.dto.BranchEventDTO;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reparte los eventos del change stream a los suscriptores SSE. Cada suscriptor tiene su propia
+ * cola acotada drenada por un hilo virtual: un cliente lento nunca bloquea al change stream, y si
+ * su cola se llena se cierra la conexión para que reconecte con Last-Event-ID. Un Last-Event-ID que no
+ * está en el buffer (emitido por otra réplica) se busca en el change stream antes de pedir resincronizar.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+// Sólo se serializa dentro de SseEmitter, fuera de la firma del controlador que AOT inspecciona
+@RegisterReflectionForBinding(BranchEventDTO.class)
+public class BranchEventBroadcaster {
+
+    public static final String RESYNC_REQUIRED = "RESYNC_REQUIRED";
+
+    private final BranchProperties branchProperties;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Últimos eventos emitidos, para reanudar clientes que se desconectaron brevemente
+    private final Deque<BranchEventDTO> replay = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Eventos posteriores a un id leídos del change stream, hasta un límite; null si no se pueden leer
+    private volatile BiFunction<String, Integer, List<BranchEventDTO>> history;
+    private volatile boolean active;
+
+    public void activate(BiFunction<String, Integer, List<BranchEventDTO>> history) {
+        this.history = history;
+        active = true;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    public Optional<SseEmitter> subscribe(String lastEventId) {
+        BranchProperties.Events config = branchProperties.getEvents();
+        if (!active || subscribers.size() >= config.getMaxSubscribers()) {
+            return Optional.empty();
+        }
+        lock.lock();
+        try {
+            List<BranchEventDTO> missed = lastEventId == null ? List.of() : eventsAfter(lastEventId);
+            if (missed != null) {
+                return Optional.of(register(missed, null));
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Fuera del lock: leer MongoDB no debe frenar la publicación de eventos nuevos
+        List<BranchEventDTO> stored = history.apply(lastEventId, config.getReplaySize());
+        lock.lock();
+        try {
+            if (stored == null) {
+                log.info("Last-Event-ID {} is no longer in the change stream history, requesting resync", lastEventId);
+                return Optional.of(register(List.of(resyncEvent()), null));
+            }
+            // Lo publicado aquí durante la lectura se agrega; lo que este nodo publique tarde se descarta
+            String seen = stored.isEmpty() ? lastEventId : stored.getLast().getId();
+            List<BranchEventDTO> missed = new ArrayList<>(stored);
+            replay.stream().filter(event -> isAfter(event, seen)).forEach(missed::add);
+            return Optional.of(register(missed, seen));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private SseEmitter register(List<BranchEventDTO> missed, String seen) {
+        SseEmitter emitter = new SseEmitter(branchProperties.getEvents().getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter,
+                new ArrayBlockingQueue<>(branchProperties.getEvents().getBufferSize() + missed.size()), seen);
+        subscriber.queue().addAll(missed);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        Thread.ofVirtual().name("branch-events").start(() -> drain(subscriber));
+        return emitter;
+    }
+
+    public void publish(BranchEventDTO event) {
+        int replaySize = branchProperties.getEvents().getReplaySize();
+        lock.lock();
+        try {
+            replay.addLast(event);
+            while (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            for (Iterator<Subscriber> it = subscribers.iterator(); it.hasNext();) {
+                Subscriber subscriber = it.next();
+                if (subscriber.seen() != null && !isAfter(event, subscriber.seen())) {
+                    continue;
+                }
+                if (!subscriber.queue().offer(event)) {
+                    log.warn("Event subscriber buffer full, closing connection so it resumes from Last-Event-ID");
+                    it.remove();
+                    subscriber.queue().clear();
+                    subscriber.queue().offer(Subscriber.CLOSE);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        long heartbeatMillis = branchProperties.getEvents().getHeartbeat().toMillis();
+        SseEmitter emitter = subscriber.emitter();
+        try {
+            while (true) {
+                BranchEventDTO event = subscriber.queue().poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                if (event == Subscriber.CLOSE) {
+                    break;
+                }
+                if (event == null) {
+                    if (!subscribers.contains(subscriber)) {
+                        return;
+                    }
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                    continue;
+                }
+                SseEmitter.SseEventBuilder sse = SseEmitter.event().name(event.getType()).data(event, MediaType.APPLICATION_JSON);
+                if (event.getId() != null) {
+                    sse.id(event.getId());
+                }
+                emitter.send(sse);
+            }
+            emitter.complete();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        } catch (IOException | IllegalStateException ex) {
+            log.debug("Event subscriber disconnected: {}", ex.getMessage());
+        } finally {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    // Null si el id ya salió del buffer: el cliente debe resincronizar con /changes
+    private List<BranchEventDTO> eventsAfter(String lastEventId) {
+        List<BranchEventDTO> missed = new ArrayList<>();
+        boolean found = false;
+        for (BranchEventDTO event : replay) {
+            if (found) {
+                missed.add(event);
+            } else if (lastEventId.equals(event.getId())) {
+                found = true;
+            }
+        }
+        return found ? missed : null;
+    }
+
+    // El _data de los tokens de reanudación es hexadecimal y ordena igual que los eventos del stream
+    private static boolean isAfter(BranchEventDTO event, String eventId) {
+        return event.getId() != null && event.getId().compareTo(eventId) > 0;
+    }
+
+    private static BranchEventDTO resyncEvent() {
+        return BranchEventDTO.builder()
+                .type(RESYNC_REQUIRED)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    // seen: último evento ya enviado desde el change stream al reanudar; null si se reanudó desde el buffer
+    private record Subscriber(SseEmitter emitter, BlockingQueue<BranchEventDTO> queue, String seen) {
+
+        static final BranchEventDTO CLOSE = BranchEventDTO.builder().build();
+    }
+}
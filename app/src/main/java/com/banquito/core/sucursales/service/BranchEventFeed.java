@@ -0,0 +1,418 @@
+package com.banquito.core.sucursales.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import com.banquito.core.sucursales.config.BranchProperties;
+import com.banquito.core.sucursales.dto.BranchEventDTO;
+import com.banquito.core.sucursales.dto.BranchHolidayDTO;
+import com.banquito.core.sucursales.mapper.BranchMapper;
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import com.mongodb.client.model.changestream.UpdateDescription;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Traduce el change stream de sucursales (y de los buckets de feriados en modo BUCKETED) a eventos
+ * compactos para el feed SSE. Guarda el último token de reanudación para retomar el stream sin
+ * perder eventos si el cursor se cae, y relee el stream desde un Last-Event-ID que emitió otra réplica.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "branch.change-stream", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BranchEventFeed {
+
+    private static final String BRANCHES = "branches";
+    private static final String BUCKETS = "branchHolidayBuckets";
+    private static final String HOLIDAYS_FIELD = "branchHolidays";
+    private static final String BUCKET_HOLIDAYS_FIELD = "holidays";
+    private static final DocumentCodec DOCUMENT_CODEC = new DocumentCodec();
+    private static final Set<String> TOUCH_FIELDS = Set.of("version", "lastModifiedDate");
+    private static final long HISTORY_AWAIT_MILLIS = 200;
+
+    private final MessageListenerContainer branchChangeStreamContainer;
+    private final MongoTemplate mongoTemplate;
+    private final BranchMapper branchMapper;
+    private final BranchEventBroadcaster broadcaster;
+    private final TaskScheduler taskScheduler;
+    private final BranchProperties branchProperties;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile BsonDocument resumeToken;
+    private volatile Subscription subscription;
+    private volatile Duration retryDelay;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        enablePreImages(BRANCHES);
+        if (isBucketed()) {
+            enablePreImages(BUCKETS);
+        }
+        register();
+        broadcaster.activate(this::eventsAfter);
+    }
+
+    /**
+     * Eventos posteriores a lastEventId leídos del change stream en MongoDB, para reanudar a un cliente cuyo
+     * último evento ya no está en el buffer de este nodo (otra réplica, o un corte largo). Null si el token ya
+     * no está en el oplog, no es válido o hay más de limit eventos: el cliente debe resincronizar.
+     */
+    List<BranchEventDTO> eventsAfter(String lastEventId, int limit) {
+        ChangeStreamIterable<Document> stream = isBucketed()
+                ? mongoTemplate.getDb().watch(List.of(bucketedFilter()))
+                : mongoTemplate.getCollection(BRANCHES).watch();
+        List<BranchEventDTO> events = new ArrayList<>();
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream
+                .resumeAfter(new BsonDocument("_data", new BsonString(lastEventId)))
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .fullDocumentBeforeChange(FullDocumentBeforeChange.WHEN_AVAILABLE)
+                .maxAwaitTime(HISTORY_AWAIT_MILLIS, TimeUnit.MILLISECONDS)
+                .cursor()) {
+            // tryNext devuelve null al llegar al final del oplog en vez de esperar eventos nuevos
+            for (ChangeStreamDocument<Document> change = cursor.tryNext(); change != null; change = cursor.tryNext()) {
+                BranchEventDTO event = toEvent(change);
+                if (event != null && events.add(event) && events.size() > limit) {
+                    return null;
+                }
+            }
+        } catch (MongoException | IllegalArgumentException ex) {
+            log.info("Could not read branch events after {} from the change stream: {}", lastEventId, ex.getMessage());
+            return null;
+        }
+        return events;
+    }
+
+    /**
+     * Las preimágenes (MongoDB 6.0+) dan los feriados que quitó un $pull. Sin ellas, o sin permiso para collMod,
+     * las bajas se informan como BRANCH_UPDATED.
+     */
+    private void enablePreImages(String collection) {
+        try {
+            mongoTemplate.executeCommand(new Document("collMod", collection)
+                    .append("changeStreamPreAndPostImages", new Document("enabled", true)));
+        } catch (DataAccessException ex) {
+            log.warn("Could not enable change stream pre-images on {}, removed holidays are reported as "
+                    + "BRANCH_UPDATED: {}", collection, ex.getMessage());
+        }
+    }
+
+    private void register() {
+        lock.lock();
+        try {
+            doRegister();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void doRegister() {
+        ChangeStreamRequest.ChangeStreamRequestBuilder<Document> builder = ChangeStreamRequest.builder(this::onMessage)
+                .fullDocumentLookup(FullDocument.UPDATE_LOOKUP)
+                .fullDocumentBeforeChangeLookup(FullDocumentBeforeChange.WHEN_AVAILABLE);
+        if (isBucketed()) {
+            builder.filter(bucketedFilter());
+        } else {
+            builder.collection(BRANCHES);
+        }
+        if (resumeToken != null) {
+            builder.resumeAfter(resumeToken);
+        }
+        subscription = branchChangeStreamContainer.register(builder.build(), Document.class, this::onError);
+    }
+
+    private boolean isBucketed() {
+        return branchProperties.getHolidayStorage().getMode() == BranchProperties.HolidayStorageMode.BUCKETED;
+    }
+
+    // Un solo stream de la base, y un solo token de reanudación, para sucursales y buckets de feriados
+    private static Document bucketedFilter() {
+        return new Document("$match", new Document("ns.coll", new Document("$in", List.of(BRANCHES, BUCKETS))));
+    }
+
+    // Reintento con espera exponencial para no martillar al servidor si el change stream no está disponible
+    private void onError(Throwable ex) {
+        lock.lock();
+        try {
+            BranchProperties.Events config = branchProperties.getEvents();
+            retryDelay = retryDelay == null ? config.getRetryDelay() : min(retryDelay.multipliedBy(2), config.getMaxRetryDelay());
+            log.warn("Branch event feed interrupted, resuming change stream in {}: {}", retryDelay, ex.getMessage());
+            if (subscription != null) {
+                branchChangeStreamContainer.remove(subscription);
+                subscription = null;
+            }
+            taskScheduler.schedule(this::register, Instant.now().plus(retryDelay));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onMessage(Message<ChangeStreamDocument<Document>, Document> message) {
+        ChangeStreamDocument<Document> change = message.getRaw();
+        if (change == null) {
+            return;
+        }
+        try {
+            BranchEventDTO event = toEvent(change);
+            if (event != null) {
+                broadcaster.publish(event);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Could not translate branch change event: {}", ex.getMessage());
+        }
+        resumeToken = change.getResumeToken();
+        retryDelay = null;
+    }
+
+    private BranchEventDTO toEvent(ChangeStreamDocument<Document> change) {
+        if (change.getDocumentKey() == null || change.getResumeToken() == null) {
+            return null;
+        }
+        BranchEventDTO.BranchEventDTOBuilder event = BranchEventDTO.builder()
+                .id(eventId(change.getResumeToken()))
+                .timestamp(change.getClusterTime() == null
+                        ? LocalDateTime.now()
+                        : LocalDateTime.ofInstant(Instant.ofEpochSecond(change.getClusterTime().getTime()),
+                                ZoneId.systemDefault()));
+        Document document = change.getFullDocument();
+        if (change.getNamespace() != null && BUCKETS.equals(change.getNamespace().getCollectionName())) {
+            return toBucketEvent(event, change);
+        }
+        event.branchId(toId(change.getDocumentKey().get("_id")));
+        switch (change.getOperationType()) {
+            case INSERT -> event.type("BRANCH_CREATED")
+                    .name(document == null ? null : document.getString("name"));
+            case UPDATE -> {
+                // En modo BUCKETED los feriados salen del bucket: se descarta el incremento de versión que lo acompaña
+                // (también el de un calendario compartido, que se ve en /changes), y el arreglo embebido sólo cambia
+                // en la migración
+                if (isBucketed() && isTouch(change.getUpdateDescription())) {
+                    return null;
+                }
+                if (!classifyUpdate(event, change, isBucketed() ? null : HOLIDAYS_FIELD)) {
+                    event.type("BRANCH_UPDATED");
+                }
+            }
+            case REPLACE -> event.type("BRANCH_UPDATED");
+            default -> {
+                return null;
+            }
+        }
+        return event.build();
+    }
+
+    // En modo BUCKETED los feriados cambian en su bucket; la sucursal sólo recibe el incremento de versión
+    private BranchEventDTO toBucketEvent(BranchEventDTO.BranchEventDTOBuilder event, ChangeStreamDocument<Document> change) {
+        Document document = change.getFullDocument() != null
+                ? change.getFullDocument()
+                : change.getFullDocumentBeforeChange();
+        if (document == null) {
+            return null;
+        }
+        event.branchId(document.getString("branchId")).year(document.getInteger("year"));
+        switch (change.getOperationType()) {
+            case INSERT -> event.type("HOLIDAY_ADDED").holidays(toHolidays(holidaysOf(document, BUCKET_HOLIDAYS_FIELD)));
+            case UPDATE -> {
+                if (!classifyUpdate(event, change, BUCKET_HOLIDAYS_FIELD)) {
+                    event.type("BRANCH_UPDATED");
+                }
+            }
+            default -> {
+                return null;
+            }
+        }
+        return event.build();
+    }
+
+    // Sólo version y lastModifiedDate: la escritura de un bucket o el cambio de un calendario compartido
+    private static boolean isTouch(UpdateDescription update) {
+        return update != null && update.getUpdatedFields() != null
+                && TOUCH_FIELDS.containsAll(update.getUpdatedFields().keySet())
+                && (update.getRemovedFields() == null || update.getRemovedFields().isEmpty())
+                && (update.getTruncatedArrays() == null || update.getTruncatedArrays().isEmpty());
+    }
+
+    /**
+     * Clasifica los cambios del arreglo de feriados comparando la preimagen del documento con el arreglo que
+     * resulta de aplicarle la descripción del cambio: HOLIDAY_REMOVED lleva sólo los feriados quitados.
+     */
+    private boolean classifyUpdate(BranchEventDTO.BranchEventDTOBuilder event, ChangeStreamDocument<Document> change,
+            String holidaysField) {
+        UpdateDescription update = change.getUpdateDescription();
+        BsonDocument fields = update == null || update.getUpdatedFields() == null
+                ? new BsonDocument()
+                : update.getUpdatedFields();
+        if (fields.containsKey("phoneNumber")) {
+            event.type("PHONE_UPDATED").phoneNumber(fields.getString("phoneNumber").getValue());
+            return true;
+        }
+        // La migración a calendarios mueve feriados a un calendario en el mismo cambio: los efectivos no cambian
+        if (holidaysField == null || update == null || changes(update, "calendarIds")) {
+            return false;
+        }
+        Document before = change.getFullDocumentBeforeChange();
+        Map<Integer, Document> positions = positions(update, holidaysField);
+        if (before == null) {
+            // Sin preimagen sólo se reconoce un $push: posiciones nuevas al final, sin truncar ni reescribir
+            if (positions == null || positions.isEmpty() || rewrites(update, holidaysField)) {
+                return false;
+            }
+            event.type("HOLIDAY_ADDED").holidays(toHolidays(List.copyOf(positions.values())));
+            return true;
+        }
+        List<Document> previous = holidaysOf(before, holidaysField);
+        List<Document> after = apply(previous, update, holidaysField, positions);
+        if (after == null) {
+            return false;
+        }
+        List<Document> added = difference(after, previous);
+        List<Document> removed = difference(previous, after);
+        if (!added.isEmpty() && removed.isEmpty()) {
+            event.type("HOLIDAY_ADDED").holidays(toHolidays(added));
+            return true;
+        }
+        if (!removed.isEmpty() && added.isEmpty()) {
+            event.type("HOLIDAY_REMOVED").holidays(toHolidays(removed));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Arreglo de feriados después del cambio: el $set completo (un $pull en medio del arreglo, un $push sobre un
+     * campo que no existía), o la preimagen truncada ($pull del final) con las posiciones escritas ($push). Null si
+     * el cambio toca campos internos de un feriado y no se puede reconstruir.
+     */
+    private static List<Document> apply(List<Document> before, UpdateDescription update, String holidaysField,
+            Map<Integer, Document> positions) {
+        if (update.getRemovedFields() != null && update.getRemovedFields().contains(holidaysField)) {
+            return List.of();
+        }
+        BsonDocument fields = update.getUpdatedFields() == null ? new BsonDocument() : update.getUpdatedFields();
+        if (fields.isArray(holidaysField)) {
+            return fields.getArray(holidaysField).stream().filter(BsonValue::isDocument)
+                    .map(value -> toDocument(value.asDocument())).toList();
+        }
+        if (positions == null) {
+            return null;
+        }
+        List<Document> after = new ArrayList<>(before);
+        if (update.getTruncatedArrays() != null) {
+            update.getTruncatedArrays().stream()
+                    .filter(array -> holidaysField.equals(array.getField()) && array.getNewSize() < after.size())
+                    .forEach(array -> after.subList(array.getNewSize(), after.size()).clear());
+        }
+        for (Map.Entry<Integer, Document> position : positions.entrySet()) {
+            if (position.getKey() < after.size()) {
+                after.set(position.getKey(), position.getValue());
+            } else if (position.getKey() == after.size()) {
+                after.add(position.getValue());
+            } else {
+                return null;
+            }
+        }
+        return after;
+    }
+
+    // Feriados escritos en posiciones del arreglo, en orden; null si el cambio toca campos internos de un feriado
+    private static Map<Integer, Document> positions(UpdateDescription update, String holidaysField) {
+        Map<Integer, Document> positions = new TreeMap<>();
+        if (update.getUpdatedFields() == null) {
+            return positions;
+        }
+        for (Map.Entry<String, BsonValue> entry : update.getUpdatedFields().entrySet()) {
+            if (!entry.getKey().startsWith(holidaysField + ".")) {
+                continue;
+            }
+            String position = entry.getKey().substring(holidaysField.length() + 1);
+            if (!position.chars().allMatch(Character::isDigit) || !entry.getValue().isDocument()) {
+                return null;
+            }
+            positions.put(Integer.valueOf(position), toDocument(entry.getValue().asDocument()));
+        }
+        return positions;
+    }
+
+    private static boolean rewrites(UpdateDescription update, String holidaysField) {
+        return (update.getUpdatedFields() != null && update.getUpdatedFields().containsKey(holidaysField))
+                || (update.getRemovedFields() != null && update.getRemovedFields().contains(holidaysField))
+                || (update.getTruncatedArrays() != null && update.getTruncatedArrays().stream()
+                        .anyMatch(array -> holidaysField.equals(array.getField())));
+    }
+
+    private static boolean changes(UpdateDescription update, String field) {
+        return (update.getUpdatedFields() != null && update.getUpdatedFields().keySet().stream()
+                        .anyMatch(key -> key.equals(field) || key.startsWith(field + ".")))
+                || (update.getRemovedFields() != null && update.getRemovedFields().contains(field));
+    }
+
+    // Diferencia de multiconjuntos: un feriado repetido cuenta tantas veces como aparece
+    private static List<Document> difference(List<Document> from, List<Document> minus) {
+        List<Document> remaining = new ArrayList<>(from);
+        minus.forEach(remaining::remove);
+        return remaining;
+    }
+
+    private static List<Document> holidaysOf(Document document, String holidaysField) {
+        List<Document> holidays = document.getList(holidaysField, Document.class);
+        return holidays == null ? List.of() : holidays;
+    }
+
+    private List<BranchHolidayDTO> toHolidays(List<Document> holidays) {
+        return holidays.stream()
+                .map(holiday -> branchMapper.toHolidayDTO(mongoTemplate.getConverter().read(BranchHoliday.class, holiday)))
+                .toList();
+    }
+
+    private static Document toDocument(BsonDocument value) {
+        return DOCUMENT_CODEC.decode(new BsonDocumentReader(value), DecoderContext.builder().build());
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static String eventId(BsonDocument resumeToken) {
+        return resumeToken.isString("_data") ? resumeToken.getString("_data").getValue() : resumeToken.toJson();
+    }
+
+    private static String toId(BsonValue id) {
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+}
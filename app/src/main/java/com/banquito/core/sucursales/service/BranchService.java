@@ -0,0 +1,698 @@
+package com.banquito.core.sucursales.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.bson.types.ObjectId;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.banquito.core.sucursales.config.BranchProperties;
+import com.banquito.core.sucursales.config.ConcurrencyLimits;
+import com.banquito.core.sucursales.config.ConcurrencyLimits.EndpointClass;
+import com.banquito.core.sucursales.dto.BranchBatchCreateResultDTO;
+import com.banquito.core.sucursales.dto.BranchBatchItemDTO;
+import com.banquito.core.sucursales.dto.BranchChangesDTO;
+import com.banquito.core.sucursales.dto.BranchCreateDTO;
+import com.banquito.core.sucursales.dto.BranchDateDTO;
+import com.banquito.core.sucursales.dto.BranchHolidayDTO;
+import com.banquito.core.sucursales.dto.BranchPageDTO;
+import com.banquito.core.sucursales.dto.BranchResponseDTO;
+import com.banquito.core.sucursales.dto.BranchSummaryDTO;
+import com.banquito.core.sucursales.dto.BranchUpdateDTO;
+import com.banquito.core.sucursales.dto.HolidayCheckRequestDTO;
+import com.banquito.core.sucursales.dto.HolidayCheckResponseDTO;
+import com.banquito.core.sucursales.dto.HolidayImportRequestDTO;
+import com.banquito.core.sucursales.dto.HolidayImportResponseDTO;
+import com.banquito.core.sucursales.dto.HolidayImportResultDTO;
+import com.banquito.core.sucursales.exception.HolidayConflictException;
+import com.banquito.core.sucursales.mapper.BranchMapper;
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchCatalogVersion;
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.banquito.core.sucursales.model.HolidayCalendar;
+import com.banquito.core.sucursales.repository.BranchHolidayStore;
+import com.banquito.core.sucursales.repository.BranchRepository;
+import com.mongodb.bulk.BulkWriteError;
+
+import io.micrometer.observation.annotation.Observed;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Observed(name = "branch.service")
+@Service
+@RequiredArgsConstructor
+public class BranchService {
+
+    public static final String BRANCH_CACHE = "branches";
+    public static final String BRANCH_HOLIDAYS_CACHE = "branchesWithHolidays";
+
+    private static final String ACTIVE = "ACTIVE";
+    private static final String DUPLICATE_EMAIL = "Branch with this email already exists";
+    private static final int DUPLICATE_KEY_CODE = 11000;
+
+    private final BranchRepository branchRepository;
+    private final BranchHolidayStore branchHolidayStore;
+    private final BranchMapper branchMapper;
+    private final HolidayCalendarIndex holidayCalendarIndex;
+    private final HolidayCalendarRegistry holidayCalendarRegistry;
+    private final BranchProperties branchProperties;
+    private final BusinessDayCalculator businessDayCalculator;
+    private final ConcurrencyLimits concurrencyLimits;
+
+    public List<BranchResponseDTO> getAllBranches(boolean includeHolidays) {
+        log.info("Retrieving all branches");
+        try (Stream<Branch> branches = streamAll(includeHolidays)) {
+            return branches.map(branchMapper::toResponseDTO).collect(Collectors.toList());
+        }
+    }
+
+    public BranchCatalogVersion getCatalogVersion() {
+        log.debug("Retrieving branch catalog version");
+        return branchRepository.getCatalogVersion();
+    }
+
+    public Optional<Long> getBranchVersion(String id) {
+        log.debug("Retrieving version of branch ID: {}", id);
+        return branchRepository.findVersionById(id);
+    }
+
+    public BranchPageDTO getBranchPage(String cursor, Integer size, boolean includeHolidays) {
+        log.info("Retrieving branch page after cursor: {}", cursor);
+
+        if (cursor != null && !ObjectId.isValid(cursor)) {
+            throw new IllegalArgumentException("Invalid pagination cursor");
+        }
+        BranchProperties.Pagination pagination = branchProperties.getPagination();
+        int pageSize = size == null ? pagination.getDefaultSize() : size;
+        if (pageSize < 1 || pageSize > pagination.getMaxSize()) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + pagination.getMaxSize());
+        }
+
+        List<Branch> branches = branchRepository.findPageAfter(cursor, pageSize + 1, includeHolidays);
+        if (includeHolidays) {
+            branchHolidayStore.attach(branches);
+        }
+        boolean hasMore = branches.size() > pageSize;
+        List<BranchResponseDTO> items = branches.stream()
+                .limit(pageSize)
+                .map(branchMapper::toResponseDTO)
+                .collect(Collectors.toList());
+
+        return BranchPageDTO.builder()
+                .items(items)
+                .nextCursor(hasMore ? items.get(items.size() - 1).getId() : null)
+                .build();
+    }
+
+    public BranchChangesDTO getChanges(LocalDateTime since, String token, Integer size) {
+        log.info("Retrieving branch changes since: {} token: {}", since, token);
+
+        BranchProperties.Changes config = branchProperties.getChanges();
+        int pageSize = size == null ? config.getDefaultSize() : size;
+        if (pageSize < 1 || pageSize > config.getMaxSize()) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + config.getMaxSize());
+        }
+        String afterId = null;
+        if (token != null) {
+            String[] position = decodeChangeToken(token);
+            since = LocalDateTime.parse(position[0]);
+            afterId = position[1].isEmpty() ? null : position[1];
+        } else if (since == null) {
+            throw new IllegalArgumentException("Either since or token must be provided");
+        }
+
+        // lastModifiedDate lo fija el servidor de MongoDB: la ventana se mide con su reloj, no con el de esta réplica
+        LocalDateTime until = branchRepository.currentTime().minus(config.getSettleTime());
+        List<Branch> branches = branchRepository.findChangedAfter(since, afterId, until, pageSize + 1);
+        boolean hasMore = branches.size() > pageSize;
+        if (hasMore) {
+            branches = branches.subList(0, pageSize);
+        }
+        branchHolidayStore.attach(branches);
+
+        String nextToken = branches.isEmpty()
+                ? encodeChangeToken(since, afterId)
+                : encodeChangeToken(branches.get(branches.size() - 1).getLastModifiedDate(),
+                        branches.get(branches.size() - 1).getId());
+        return BranchChangesDTO.builder()
+                .changed(branches.stream()
+                        .filter(branch -> ACTIVE.equals(branch.getState()))
+                        .map(branchMapper::toResponseDTO)
+                        .collect(Collectors.toList()))
+                .removed(branches.stream()
+                        .filter(branch -> !ACTIVE.equals(branch.getState()))
+                        .map(branchMapper::toTombstoneDTO)
+                        .collect(Collectors.toList()))
+                .nextToken(nextToken)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    public Stream<BranchResponseDTO> streamBranches(boolean includeHolidays) {
+        log.info("Streaming all branches");
+        return streamAll(includeHolidays).map(branchMapper::toResponseDTO);
+    }
+
+    private Stream<Branch> streamAll(boolean includeHolidays) {
+        Stream<Branch> branches = branchRepository.streamAll(includeHolidays);
+        return includeHolidays ? branchHolidayStore.attach(branches) : branches;
+    }
+
+    @Transactional
+    @CachePut(cacheNames = BRANCH_CACHE, key = "#result.id")
+    public BranchResponseDTO createBranch(BranchCreateDTO dto) {
+        log.info("Creating new branch with email: {}", dto.getEmailAddress());
+
+        Branch branch = branchMapper.toEntity(dto);
+        branch.setBranchHolidays(new ArrayList<>()); 
+
+        // El índice único de emailAddress resuelve duplicados en un solo viaje, sin carrera entre consulta e inserción;
+        // las fechas las fija MongoDB en la misma escritura, como en las actualizaciones
+        long stamp = holidayCalendarIndex.stamp();
+        Branch savedBranch;
+        try {
+            savedBranch = branchRepository.insertWithServerTime(branch);
+        } catch (DuplicateKeyException ex) {
+            log.error("Branch creation failed. Email {} already exists", dto.getEmailAddress());
+            throw new IllegalArgumentException(DUPLICATE_EMAIL);
+        }
+        holidayCalendarIndex.put(savedBranch, stamp);
+        log.info("Branch created successfully with ID: {}", savedBranch.getId());
+        
+        return branchMapper.toResponseDTO(savedBranch);
+    }
+
+    public BranchBatchCreateResultDTO createBranches(List<BranchCreateDTO> dtos) {
+        log.info("Creating {} branches in batch", dtos.size());
+        int maxSize = branchProperties.getBatchCreate().getMaxSize();
+        if (dtos.size() > maxSize) {
+            throw new IllegalArgumentException("A batch may contain at most " + maxSize + " branches");
+        }
+
+        // IDs asignados de antemano para conocer el resultado de cada elemento sin releer; las fechas las fija
+        // MongoDB en la escritura y no se devuelven
+        List<Branch> branches = dtos.stream().map(dto -> {
+            Branch branch = branchMapper.toEntity(dto);
+            branch.setId(new ObjectId().toHexString());
+            branch.setCreationDate(null);
+            branch.setLastModifiedDate(null);
+            branch.setBranchHolidays(new ArrayList<>());
+            branch.setVersion(0L);
+            return branch;
+        }).toList();
+        long stamp = holidayCalendarIndex.stamp();
+        Map<Integer, BulkWriteError> errors = branchRepository.insertUnordered(branches).stream()
+                .collect(Collectors.toMap(BulkWriteError::getIndex, error -> error));
+
+        List<BranchBatchItemDTO> results = new ArrayList<>(branches.size());
+        for (int i = 0; i < branches.size(); i++) {
+            BulkWriteError error = errors.get(i);
+            if (error == null) {
+                Branch branch = branches.get(i);
+                holidayCalendarIndex.put(branch, stamp);
+                results.add(BranchBatchItemDTO.builder()
+                        .index(i)
+                        .status(200)
+                        .branch(branchMapper.toResponseDTO(branch))
+                        .build());
+            } else if (error.getCode() == DUPLICATE_KEY_CODE) {
+                results.add(BranchBatchItemDTO.builder().index(i).status(400).error(DUPLICATE_EMAIL).build());
+            } else {
+                log.error("Branch batch item {} failed: {}", i, error.getMessage());
+                results.add(BranchBatchItemDTO.builder().index(i).status(500).error("An unexpected error occurred").build());
+            }
+        }
+        log.info("Branch batch finished: {} created, {} failed", branches.size() - errors.size(), errors.size());
+        return BranchBatchCreateResultDTO.builder()
+                .created(branches.size() - errors.size())
+                .failed(errors.size())
+                .results(results)
+                .build();
+    }
+
+    // Sin feriados y con feriados en cachés separadas, que se invalidan juntas
+    @Cacheable(cacheNames = BRANCH_CACHE, key = "#id")
+    public BranchResponseDTO getBranchById(String id) {
+        log.info("Retrieving branch with ID: {}", id);
+        return branchMapper.toResponseDTO(findBranch(id, false));
+    }
+
+    @Cacheable(cacheNames = BRANCH_HOLIDAYS_CACHE, key = "#id")
+    public BranchResponseDTO getBranchWithHolidays(String id) {
+        log.info("Retrieving branch with holidays, ID: {}", id);
+        Branch branch = findBranch(id, true);
+        branchHolidayStore.attach(List.of(branch));
+        return branchMapper.toResponseDTO(branch);
+    }
+
+    private Branch findBranch(String id, boolean includeHolidays) {
+        return branchRepository.findById(id, includeHolidays)
+                .orElseThrow(() -> {
+                    log.error("Branch not found with ID: {}", id);
+                    return new NoSuchElementException("Branch not found with ID: " + id);
+                });
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = { BRANCH_CACHE, BRANCH_HOLIDAYS_CACHE }, key = "#id")
+    public BranchResponseDTO updateBranch(String id, BranchUpdateDTO dto) {
+        log.info("Updating branch with ID: {}", id);
+        
+        Branch updatedBranch = branchRepository.updatePhoneNumber(id, dto.getPhoneNumber())
+                .orElseThrow(() -> new NoSuchElementException("Branch not found with ID: " + id));
+        log.info("Branch updated successfully");
+        
+        return branchMapper.toResponseDTO(updatedBranch);
+    }
+
+    @CacheEvict(cacheNames = { BRANCH_CACHE, BRANCH_HOLIDAYS_CACHE }, key = "#branchId")
+    public void addHoliday(String branchId, BranchHolidayDTO holidayDTO) {
+        log.info("Adding holiday to branch ID: {}", branchId);
+
+        BranchHoliday holiday = branchMapper.toHolidayEntity(holidayDTO);
+        if (!branchHolidayStore.addIfAbsent(branchId, holiday)) {
+            if (!branchRepository.existsById(branchId)) {
+                throw new NoSuchElementException("Branch not found");
+            }
+            log.warn("Holiday already exists for date: {}", holidayDTO.getDate());
+            throw new IllegalArgumentException("Holiday already exists for this date");
+        }
+
+        holidayCalendarIndex.addHoliday(branchId, holiday.getDate());
+        log.info("Holiday added successfully");
+    }
+
+    @CacheEvict(cacheNames = { BRANCH_CACHE, BRANCH_HOLIDAYS_CACHE }, key = "#branchId")
+    public void removeHoliday(String branchId, LocalDate date) {
+        log.info("Removing holiday for date: {} from branch ID: {}", date, branchId);
+
+        if (!branchHolidayStore.remove(branchId, date)) {
+            Branch branch = branchRepository.findById(branchId, false)
+                    .orElseThrow(() -> new NoSuchElementException("Branch not found"));
+            // Los feriados de un calendario compartido no se quitan desde la sucursal
+            List<String> sharedCalendarIds = sharedCalendarsWith(branch.getCalendarIds(), date);
+            if (!sharedCalendarIds.isEmpty()) {
+                log.warn("Holiday {} of branch ID: {} comes from shared calendars {}", date, branchId, sharedCalendarIds);
+                throw HolidayConflictException.sharedCalendar(branchId, sharedCalendarIds);
+            }
+            log.warn("No holiday found for date: {}", date);
+            throw new NoSuchElementException("Holiday not found for the given date");
+        }
+
+        holidayCalendarIndex.removeHoliday(branchId, date);
+        log.info("Holiday removed successfully");
+    }
+
+    private List<String> sharedCalendarsWith(List<String> calendarIds, LocalDate date) {
+        if (calendarIds == null) {
+            return List.of();
+        }
+        return calendarIds.stream()
+                .filter(calendarId -> {
+                    HolidayCalendar calendar = holidayCalendarRegistry.get(calendarId);
+                    return calendar != null && calendar.getHolidays() != null
+                            && calendar.getHolidays().stream().anyMatch(holiday -> date.equals(holiday.getDate()));
+                })
+                .toList();
+    }
+
+    @CacheEvict(cacheNames = { BRANCH_CACHE, BRANCH_HOLIDAYS_CACHE }, allEntries = true,
+            condition = "#request.dryRun != true")
+    public HolidayImportResponseDTO importHolidays(HolidayImportRequestDTO request) {
+        List<String> branchIds = request.getBranchIds() == null || request.getBranchIds().isEmpty()
+                ? null
+                : request.getBranchIds().stream().distinct().toList();
+        boolean dryRun = Boolean.TRUE.equals(request.getDryRun());
+        int selectors = (branchIds != null ? 1 : 0) + (request.getState() != null ? 1 : 0)
+                + (Boolean.TRUE.equals(request.getAll()) ? 1 : 0);
+        if (selectors != 1) {
+            throw new IllegalArgumentException("Provide exactly one of branchIds, state or all");
+        }
+        int maxHolidays = branchProperties.getHolidayImport().getMaxHolidays();
+        if (request.getHolidays().size() > maxHolidays) {
+            throw new IllegalArgumentException("A calendar may contain at most " + maxHolidays + " holidays");
+        }
+        Map<LocalDate, BranchHoliday> calendar = new LinkedHashMap<>();
+        for (BranchHolidayDTO holiday : request.getHolidays()) {
+            if (calendar.putIfAbsent(holiday.getDate(), branchMapper.toHolidayEntity(holiday)) != null) {
+                throw new IllegalArgumentException("Duplicate date in calendar: " + holiday.getDate());
+            }
+        }
+        log.info("Importing {} holidays, dry run: {}", calendar.size(), dryRun);
+
+        Set<Integer> years = calendar.keySet().stream().map(LocalDate::getYear).collect(Collectors.toSet());
+        List<Branch> branches = branchHolidayStore.findHolidaysFor(branchIds, request.getState(), years);
+        Map<String, List<BranchHoliday>> pending = new LinkedHashMap<>();
+        Map<String, HolidayImportResultDTO> results = new LinkedHashMap<>();
+        for (Branch branch : branches) {
+            Map<LocalDate, String> existing = new HashMap<>();
+            if (branch.getBranchHolidays() != null) {
+                branch.getBranchHolidays().forEach(holiday -> existing.putIfAbsent(holiday.getDate(), holiday.getName()));
+            }
+            List<BranchHoliday> toAdd = new ArrayList<>();
+            List<LocalDate> conflicts = new ArrayList<>();
+            int skipped = 0;
+            for (BranchHoliday holiday : calendar.values()) {
+                String name = existing.get(holiday.getDate());
+                if (name == null) {
+                    toAdd.add(holiday);
+                } else if (name.equals(holiday.getName())) {
+                    skipped++;
+                } else {
+                    conflicts.add(holiday.getDate());
+                }
+            }
+            if (!toAdd.isEmpty()) {
+                pending.put(branch.getId(), toAdd);
+            }
+            results.put(branch.getId(), HolidayImportResultDTO.builder()
+                    .branchId(branch.getId())
+                    .added(toAdd.size())
+                    .skipped(skipped)
+                    .conflicts(conflicts)
+                    .build());
+        }
+
+        if (!dryRun && !pending.isEmpty()) {
+            long matched = branchHolidayStore.addAll(pending);
+            if (matched < pending.size()) {
+                // Alguna sucursal cambió entre la lectura y la escritura: se identifican las que no recibieron la carga
+                log.warn("{} of {} branches changed during holiday import", pending.size() - matched, pending.size());
+                branchHolidayStore.findHolidaysFor(pending.keySet(), null, years).forEach(branch -> {
+                    Set<LocalDate> dates = branch.getBranchHolidays() == null
+                            ? Set.of()
+                            : branch.getBranchHolidays().stream().map(BranchHoliday::getDate).collect(Collectors.toSet());
+                    if (!pending.get(branch.getId()).stream().allMatch(holiday -> dates.contains(holiday.getDate()))) {
+                        HolidayImportResultDTO result = results.get(branch.getId());
+                        result.setAdded(0);
+                        result.setRetry(true);
+                        holidayCalendarIndex.evict(branch.getId());
+                    }
+                });
+            }
+            pending.forEach((branchId, holidays) -> {
+                if (!results.get(branchId).isRetry()) {
+                    holidayCalendarIndex.addHolidays(branchId,
+                            holidays.stream().map(BranchHoliday::getDate).toList());
+                }
+            });
+        }
+
+        HolidayImportResponseDTO response = HolidayImportResponseDTO.builder()
+                .dryRun(dryRun)
+                .branches(results.size())
+                .added(results.values().stream().mapToInt(HolidayImportResultDTO::getAdded).sum())
+                .skipped(results.values().stream().mapToInt(HolidayImportResultDTO::getSkipped).sum())
+                .conflicts(results.values().stream().mapToInt(result -> result.getConflicts().size()).sum())
+                .unknownBranchIds(branchIds == null
+                        ? List.of()
+                        : branchIds.stream().filter(id -> !results.containsKey(id)).collect(Collectors.toList()))
+                .results(new ArrayList<>(results.values()))
+                .build();
+        log.info("Holiday import finished: {} branches, {} added, {} skipped, {} conflicts",
+                response.getBranches(), response.getAdded(), response.getSkipped(), response.getConflicts());
+        return response;
+    }
+
+    /**
+     * Convierte un CSV "fecha,nombre" (con encabezado opcional) en la lista de feriados a importar.
+     */
+    public List<BranchHolidayDTO> parseHolidayCsv(String csv) {
+        List<BranchHolidayDTO> holidays = new ArrayList<>();
+        String[] lines = csv == null ? new String[0] : csv.split("\\r?\\n");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].strip();
+            if (line.isEmpty() || (i == 0 && line.toLowerCase().startsWith("date"))) {
+                continue;
+            }
+            int comma = line.indexOf(',');
+            String name = comma < 0 ? "" : line.substring(comma + 1).strip();
+            if (name.length() >= 2 && name.startsWith("\"") && name.endsWith("\"")) {
+                name = name.substring(1, name.length() - 1).replace("\"\"", "\"").strip();
+            }
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Missing holiday name on CSV line " + (i + 1));
+            }
+            try {
+                holidays.add(new BranchHolidayDTO(LocalDate.parse(line.substring(0, comma).strip()), name));
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException("Invalid date on CSV line " + (i + 1));
+            }
+        }
+        if (holidays.isEmpty()) {
+            throw new IllegalArgumentException("The calendar is empty");
+        }
+        return holidays;
+    }
+
+    public List<BranchHolidayDTO> getHolidays(String branchId) {
+        log.info("Retrieving holidays for branch ID: {}", branchId);
+        
+        Branch branch = branchRepository.findById(branchId, true)
+                .orElseThrow(() -> new NoSuchElementException("Branch not found"));
+        branchHolidayStore.attach(List.of(branch));
+
+        // Calendario efectivo: los feriados propios prevalecen sobre los compartidos en la misma fecha
+        Map<LocalDate, BranchHoliday> effective = new TreeMap<>();
+        holidayCalendarRegistry.holidays(branch.getCalendarIds())
+                .forEach(holiday -> effective.putIfAbsent(holiday.getDate(), holiday));
+        if (branch.getBranchHolidays() != null) {
+            branch.getBranchHolidays().forEach(holiday -> effective.put(holiday.getDate(), holiday));
+        }
+        return effective.values().stream()
+                .map(branchMapper::toHolidayDTO)
+                .collect(Collectors.toList());
+    }
+
+    @CacheEvict(cacheNames = { BRANCH_CACHE, BRANCH_HOLIDAYS_CACHE }, key = "#branchId")
+    public BranchResponseDTO linkCalendar(String branchId, String calendarId) {
+        log.info("Linking holiday calendar ID: {} to branch ID: {}", calendarId, branchId);
+        if (holidayCalendarRegistry.get(calendarId) == null) {
+            throw new NoSuchElementException("Holiday calendar not found");
+        }
+        Branch branch = branchRepository.addCalendar(branchId, calendarId)
+                .orElseThrow(() -> {
+                    if (!branchRepository.existsById(branchId)) {
+                        return new NoSuchElementException("Branch not found");
+                    }
+                    return new IllegalArgumentException("The branch already uses this calendar");
+                });
+        holidayCalendarIndex.setCalendarIds(branchId, branch.getCalendarIds(), branch.getVersion());
+        log.info("Holiday calendar linked successfully");
+        return branchMapper.toResponseDTO(branch);
+    }
+
+    @CacheEvict(cacheNames = { BRANCH_CACHE, BRANCH_HOLIDAYS_CACHE }, key = "#branchId")
+    public BranchResponseDTO unlinkCalendar(String branchId, String calendarId) {
+        log.info("Unlinking holiday calendar ID: {} from branch ID: {}", calendarId, branchId);
+        Branch branch = branchRepository.removeCalendar(branchId, calendarId)
+                .orElseThrow(() -> {
+                    if (!branchRepository.existsById(branchId)) {
+                        return new NoSuchElementException("Branch not found");
+                    }
+                    return new NoSuchElementException("The branch does not use this calendar");
+                });
+        holidayCalendarIndex.setCalendarIds(branchId, branch.getCalendarIds(), branch.getVersion());
+        log.info("Holiday calendar unlinked successfully");
+        return branchMapper.toResponseDTO(branch);
+    }
+
+    public boolean isHoliday(String branchId, LocalDate date) {
+        log.info("Checking if date: {} is a holiday for branch ID: {}", date, branchId);
+        
+        BranchCalendar calendar = holidayCalendarIndex.get(branchId);
+        boolean isHoliday = (calendar != null ? calendar : loadCalendarOrSnapshot(branchId)).contains(date);
+        
+        log.info("Result for date {}: {}", date, isHoliday);
+        return isHoliday;
+    }
+
+    // Si MongoDB no responde, último calendario conocido de la sucursal
+    private BranchCalendar loadCalendarOrSnapshot(String branchId) {
+        try {
+            return getCalendar(branchId);
+        } catch (DataAccessResourceFailureException ex) {
+            BranchCalendar snapshot = branchProperties.getConcurrencyLimit().isHolidaySnapshot()
+                    ? holidayCalendarIndex.getLastKnownGood(branchId)
+                    : null;
+            if (snapshot == null) {
+                throw ex;
+            }
+            log.warn("Serving holiday check for branch ID: {} from last known calendar: {}", branchId, ex.getMessage());
+            return snapshot;
+        }
+    }
+
+    public LocalDate nextBusinessDay(String branchId, LocalDate date) {
+        log.info("Calculating next business day after: {} for branch ID: {}", date, branchId);
+        return businessDayCalculator.nextBusinessDay(getCalendar(branchId), date);
+    }
+
+    public LocalDate addBusinessDays(String branchId, LocalDate date, int days) {
+        log.info("Adding {} business days to: {} for branch ID: {}", days, date, branchId);
+        return businessDayCalculator.addBusinessDays(getCalendar(branchId), date, days);
+    }
+
+    public long businessDaysBetween(String branchId, LocalDate from, LocalDate to) {
+        log.info("Counting business days between: {} and {} for branch ID: {}", from, to, branchId);
+        return businessDayCalculator.businessDaysBetween(getCalendar(branchId), from, to);
+    }
+
+    private BranchCalendar getCalendar(String branchId) {
+        BranchCalendar calendar = holidayCalendarIndex.get(branchId);
+        if (calendar == null) {
+            long stamp = holidayCalendarIndex.stamp();
+            Branch branch = loadHolidayDates(List.of(branchId)).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new NoSuchElementException("Branch not found"));
+            calendar = holidayCalendarIndex.put(branch, stamp);
+        }
+        return calendar;
+    }
+
+    public HolidayCheckResponseDTO checkHolidays(HolidayCheckRequestDTO request) {
+        boolean pairMode = request.getPairs() != null && !request.getPairs().isEmpty();
+        boolean rangeMode = request.getBranchIds() != null && !request.getBranchIds().isEmpty();
+        if (pairMode == rangeMode) {
+            throw new IllegalArgumentException("Provide either pairs or branchIds with a date range");
+        }
+        int maxChecks = branchProperties.getHolidayCheck().getMaxChecks();
+
+        if (pairMode) {
+            log.info("Checking {} branch/date pairs for holidays", request.getPairs().size());
+            if (request.getPairs().size() > maxChecks) {
+                throw new IllegalArgumentException("A batch may contain at most " + maxChecks + " checks");
+            }
+            Map<String, BranchCalendar> calendars = loadCalendars(
+                    request.getPairs().stream().map(BranchDateDTO::getBranchId).toList());
+            List<Boolean> results = request.getPairs().stream()
+                    .map(pair -> {
+                        BranchCalendar calendar = calendars.get(pair.getBranchId());
+                        return calendar == null ? null : calendar.contains(pair.getDate());
+                    })
+                    .collect(Collectors.toList());
+            return HolidayCheckResponseDTO.builder()
+                    .results(results)
+                    .unknownBranchIds(unknownBranchIds(request.getPairs().stream()
+                            .map(BranchDateDTO::getBranchId).toList(), calendars))
+                    .build();
+        }
+
+        LocalDate from = request.getFrom();
+        LocalDate to = request.getTo();
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("A valid from/to date range is required");
+        }
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        log.info("Checking {} branches over {} days for holidays", request.getBranchIds().size(), days);
+        if (days * request.getBranchIds().size() > maxChecks) {
+            throw new IllegalArgumentException("A batch may contain at most " + maxChecks + " checks");
+        }
+
+        Map<String, BranchCalendar> calendars = loadCalendars(request.getBranchIds());
+        Map<String, String> matrix = new LinkedHashMap<>();
+        calendars.forEach((branchId, calendar) -> {
+            char[] row = new char[(int) days];
+            for (int i = 0; i < days; i++) {
+                row[i] = calendar.contains(from.plusDays(i)) ? '1' : '0';
+            }
+            matrix.put(branchId, new String(row));
+        });
+        return HolidayCheckResponseDTO.builder()
+                .from(from)
+                .to(to)
+                .calendar(matrix)
+                .unknownBranchIds(unknownBranchIds(request.getBranchIds(), calendars))
+                .build();
+    }
+
+    public List<BranchSummaryDTO> getClosedBranches(LocalDate from, LocalDate to) {
+        log.info("Retrieving branches closed between: {} and {}", from, to);
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("The end date must not be before the start date");
+        }
+        List<String> calendarIds = holidayCalendarRegistry.findAll().stream()
+                .filter(calendar -> calendar.getHolidays() != null && calendar.getHolidays().stream()
+                        .anyMatch(holiday -> !holiday.getDate().isBefore(from) && !holiday.getDate().isAfter(to)))
+                .map(HolidayCalendar::getId)
+                .toList();
+        return branchHolidayStore.findClosedBetween(from, to, calendarIds).stream()
+                .map(branchMapper::toSummaryDTO)
+                .collect(Collectors.toList());
+    }
+
+    private Map<String, BranchCalendar> loadCalendars(Collection<String> branchIds) {
+        Map<String, BranchCalendar> calendars = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String branchId : new LinkedHashSet<>(branchIds)) {
+            BranchCalendar calendar = holidayCalendarIndex.get(branchId);
+            if (calendar == null) {
+                missing.add(branchId);
+            } else {
+                calendars.put(branchId, calendar);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long stamp = holidayCalendarIndex.stamp();
+            loadHolidayDates(missing).forEach(branch ->
+                    calendars.put(branch.getId(), holidayCalendarIndex.put(branch, stamp)));
+        }
+        return calendars;
+    }
+
+    // Sólo las lecturas de MongoDB de las consultas de feriados ocupan lugar en su límite: los aciertos del índice no
+    private List<Branch> loadHolidayDates(List<String> branchIds) {
+        return concurrencyLimits.call(EndpointClass.HOLIDAY_CHECKS,
+                () -> branchHolidayStore.findHolidayDates(branchIds));
+    }
+
+    private static List<String> unknownBranchIds(Collection<String> branchIds, Map<String, BranchCalendar> calendars) {
+        return branchIds.stream()
+                .distinct()
+                .filter(branchId -> !calendars.containsKey(branchId))
+                .collect(Collectors.toList());
+    }
+
+    private static String encodeChangeToken(LocalDateTime lastModifiedDate, String id) {
+        String position = lastModifiedDate + "|" + (id == null ? "" : id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeChangeToken(String token) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Invalid change token");
+            }
+            LocalDateTime.parse(position[0]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid change token");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.banquito.core.sucursales.service;
+
+import java.util.List;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.banquito.core.sucursales.config.BranchProperties;
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.repository.BranchHolidayStore;
+import com.banquito.core.sucursales.repository.BranchRepository;
+import com.banquito.core.sucursales.repository.BucketedBranchHolidayStore;
+import com.banquito.core.sucursales.repository.MigrationLock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mueve los feriados embebidos a los buckets por año. Se ejecuta por lotes: primero copia a los
+ * buckets y después quita la lista de la sucursal, sólo si sigue siendo la que se copió. Las que
+ * cambiaron (una réplica aún en modo embebido) conservan la lista y se migran al volver a ejecutarla;
+ * la copia es idempotente. Un candado en MongoDB evita que dos réplicas la ejecuten a la vez.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "branch.holiday-storage", name = "migrate", havingValue = "true")
+public class HolidayBucketMigration implements ApplicationRunner {
+
+    private static final String LOCK = "holidayBucketMigration";
+
+    private final BranchRepository branchRepository;
+    private final BranchHolidayStore branchHolidayStore;
+    private final HolidayCalendarIndex holidayCalendarIndex;
+    private final BranchProperties branchProperties;
+    private final MigrationLock migrationLock;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!(branchHolidayStore instanceof BucketedBranchHolidayStore buckets)) {
+            log.warn("Holiday bucket migration requires branch.holiday-storage.mode=bucketed, skipping");
+            return;
+        }
+        if (!migrationLock.acquire(LOCK, branchProperties.getMigrations().getLockLease())) {
+            log.info("Holiday bucket migration is running on another replica, skipping");
+            return;
+        }
+        try {
+            migrate(buckets);
+        } finally {
+            migrationLock.release(LOCK);
+        }
+    }
+
+    private void migrate(BucketedBranchHolidayStore buckets) {
+        int batchSize = branchProperties.getHolidayStorage().getMigrationBatchSize();
+        log.info("Migrating embedded holidays to yearly buckets in batches of {}", batchSize);
+
+        long migrated = 0;
+        long skipped = 0;
+        String afterId = null;
+        while (true) {
+            List<Branch> batch = branchRepository.findWithEmbeddedHolidays(afterId, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            buckets.copyFromEmbedded(batch);
+            long cleared = branchRepository.clearEmbeddedHolidays(batch);
+            migrated += cleared;
+            skipped += batch.size() - cleared;
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+        if (skipped > 0) {
+            log.warn("{} branches changed during the migration and kept their embedded holidays; run it again", skipped);
+        }
+        holidayCalendarIndex.reload();
+        log.info("Holiday bucket migration finished: {} branches migrated", migrated);
+    }
+}
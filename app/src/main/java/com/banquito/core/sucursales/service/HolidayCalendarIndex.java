@@ -0,0 +1,265 @@
+package com.banquito.core.sucursales.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.banquito.core.sucursales.repository.BranchHolidayStore;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Calendario de feriados de cada sucursal en memoria. Los cambios hechos en este nodo se aplican al momento;
+ * los de otras réplicas llegan por el change stream (BranchChangeStreamConfig), que quita la sucursal del
+ * índice, así que el retraso es el del evento. Sin change stream, hasta branch.holiday-index.refresh-interval.
+ * Cada entrada guarda la versión de la sucursal que refleja, para no quitarla por los eventos de sus propios
+ * cambios ni por cambios que no tocan feriados.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HolidayCalendarIndex {
+
+    private final BranchHolidayStore branchHolidayStore;
+    private final HolidayCalendarRegistry holidayCalendarRegistry;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Secuencia del último cambio de cada sucursal: una lectura de MongoDB anterior a ese cambio no entra al índice
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Long> changedAt = new ConcurrentHashMap<>();
+    private volatile long previousReloadStart;
+    private volatile long clearedAt;
+    // Última entrada de las sucursales quitadas del índice, para responder mientras MongoDB no está disponible
+    private final Map<String, Entry> lastKnownGood = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile LocalDateTime lastReload;
+
+    @Scheduled(initialDelayString = "${branch.holiday-index.initial-delay:PT0S}",
+            fixedDelayString = "${branch.holiday-index.refresh-interval:PT5M}")
+    public void reload() {
+        log.info("Reloading holiday calendar index");
+        long start = stamp();
+        Map<String, Entry> fresh = new HashMap<>();
+        try (Stream<Branch> branches = branchHolidayStore.streamHolidayDates()) {
+            branches.forEach(branch -> fresh.put(branch.getId(), toEntry(branch)));
+        } catch (DataAccessException ex) {
+            log.warn("Holiday calendar index reload failed, keeping {} cached branches: {}",
+                    entries.size(), ex.getMessage());
+            return;
+        }
+        fresh.forEach((branchId, entry) ->
+                entries.compute(branchId, (id, current) -> changedSince(id, start) ? current : entry));
+        lastKnownGood.keySet().removeIf(entries::containsKey);
+        // Se conservan los cambios de la recarga anterior por si alguna lectura de entonces sigue en curso
+        long retained = previousReloadStart;
+        changedAt.values().removeIf(changed -> changed <= retained);
+        previousReloadStart = start;
+        lastReload = LocalDateTime.now();
+        log.info("Holiday calendar index loaded with {} branches", fresh.size());
+    }
+
+    /**
+     * Calendario efectivo (feriados propios más calendarios compartidos) o null si la sucursal no está indexada.
+     */
+    public BranchCalendar get(String branchId) {
+        Entry entry = entries.get(branchId);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return effective(branchId, entry);
+    }
+
+    /**
+     * Marca a tomar antes de leer la sucursal de MongoDB para indexarla con {@link #put(Branch, long)}.
+     */
+    public long stamp() {
+        return sequence.get();
+    }
+
+    /**
+     * Indexa la sucursal leída después de la marca, salvo que haya cambiado desde entonces: un addHoliday
+     * concurrente sobre una sucursal todavía fuera del índice se perdería al guardar la lectura anterior.
+     * Devuelve el calendario leído en ambos casos.
+     */
+    public BranchCalendar put(Branch branch, long stamp) {
+        Entry entry = toEntry(branch);
+        boolean[] stored = new boolean[1];
+        entries.compute(branch.getId(), (id, current) -> {
+            if (changedSince(id, stamp)) {
+                return current;
+            }
+            stored[0] = true;
+            changed(id);
+            return entry;
+        });
+        if (!stored[0]) {
+            log.debug("Branch ID: {} changed while loading, not indexed", branch.getId());
+            return holidayCalendarRegistry.effective(entry.own(), entry.calendarIds());
+        }
+        lastKnownGood.remove(branch.getId());
+        return effective(branch.getId(), entry);
+    }
+
+    /**
+     * Calendarios de la sucursal según la versión devuelta por la escritura.
+     */
+    public void setCalendarIds(String branchId, List<String> calendarIds, Long version) {
+        changed(branchId);
+        entries.computeIfPresent(branchId, (id, entry) ->
+                new Entry(entry.own(), calendarIds == null ? List.of() : List.copyOf(calendarIds), version));
+    }
+
+    // Cada escritura de feriados incrementa la versión de la sucursal en uno, aunque agregue varias fechas
+    public void addHoliday(String branchId, LocalDate date) {
+        addHolidays(branchId, List.of(date));
+    }
+
+    public void addHolidays(String branchId, Collection<LocalDate> dates) {
+        changed(branchId);
+        entries.computeIfPresent(branchId, (id, entry) -> {
+            BranchCalendar own = entry.own();
+            for (LocalDate date : dates) {
+                own = own.with(date);
+            }
+            return new Entry(own, entry.calendarIds(), next(entry.version()));
+        });
+    }
+
+    public void removeHoliday(String branchId, LocalDate date) {
+        changed(branchId);
+        entries.computeIfPresent(branchId, (id, entry) ->
+                new Entry(entry.own().without(date), entry.calendarIds(), next(entry.version())));
+    }
+
+    /**
+     * Cambio de la sucursal recibido por el change stream. Se quita del índice si toca sus feriados o
+     * calendarios y es posterior a la versión indexada; un cambio de otros campos sólo adelanta la versión
+     * indexada si es el siguiente.
+     */
+    public void onChange(String branchId, Long version, boolean holidaysChanged) {
+        Entry entry = entries.get(branchId);
+        if (holidaysChanged) {
+            if (entry == null || version == null || entry.version() == null || version > entry.version()) {
+                evict(branchId);
+            }
+            return;
+        }
+        if (entry != null && version != null && entry.version() != null && version == entry.version() + 1) {
+            entries.computeIfPresent(branchId, (id, current) -> current == entry
+                    ? new Entry(entry.own(), entry.calendarIds(), version, entry.effective(), entry.generation())
+                    : current);
+        }
+    }
+
+    /**
+     * Quita todas las sucursales, que quedan como último calendario conocido, y descarta las lecturas en curso.
+     */
+    public void clear() {
+        clearedAt = sequence.incrementAndGet();
+        entries.keySet().forEach(this::evict);
+    }
+
+    public void evict(String branchId) {
+        changed(branchId);
+        Entry evicted = entries.remove(branchId);
+        if (evicted != null) {
+            lastKnownGood.put(branchId, evicted);
+        }
+    }
+
+    /**
+     * Calendario indexado o, si la sucursal se quitó del índice, el último conocido; null si nunca se indexó.
+     * Sólo para responder mientras MongoDB no está disponible: puede no reflejar el último cambio.
+     */
+    public BranchCalendar getLastKnownGood(String branchId) {
+        Entry entry = entries.get(branchId);
+        if (entry != null) {
+            return effective(branchId, entry);
+        }
+        entry = lastKnownGood.get(branchId);
+        return entry == null ? null : holidayCalendarRegistry.effective(entry.own(), entry.calendarIds());
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        Collection<Entry> values = entries.values();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("branches", values.size());
+        stats.put("lastKnownGood", lastKnownGood.size());
+        stats.put("years", values.stream().mapToInt(entry -> entry.own().yearCount()).sum());
+        stats.put("bitmapBytes", values.stream().mapToLong(entry -> entry.own().sizeInBytes()).sum());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        stats.put("lastReload", lastReload);
+        return stats;
+    }
+
+    private void changed(String branchId) {
+        changedAt.put(branchId, sequence.incrementAndGet());
+    }
+
+    private boolean changedSince(String branchId, long stamp) {
+        if (clearedAt > stamp) {
+            return true;
+        }
+        Long changed = changedAt.get(branchId);
+        return changed != null && changed > stamp;
+    }
+
+    // El calendario efectivo se recalcula sólo cuando cambió algún calendario compartido
+    private BranchCalendar effective(String branchId, Entry entry) {
+        long generation = holidayCalendarRegistry.generation();
+        if (entry.effective() != null && entry.generation() == generation) {
+            return entry.effective();
+        }
+        BranchCalendar effective = holidayCalendarRegistry.effective(entry.own(), entry.calendarIds());
+        entries.computeIfPresent(branchId, (id, current) -> current == entry
+                ? new Entry(entry.own(), entry.calendarIds(), entry.version(), effective, generation)
+                : current);
+        return effective;
+    }
+
+    private static Entry toEntry(Branch branch) {
+        return new Entry(toCalendar(branch.getBranchHolidays()),
+                branch.getCalendarIds() == null ? List.of() : List.copyOf(branch.getCalendarIds()), branch.getVersion());
+    }
+
+    private static Long next(Long version) {
+        return version == null ? null : version + 1;
+    }
+
+    private static BranchCalendar toCalendar(List<BranchHoliday> holidays) {
+        if (holidays == null || holidays.isEmpty()) {
+            return BranchCalendar.empty();
+        }
+        return BranchCalendar.of(holidays.stream().map(BranchHoliday::getDate).toList());
+    }
+
+    private record Entry(BranchCalendar own, List<String> calendarIds, Long version, BranchCalendar effective,
+            long generation) {
+
+        Entry(BranchCalendar own, List<String> calendarIds, Long version) {
+            this(own, calendarIds, version, null, -1);
+        }
+    }
+}
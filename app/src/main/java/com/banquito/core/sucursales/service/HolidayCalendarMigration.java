@@ -0,0 +1,190 @@
+package com.banquito.core.sucursales.service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Component;
+
+import com.banquito.core.sucursales.config.BranchProperties;
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.banquito.core.sucursales.model.HolidayCalendar;
+import com.banquito.core.sucursales.repository.BranchRepository;
+import com.banquito.core.sucursales.repository.HolidayCalendarRepository;
+import com.banquito.core.sucursales.repository.MigrationLock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Migración única de las listas de feriados embebidas a calendarios compartidos. Sólo mueve a un
+ * calendario feriados que la sucursal ya tiene, así que el calendario efectivo de cada sucursal no
+ * cambia: los feriados presentes en todas las sucursales forman un calendario nacional y cada grupo
+ * de sucursales con el mismo conjunto restante de feriados repetidos, uno regional. Al volver a
+ * ejecutarla, las sucursales que quedaron sin migrar se enlazan a los calendarios ya creados. Un
+ * candado en MongoDB evita que dos réplicas que arrancan juntas creen calendarios duplicados.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "branch.holiday-calendars", name = "migrate", havingValue = "true")
+public class HolidayCalendarMigration implements ApplicationRunner {
+
+    private static final DateTimeFormatter RUN_ID = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final String MIGRATED_PREFIX = "MIGRATED-";
+    private static final String LOCK = "holidayCalendarMigration";
+
+    private final BranchRepository branchRepository;
+    private final HolidayCalendarRepository holidayCalendarRepository;
+    private final HolidayCalendarRegistry holidayCalendarRegistry;
+    private final HolidayCalendarIndex holidayCalendarIndex;
+    private final BranchProperties branchProperties;
+    private final MigrationLock migrationLock;
+
+    @Override
+    @CacheEvict(cacheNames = { BranchService.BRANCH_CACHE, BranchService.BRANCH_HOLIDAYS_CACHE },
+            allEntries = true)
+    public void run(ApplicationArguments args) {
+        if (!migrationLock.acquire(LOCK, branchProperties.getMigrations().getLockLease())) {
+            log.info("Shared calendar migration is running on another replica, skipping");
+            return;
+        }
+        try {
+            migrate();
+        } finally {
+            migrationLock.release(LOCK);
+        }
+    }
+
+    private void migrate() {
+        if (branchProperties.getHolidayStorage().getMode() != BranchProperties.HolidayStorageMode.EMBEDDED) {
+            log.warn("Shared calendar migration reads embedded holidays; run it before switching holiday storage mode");
+            return;
+        }
+        int minBranches = Math.max(2, branchProperties.getHolidayCalendars().getMigrationMinBranches());
+        List<Branch> branches = branchRepository.findAll();
+        log.info("Migrating embedded holidays of {} branches to shared calendars", branches.size());
+        if (branches.size() < minBranches) {
+            return;
+        }
+
+        // Las sucursales que cambiaron durante una corrida anterior conservan su lista: se enlazan a los
+        // calendarios que esa corrida creó, si tienen todos sus feriados
+        Map<String, Set<BranchHoliday>> moved = new HashMap<>();
+        Map<String, List<String>> linked = new HashMap<>();
+        for (HolidayCalendar calendar : holidayCalendarRepository.findAll()) {
+            if (calendar.getCode() == null || !calendar.getCode().startsWith(MIGRATED_PREFIX)
+                    || calendar.getHolidays() == null || calendar.getHolidays().isEmpty()) {
+                continue;
+            }
+            Set<BranchHoliday> holidays = Set.copyOf(calendar.getHolidays());
+            branches.stream()
+                    .filter(branch -> remainingOf(branch, moved).containsAll(holidays))
+                    .forEach(branch -> assign(branch, calendar, holidays, moved, linked));
+        }
+
+        Map<BranchHoliday, Integer> counts = new HashMap<>();
+        for (Branch branch : branches) {
+            remainingOf(branch, moved).forEach(holiday -> counts.merge(holiday, 1, Integer::sum));
+        }
+        Set<BranchHoliday> national = counts.entrySet().stream()
+                .filter(entry -> entry.getValue() == branches.size())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+
+        // Agrupa las sucursales por su conjunto de feriados repetidos que no son nacionales
+        Map<Set<BranchHoliday>, List<Branch>> regionalGroups = new LinkedHashMap<>();
+        for (Branch branch : branches) {
+            Set<BranchHoliday> shared = remainingOf(branch, moved).stream()
+                    .filter(holiday -> !national.contains(holiday) && counts.get(holiday) >= minBranches)
+                    .collect(Collectors.toSet());
+            if (!shared.isEmpty()) {
+                regionalGroups.computeIfAbsent(shared, key -> new ArrayList<>()).add(branch);
+            }
+        }
+        regionalGroups.values().removeIf(group -> group.size() < minBranches);
+        if (national.isEmpty() && regionalGroups.isEmpty() && moved.isEmpty()) {
+            log.info("No repeated holidays found, nothing to migrate");
+            return;
+        }
+
+        String runId = LocalDateTime.now().format(RUN_ID);
+        if (!national.isEmpty()) {
+            HolidayCalendar calendar = createCalendar(MIGRATED_PREFIX + runId + "-NATIONAL", "NATIONAL", national);
+            branches.forEach(branch -> assign(branch, calendar, national, moved, linked));
+        }
+        int regional = 0;
+        for (Map.Entry<Set<BranchHoliday>, List<Branch>> group : regionalGroups.entrySet()) {
+            HolidayCalendar calendar = createCalendar(MIGRATED_PREFIX + runId + "-REGIONAL-" + (++regional),
+                    "REGIONAL", group.getKey());
+            group.getValue().forEach(branch -> assign(branch, calendar, group.getKey(), moved, linked));
+        }
+
+        List<Branch> updates = new ArrayList<>();
+        for (Branch branch : branches) {
+            Set<BranchHoliday> removed = moved.get(branch.getId());
+            if (removed == null) {
+                continue;
+            }
+            List<String> calendarIds = new ArrayList<>(branch.getCalendarIds() == null ? List.of() : branch.getCalendarIds());
+            linked.get(branch.getId()).stream().filter(id -> !calendarIds.contains(id)).forEach(calendarIds::add);
+            branch.setBranchHolidays(holidaysOf(branch).stream().filter(holiday -> !removed.contains(holiday)).toList());
+            branch.setCalendarIds(calendarIds);
+            updates.add(branch);
+        }
+        long updated = branchRepository.updateHolidayLayout(updates);
+        if (updated < updates.size()) {
+            // Las sucursales modificadas durante la migración conservan su lista embebida; basta con volver a ejecutarla
+            log.warn("{} branches changed during the migration and were left untouched", updates.size() - updated);
+        }
+        holidayCalendarIndex.reload();
+        log.info("Holiday migration finished: {} calendars created, {} branches updated, {} holiday copies removed",
+                regionalGroups.size() + (national.isEmpty() ? 0 : 1), updated,
+                moved.values().stream().mapToInt(Set::size).sum());
+    }
+
+    private HolidayCalendar createCalendar(String code, String type, Set<BranchHoliday> holidays) {
+        List<BranchHoliday> sorted = holidays.stream()
+                .sorted((a, b) -> a.getDate().compareTo(b.getDate()))
+                .toList();
+        HolidayCalendar calendar = holidayCalendarRepository.insert(HolidayCalendar.builder()
+                .code(code)
+                .name("Migrated " + type.toLowerCase() + " holidays")
+                .type(type)
+                .creationDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .holidays(new ArrayList<>(sorted))
+                .build());
+        holidayCalendarRegistry.put(calendar);
+        log.info("Created shared calendar {} with {} holidays", code, sorted.size());
+        return calendar;
+    }
+
+    private static void assign(Branch branch, HolidayCalendar calendar, Set<BranchHoliday> holidays,
+            Map<String, Set<BranchHoliday>> moved, Map<String, List<String>> linked) {
+        moved.computeIfAbsent(branch.getId(), id -> new HashSet<>()).addAll(holidays);
+        linked.computeIfAbsent(branch.getId(), id -> new ArrayList<>()).add(calendar.getId());
+    }
+
+    private static Set<BranchHoliday> remainingOf(Branch branch, Map<String, Set<BranchHoliday>> moved) {
+        Set<BranchHoliday> remaining = new HashSet<>(holidaysOf(branch));
+        remaining.removeAll(moved.getOrDefault(branch.getId(), Set.of()));
+        return remaining;
+    }
+
+    private static List<BranchHoliday> holidaysOf(Branch branch) {
+        return branch.getBranchHolidays() == null ? List.of() : branch.getBranchHolidays();
+    }
+}
@@ -0,0 +1,150 @@
+package com.banquito.core.sucursales.service;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.banquito.core.sucursales.model.HolidayCalendar;
+import com.banquito.core.sucursales.repository.HolidayCalendarRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Calendarios compartidos (nacional, regionales) en memoria. Son pocos y cambian rara vez, así que
+ * se cargan completos; cada cambio incrementa la generación para que el índice recalcule los
+ * calendarios efectivos de las sucursales. Los cambios de otras réplicas llegan por el change stream de
+ * holidayCalendars (refresh), igual que la invalidación del índice; la recarga periódica es sólo el respaldo.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HolidayCalendarRegistry {
+
+    private final HolidayCalendarRepository holidayCalendarRepository;
+
+    private final Map<String, SharedCalendar> calendars = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    // ReentrantLock y no synchronized: la carga consulta MongoDB y no debe fijar un hilo virtual a su portador
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile boolean loaded;
+
+    @Scheduled(initialDelayString = "${branch.holiday-index.initial-delay:PT0S}",
+            fixedDelayString = "${branch.holiday-index.refresh-interval:PT5M}")
+    public void reload() {
+        Map<String, SharedCalendar> fresh = new HashMap<>();
+        try {
+            holidayCalendarRepository.findAll().forEach(calendar -> fresh.put(calendar.getId(), toShared(calendar)));
+        } catch (DataAccessException ex) {
+            log.warn("Holiday calendar reload failed, keeping {} cached calendars: {}", calendars.size(), ex.getMessage());
+            return;
+        }
+        // Una escritura local más reciente que la lectura no debe perderse
+        fresh.forEach((id, calendar) -> calendars.merge(id, calendar,
+                (current, loadedCalendar) -> version(current) > version(loadedCalendar) ? current : loadedCalendar));
+        loaded = true;
+        generation.incrementAndGet();
+        log.info("Loaded {} shared holiday calendars", fresh.size());
+    }
+
+    public HolidayCalendar get(String calendarId) {
+        SharedCalendar calendar = calendars().get(calendarId);
+        return calendar == null ? null : calendar.calendar();
+    }
+
+    public List<HolidayCalendar> findAll() {
+        return calendars().values().stream()
+                .map(SharedCalendar::calendar)
+                .sorted(Comparator.comparing(HolidayCalendar::getCode))
+                .toList();
+    }
+
+    public void put(HolidayCalendar calendar) {
+        calendars.put(calendar.getId(), toShared(calendar));
+        generation.incrementAndGet();
+    }
+
+    public void refresh(String calendarId) {
+        holidayCalendarRepository.findById(calendarId).ifPresentOrElse(this::put, () -> {
+            calendars.remove(calendarId);
+            generation.incrementAndGet();
+        });
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Calendario efectivo de una sucursal: sus feriados propios más los de los calendarios que referencia.
+     */
+    public BranchCalendar effective(BranchCalendar own, Collection<String> calendarIds) {
+        if (calendarIds == null || calendarIds.isEmpty()) {
+            return own;
+        }
+        Map<String, SharedCalendar> shared = calendars();
+        BranchCalendar effective = own;
+        for (String calendarId : calendarIds) {
+            SharedCalendar calendar = shared.get(calendarId);
+            if (calendar != null) {
+                effective = effective.union(calendar.dates());
+            }
+        }
+        return effective;
+    }
+
+    /**
+     * Feriados de los calendarios referenciados, con nombre; los propios de la sucursal prevalecen por fecha.
+     */
+    public List<BranchHoliday> holidays(Collection<String> calendarIds) {
+        if (calendarIds == null || calendarIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, SharedCalendar> shared = calendars();
+        return calendarIds.stream()
+                .map(shared::get)
+                .filter(calendar -> calendar != null && calendar.calendar().getHolidays() != null)
+                .flatMap(calendar -> calendar.calendar().getHolidays().stream())
+                .toList();
+    }
+
+    private Map<String, SharedCalendar> calendars() {
+        if (!loaded) {
+            loadLock.lock();
+            try {
+                if (!loaded) {
+                    reload();
+                }
+            } finally {
+                loadLock.unlock();
+            }
+            // Sin los calendarios compartidos el calendario efectivo sería incorrecto: mejor fallar
+            if (!loaded) {
+                throw new IllegalStateException("Shared holiday calendars are not available");
+            }
+        }
+        return calendars;
+    }
+
+    private static SharedCalendar toShared(HolidayCalendar calendar) {
+        List<BranchHoliday> holidays = calendar.getHolidays() == null ? List.of() : calendar.getHolidays();
+        return new SharedCalendar(calendar, BranchCalendar.of(holidays.stream().map(BranchHoliday::getDate).toList()));
+    }
+
+    private static long version(SharedCalendar calendar) {
+        return calendar.calendar().getVersion() == null ? 0 : calendar.calendar().getVersion();
+    }
+
+    private record SharedCalendar(HolidayCalendar calendar, BranchCalendar dates) {
+    }
+}
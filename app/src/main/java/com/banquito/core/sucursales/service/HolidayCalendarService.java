@@ -0,0 +1,123 @@
+package com.banquito.core.sucursales.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import com.banquito.core.sucursales.dto.BranchHolidayDTO;
+import com.banquito.core.sucursales.dto.HolidayCalendarCreateDTO;
+import com.banquito.core.sucursales.dto.HolidayCalendarDTO;
+import com.banquito.core.sucursales.mapper.BranchMapper;
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.banquito.core.sucursales.model.HolidayCalendar;
+import com.banquito.core.sucursales.repository.BranchRepository;
+import com.banquito.core.sucursales.repository.HolidayCalendarRepository;
+
+import io.micrometer.observation.annotation.Observed;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Observed(name = "branch.service")
+@Service
+@RequiredArgsConstructor
+public class HolidayCalendarService {
+
+    private final HolidayCalendarRepository holidayCalendarRepository;
+    private final BranchRepository branchRepository;
+    private final HolidayCalendarRegistry holidayCalendarRegistry;
+    private final BranchMapper branchMapper;
+
+    public List<HolidayCalendarDTO> getCalendars() {
+        log.info("Retrieving all holiday calendars");
+        return holidayCalendarRegistry.findAll().stream()
+                .map(branchMapper::toCalendarDTO)
+                .collect(Collectors.toList());
+    }
+
+    public HolidayCalendarDTO getCalendar(String calendarId) {
+        log.info("Retrieving holiday calendar with ID: {}", calendarId);
+        HolidayCalendar calendar = holidayCalendarRegistry.get(calendarId);
+        if (calendar == null) {
+            throw new NoSuchElementException("Holiday calendar not found with ID: " + calendarId);
+        }
+        return branchMapper.toCalendarDTO(calendar);
+    }
+
+    public HolidayCalendarDTO createCalendar(HolidayCalendarCreateDTO dto) {
+        log.info("Creating holiday calendar with code: {}", dto.getCode());
+
+        HolidayCalendar calendar = branchMapper.toCalendarEntity(dto);
+        List<BranchHoliday> holidays = calendar.getHolidays() == null ? new ArrayList<>() : calendar.getHolidays();
+        Set<LocalDate> dates = new HashSet<>();
+        for (BranchHoliday holiday : holidays) {
+            if (!dates.add(holiday.getDate())) {
+                throw new IllegalArgumentException("Duplicate date in calendar: " + holiday.getDate());
+            }
+        }
+        calendar.setHolidays(holidays);
+
+        HolidayCalendar savedCalendar;
+        try {
+            savedCalendar = holidayCalendarRepository.insert(calendar);
+        } catch (DuplicateKeyException ex) {
+            log.error("Holiday calendar creation failed. Code {} already exists", dto.getCode());
+            throw new IllegalArgumentException("Holiday calendar with this code already exists");
+        }
+        holidayCalendarRegistry.put(savedCalendar);
+        log.info("Holiday calendar created successfully with ID: {}", savedCalendar.getId());
+        return branchMapper.toCalendarDTO(savedCalendar);
+    }
+
+    @CacheEvict(cacheNames = { BranchService.BRANCH_CACHE, BranchService.BRANCH_HOLIDAYS_CACHE },
+            allEntries = true)
+    public void addHoliday(String calendarId, BranchHolidayDTO holidayDTO) {
+        log.info("Adding holiday to calendar ID: {}", calendarId);
+
+        HolidayCalendar calendar = holidayCalendarRepository
+                .pushHolidayIfAbsent(calendarId, branchMapper.toHolidayEntity(holidayDTO))
+                .orElseThrow(() -> {
+                    if (!holidayCalendarRepository.existsById(calendarId)) {
+                        return new NoSuchElementException("Holiday calendar not found");
+                    }
+                    log.warn("Holiday already exists for date: {}", holidayDTO.getDate());
+                    return new IllegalArgumentException("Holiday already exists for this date");
+                });
+        holidayCalendarRegistry.put(calendar);
+        touchBranches(calendarId);
+        log.info("Holiday added successfully");
+    }
+
+    @CacheEvict(cacheNames = { BranchService.BRANCH_CACHE, BranchService.BRANCH_HOLIDAYS_CACHE },
+            allEntries = true)
+    public void removeHoliday(String calendarId, LocalDate date) {
+        log.info("Removing holiday for date: {} from calendar ID: {}", date, calendarId);
+
+        HolidayCalendar calendar = holidayCalendarRepository.pullHoliday(calendarId, date)
+                .orElseThrow(() -> {
+                    if (!holidayCalendarRepository.existsById(calendarId)) {
+                        return new NoSuchElementException("Holiday calendar not found");
+                    }
+                    log.warn("No holiday found for date: {}", date);
+                    return new NoSuchElementException("Holiday not found for the given date");
+                });
+        holidayCalendarRegistry.put(calendar);
+        touchBranches(calendarId);
+        log.info("Holiday removed successfully");
+    }
+
+    // Un solo updateMulti de metadatos: los feriados no se copian a las sucursales
+    private void touchBranches(String calendarId) {
+        long touched = branchRepository.touchByCalendarId(calendarId);
+        log.info("Calendar ID: {} change bumped the version of {} branches", calendarId, touched);
+    }
+}
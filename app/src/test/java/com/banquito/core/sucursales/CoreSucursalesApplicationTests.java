@@ -3,7 +3,8 @@ package com.banquito.core.sucursales;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// Sin MongoDB en el entorno de pruebas: los índices no se pueden crear y no deben impedir el arranque
+@SpringBootTest(properties = "branch.mongo-indexes.required=false")
 class CoreSucursalesApplicationTests {
 
 	@Test
@@ -0,0 +1,155 @@
+package com.banquito.core.sucursales.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.banquito.core.sucursales.config.AdaptiveConcurrencyLimiter.Outcome;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    void limitGrowsWhileLatencyHoldsUnderLoad() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 2, 25, Duration.ZERO);
+
+        for (int round = 0; round < 20; round++) {
+            fill(limiter, FAST);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(25);
+    }
+
+    @Test
+    void limitDoesNotGrowWithoutLoad() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 2, 25, Duration.ZERO);
+
+        // Una petición a la vez: la latencia estable no dice nada de la capacidad
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(FAST, Outcome.SUCCESS);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void limitShrinksWhenLatencyGrows() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20, 2, 25, Duration.ZERO);
+        fill(limiter, FAST);
+        int before = limiter.limit();
+
+        for (int round = 0; round < 10; round++) {
+            fill(limiter, SLOW);
+        }
+
+        assertThat(limiter.limit()).isLessThan(before).isGreaterThanOrEqualTo(2);
+        assertThat(limiter.latencyMillis()).isGreaterThan(10);
+    }
+
+    @Test
+    void limitNeverDropsBelowTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 4, 25, Duration.ZERO);
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(SLOW, Outcome.DROPPED);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(4);
+    }
+
+    @Test
+    void droppedRequestCutsTheLimitByTenPercent() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 2, 25, Duration.ZERO);
+
+        limiter.tryAcquire();
+        limiter.release(FAST, Outcome.DROPPED);
+
+        assertThat(limiter.limit()).isEqualTo(9);
+    }
+
+    @Test
+    void ignoredRequestLeavesTheLimitAlone() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 2, 25, Duration.ZERO);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW, Outcome.IGNORED);
+
+        assertThat(limiter.limit()).isEqualTo(10);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void requestOverTheLimitIsRejectedWithoutQueue() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 2, Duration.ZERO);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(FAST, Outcome.SUCCESS);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void queuedRequestGivesUpAfterMaxWait() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, Duration.ofMillis(20));
+        limiter.tryAcquire();
+
+        long start = System.nanoTime();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+        assertThat(limiter.queued()).isZero();
+    }
+
+    @Test
+    void queuedRequestTakesTheReleasedPlace() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, Duration.ofSeconds(5));
+        limiter.tryAcquire();
+        boolean[] acquired = new boolean[1];
+
+        Thread waiting = Thread.ofVirtual().start(() -> acquired[0] = limiter.tryAcquire());
+        while (limiter.queued() == 0) {
+            Thread.onSpinWait();
+        }
+        limiter.release(FAST, Outcome.SUCCESS);
+        waiting.join();
+
+        assertThat(acquired[0]).isTrue();
+        assertThat(limiter.inFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidLimitsAreRejected() {
+        assertThatThrownBy(() -> limiter(10, 0, 25, Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> limiter(10, 30, 25, Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Ocupa todos los lugares y los libera con la latencia dada
+    private static void fill(AdaptiveConcurrencyLimiter limiter, long elapsedNanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(elapsedNanos, Outcome.SUCCESS);
+        }
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(int initialLimit, int minLimit, int maxLimit,
+            Duration maxWait) {
+        BranchProperties.Limit limit = new BranchProperties.Limit();
+        limit.setInitialLimit(initialLimit);
+        limit.setMinLimit(minLimit);
+        limit.setMaxLimit(maxLimit);
+        return new AdaptiveConcurrencyLimiter(limit, 2.0, maxWait, 10);
+    }
+}
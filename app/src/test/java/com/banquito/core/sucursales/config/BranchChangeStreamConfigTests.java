@@ -0,0 +1,69 @@
+package com.banquito.core.sucursales.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.TruncatedArray;
+import com.mongodb.client.model.changestream.UpdateDescription;
+
+class BranchChangeStreamConfigTests {
+
+    @Test
+    void phoneUpdatesDoNotTouchHolidays() {
+        ChangeStreamDocument<Document> event = update(new BsonDocument("phoneNumber", new BsonString("022222222"))
+                .append("lastModifiedDate", new BsonDateTime(0))
+                .append("version", new BsonInt64(4)), List.of(), List.of());
+
+        assertThat(BranchChangeStreamConfig.touchesHolidays(event)).isFalse();
+        assertThat(BranchChangeStreamConfig.version(event)).isEqualTo(4L);
+    }
+
+    @Test
+    void holidayAndCalendarFieldsTouchHolidays() {
+        assertThat(BranchChangeStreamConfig.touchesHolidays(update(
+                new BsonDocument("branchHolidays.3", new BsonDocument()).append("version", new BsonInt64(2)),
+                List.of(), List.of()))).isTrue();
+        assertThat(BranchChangeStreamConfig.touchesHolidays(update(new BsonDocument("version", new BsonInt64(2)),
+                List.of("calendarIds"), List.of()))).isTrue();
+        assertThat(BranchChangeStreamConfig.touchesHolidays(update(new BsonDocument("version", new BsonInt64(2)),
+                List.of(), List.of(new TruncatedArray("branchHolidays", 1))))).isTrue();
+    }
+
+    @Test
+    void versionOnlyUpdatesMarkBucketChanges() {
+        ChangeStreamDocument<Document> event = update(new BsonDocument("version", new BsonInt64(7))
+                .append("lastModifiedDate", new BsonDateTime(0)), List.of(), List.of());
+
+        assertThat(BranchChangeStreamConfig.touchesHolidays(event)).isTrue();
+    }
+
+    @Test
+    void insertsTakeTheVersionOfTheFullDocument() {
+        ChangeStreamDocument<Document> event = event(OperationType.INSERT, new Document("version", 0L), null);
+
+        assertThat(BranchChangeStreamConfig.touchesHolidays(event)).isTrue();
+        assertThat(BranchChangeStreamConfig.version(event)).isZero();
+    }
+
+    private static ChangeStreamDocument<Document> update(BsonDocument updatedFields, List<String> removedFields,
+            List<TruncatedArray> truncatedArrays) {
+        return event(OperationType.UPDATE, null,
+                new UpdateDescription(removedFields, updatedFields, truncatedArrays, null));
+    }
+
+    private static ChangeStreamDocument<Document> event(OperationType type, Document fullDocument,
+            UpdateDescription updateDescription) {
+        return new ChangeStreamDocument<>(type.getValue(), null, null, null, null, fullDocument, null, null, null,
+                updateDescription, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,110 @@
+package com.banquito.core.sucursales.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.banquito.core.sucursales.config.ConcurrencyLimits.EndpointClass;
+import com.banquito.core.sucursales.exception.ConcurrencyLimitExceededException;
+import com.banquito.core.sucursales.exception.GlobalExceptionHandler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ConcurrencyLimitsTests {
+
+    private final BranchProperties branchProperties = new BranchProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        BranchProperties.ConcurrencyLimit properties = branchProperties.getConcurrencyLimit();
+        properties.setMaxWait(Duration.ZERO);
+        properties.getWrites().setInitialLimit(1);
+        properties.getWrites().setMinLimit(1);
+        properties.getWrites().setMaxLimit(1);
+    }
+
+    @Test
+    void rejectionIsAServiceUnavailableWithRetryAfter() {
+        ConcurrencyLimits limits = new ConcurrencyLimits(branchProperties, meterRegistry);
+        limits.acquire(EndpointClass.WRITES);
+
+        ConcurrencyLimitExceededException ex = catchThrowableOfType(ConcurrencyLimitExceededException.class,
+                () -> limits.acquire(EndpointClass.WRITES));
+
+        assertThat(ex.getEndpointClass()).isEqualTo(EndpointClass.WRITES);
+        ResponseEntity<Map<String, String>> response = new GlobalExceptionHandler().handleConcurrencyLimit(ex);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(meterRegistry.get("branch.concurrency.rejected").tag("endpoint.class", "writes").counter()
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void retryAfterIsRoundedDownToWholeSecondsButNeverZero() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+        ResponseEntity<Map<String, String>> longer = handler.handleConcurrencyLimit(
+                new ConcurrencyLimitExceededException(EndpointClass.READS, Duration.ofMillis(2500)));
+        ResponseEntity<Map<String, String>> shorter = handler.handleConcurrencyLimit(
+                new ConcurrencyLimitExceededException(EndpointClass.READS, Duration.ofMillis(200)));
+
+        assertThat(longer.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(shorter.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+    @Test
+    void endpointClassesDoNotShareLimits() {
+        ConcurrencyLimits limits = new ConcurrencyLimits(branchProperties, meterRegistry);
+        limits.acquire(EndpointClass.WRITES);
+
+        limits.acquire(EndpointClass.HOLIDAY_CHECKS).release(AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+
+        assertThatThrownBy(() -> limits.acquire(EndpointClass.WRITES))
+                .isInstanceOf(ConcurrencyLimitExceededException.class);
+    }
+
+    @Test
+    void releasedPermitFreesThePlace() {
+        ConcurrencyLimits limits = new ConcurrencyLimits(branchProperties, meterRegistry);
+
+        limits.acquire(EndpointClass.WRITES).release(AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+
+        limits.acquire(EndpointClass.WRITES);
+        assertThat(meterRegistry.get("branch.concurrency.in.flight").tag("endpoint.class", "writes").gauge()
+                .value()).isEqualTo(1);
+    }
+
+    @Test
+    void resourceFailureInsideCallIsRethrownAndReleasesThePlace() {
+        ConcurrencyLimits limits = new ConcurrencyLimits(branchProperties, meterRegistry);
+
+        assertThatThrownBy(() -> limits.call(EndpointClass.WRITES, () -> {
+            throw new DataAccessResourceFailureException("down");
+        })).isInstanceOf(DataAccessResourceFailureException.class);
+
+        assertThat(limits.call(EndpointClass.WRITES, () -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    void disabledLimitsNeverReject() {
+        branchProperties.getConcurrencyLimit().setEnabled(false);
+        ConcurrencyLimits limits = new ConcurrencyLimits(branchProperties, meterRegistry);
+
+        limits.acquire(EndpointClass.WRITES);
+        limits.acquire(EndpointClass.WRITES);
+
+        assertThat(meterRegistry.get("branch.concurrency.rejected").tag("endpoint.class", "writes").counter()
+                .count()).isZero();
+    }
+}
@@ -0,0 +1,157 @@
+package com.banquito.core.sucursales.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListener;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+import org.springframework.data.mongodb.core.messaging.SubscriptionRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.ErrorHandler;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+
+@ExtendWith(MockitoExtension.class)
+class ResumableChangeStreamTests {
+
+    private static final BsonDocument TOKEN = new BsonDocument("_data", new BsonString("8263"));
+
+    @Mock
+    private MessageListenerContainer container;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Captor
+    private ArgumentCaptor<SubscriptionRequest<ChangeStreamDocument<Document>, Document, ?>> requests;
+
+    @Captor
+    private ArgumentCaptor<ErrorHandler> errorHandlers;
+
+    private final BranchProperties.ChangeStream config = new BranchProperties.ChangeStream();
+    private final List<ChangeStreamDocument<Document>> received = new ArrayList<>();
+    private final List<Runnable> restarts = new ArrayList<>();
+    private final List<Instant> restartTimes = new ArrayList<>();
+    private int resets;
+    private ResumableChangeStream stream;
+
+    @BeforeEach
+    void setUp() {
+        when(container.register(requests.capture(), eq(Document.class), errorHandlers.capture()))
+                .thenAnswer(invocation -> mock(Subscription.class));
+        lenient().when(taskScheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+            restarts.add(invocation.getArgument(0));
+            restartTimes.add(invocation.getArgument(1));
+            return null;
+        });
+        stream = new ResumableChangeStream("branches", container, taskScheduler, config, received::add,
+                () -> resets++);
+        stream.start();
+    }
+
+    @Test
+    void cursorFailureResumesAfterTheLastEvent() {
+        deliver(TOKEN);
+
+        failAndRestart(new DataAccessResourceFailureException("connection reset"));
+
+        assertThat(received).hasSize(1);
+        assertThat(resumeToken(1)).isEqualTo(TOKEN);
+        assertThat(resets).isZero();
+    }
+
+    @Test
+    void retriesBackOffUntilAnEventArrives() {
+        Instant before = Instant.now();
+        failAndRestart(new DataAccessResourceFailureException("down"));
+        failAndRestart(new DataAccessResourceFailureException("down"));
+        deliver(TOKEN);
+        failAndRestart(new DataAccessResourceFailureException("down"));
+
+        assertThat(Duration.between(before, restartTimes.get(0))).isLessThan(Duration.ofSeconds(2));
+        assertThat(Duration.between(before, restartTimes.get(1))).isGreaterThanOrEqualTo(Duration.ofSeconds(2));
+        assertThat(Duration.between(before, restartTimes.get(2))).isLessThan(Duration.ofSeconds(2));
+        verify(container, times(3)).remove(any());
+    }
+
+    @Test
+    void lostHistoryRestartsFromNowAndResetsLocalState() {
+        deliver(TOKEN);
+
+        failAndRestart(new UncategorizedMongoDbException("resume failed", new MongoCommandException(
+                new BsonDocument("code", new BsonInt32(286)), new ServerAddress())));
+
+        assertThat(resumeToken(1)).isNull();
+        assertThat(resets).isEqualTo(1);
+    }
+
+    @Test
+    void failureBeforeTheFirstEventResetsLocalState() {
+        failAndRestart(new DataAccessResourceFailureException("down"));
+
+        assertThat(resets).isEqualTo(1);
+    }
+
+    @Test
+    void listenerErrorsDoNotStopTheStream() {
+        stream = new ResumableChangeStream("branches", container, taskScheduler, config, change -> {
+            throw new IllegalStateException("boom");
+        }, () -> resets++);
+        stream.start();
+
+        deliver(TOKEN);
+
+        verify(taskScheduler, never()).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void deliver(BsonDocument token) {
+        Message<ChangeStreamDocument<Document>, Document> message = mock(Message.class);
+        when(message.getRaw()).thenReturn(new ChangeStreamDocument<>(OperationType.DELETE.getValue(), token, null,
+                null, null, null, null, new BsonDocument(), null, null, null, null, null, null, null));
+        MessageListener listener = requests.getValue().getMessageListener();
+        listener.onMessage(message);
+    }
+
+    private void failAndRestart(Throwable ex) {
+        errorHandlers.getValue().handleError(ex);
+        restarts.getLast().run();
+    }
+
+    private Object resumeToken(int registration) {
+        ChangeStreamRequest.ChangeStreamRequestOptions options = (ChangeStreamRequest.ChangeStreamRequestOptions)
+                requests.getAllValues().get(registration).getRequestOptions();
+        return options.getChangeStreamOptions().getResumeToken().orElse(null);
+    }
+}
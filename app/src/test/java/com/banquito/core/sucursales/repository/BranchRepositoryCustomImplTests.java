@@ -0,0 +1,177 @@
+package com.banquito.core.sucursales.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoCommandException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+
+@ExtendWith(MockitoExtension.class)
+class BranchRepositoryCustomImplTests {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Captor
+    private ArgumentCaptor<Query> query;
+
+    @Captor
+    private ArgumentCaptor<Update> update;
+
+    private MongoMappingContext mappingContext;
+    private MappingMongoConverter converter;
+    private BranchRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Branch.class))
+                .thenReturn(bulkOperations);
+        lenient().when(mongoTemplate.getConverter()).thenReturn(converter);
+        repository = new BranchRepositoryCustomImpl(mongoTemplate);
+    }
+
+    @Test
+    void insertSetsTheDatesWithTheServerClockInTheSameWrite() {
+        Branch branch = Branch.builder().emailAddress("a@banquito.ec").name("Matriz").state("ACTIVE")
+                .branchHolidays(List.of()).build();
+        when(mongoTemplate.findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class),
+                eq(Branch.class))).thenReturn(branch);
+
+        repository.insertWithServerTime(branch);
+
+        Document write = update.getValue().getUpdateObject();
+        assertThat(write.get("$currentDate", Document.class)).containsOnlyKeys("creationDate", "lastModifiedDate");
+        assertThat(write.get("$setOnInsert", Document.class))
+                .containsEntry("emailAddress", "a@banquito.ec")
+                .containsEntry("version", 0L)
+                .doesNotContainKeys("_id", "creationDate", "lastModifiedDate");
+        assertThat(query.getValue().getQueryObject()).containsEntry("id", branch.getId());
+        assertThat(branch.getId()).isNotNull();
+    }
+
+    @Test
+    void serverTimeFallsBackToIsMasterOnServersWithoutHello() {
+        Date localTime = new Date();
+        when(mongoTemplate.executeCommand(new Document("hello", 1))).thenThrow(new UncategorizedMongoDbException(
+                "no such command", new MongoCommandException(new BsonDocument("code", new BsonInt32(59)),
+                        new ServerAddress())));
+        when(mongoTemplate.executeCommand(new Document("isMaster", 1)))
+                .thenReturn(new Document("localTime", localTime));
+
+        assertThat(repository.currentTime()).isEqualTo(
+                LocalDateTime.ofInstant(localTime.toInstant(), ZoneId.systemDefault()));
+        repository.currentTime();
+
+        verify(mongoTemplate, times(1)).executeCommand(new Document("hello", 1));
+    }
+
+    @Test
+    void insertWithoutErrorsReturnsAnEmptyList() {
+        when(bulkOperations.upsert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.unacknowledged());
+
+        assertThat(repository.insertUnordered(List.of(branch("a1"), branch("b2")))).isEmpty();
+    }
+
+    @Test
+    void insertReturnsTheWriteErrorOfEachFailedItem() {
+        List<BulkWriteError> errors = List.of(
+                new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1),
+                new BulkWriteError(2, "BadValue", new BsonDocument(), 2));
+        when(bulkOperations.upsert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException("bulk write failed",
+                new MongoBulkWriteException(BulkWriteResult.unacknowledged(), errors, null, new ServerAddress(),
+                        Set.of())));
+
+        assertThat(repository.insertUnordered(List.of(branch("a1"), branch("b2"), branch("c3"))))
+                .extracting(BulkWriteError::getIndex, BulkWriteError::getCode)
+                .containsExactly(tuple(1, 11000), tuple(2, 2));
+    }
+
+    @Test
+    void insertPropagatesFailuresOfTheWholeBatch() {
+        when(bulkOperations.upsert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThatThrownBy(() -> repository.insertUnordered(List.of(branch("a1"))))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+    }
+
+    @Test
+    void clearMatchesTheCopiedHolidaysInsteadOfTheVersion() {
+        Branch branch = Branch.builder()
+                .id("64b000000000000000000001")
+                .branchHolidays(List.of(new BranchHoliday(LocalDate.of(2025, 1, 1), "Año Nuevo")))
+                .version(3L)
+                .build();
+        when(bulkOperations.updateOne(query.capture(), any(Update.class))).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+
+        assertThat(repository.clearEmbeddedHolidays(List.of(branch))).isEqualTo(1);
+
+        // Igualdad exacta del arreglo en MongoDB: el filtro debe ser el arreglo tal como se guarda en la sucursal
+        Document mapped = new QueryMapper(converter).getMappedObject(query.getValue().getQueryObject(),
+                mappingContext.getPersistentEntity(Branch.class));
+        Document stored = new Document();
+        converter.write(branch, stored);
+        assertThat(mapped).doesNotContainKey("version");
+        assertThat(mapped.get("branchHolidays")).isEqualTo(stored.get("branchHolidays"));
+    }
+
+    private static Branch branch(String id) {
+        return Branch.builder().id(id).version(0L).build();
+    }
+}
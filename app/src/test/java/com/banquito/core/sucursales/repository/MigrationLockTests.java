@@ -0,0 +1,85 @@
+package com.banquito.core.sucursales.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Date;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+@ExtendWith(MockitoExtension.class)
+class MigrationLockTests {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Captor
+    private ArgumentCaptor<Query> query;
+
+    @Captor
+    private ArgumentCaptor<Update> update;
+
+    @Captor
+    private ArgumentCaptor<FindAndModifyOptions> options;
+
+    private MigrationLock lock;
+
+    @BeforeEach
+    void setUp() {
+        lock = new MigrationLock(mongoTemplate);
+    }
+
+    @Test
+    void expiredOrMissingLockIsTakenWithAnUpsert() {
+        assertThat(lock.acquire("holidayBucketMigration", Duration.ofMinutes(30))).isTrue();
+
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(), eq(Document.class),
+                eq("migrations"));
+        Document filter = query.getValue().getQueryObject();
+        assertThat(filter).containsEntry("_id", "holidayBucketMigration");
+        assertThat(filter.get("lockedUntil", Document.class)).containsKey("$lt");
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertThat(set.getDate("lockedUntil")).isAfter(new Date(System.currentTimeMillis() + 29 * 60_000));
+        assertThat(options.getValue().isUpsert()).isTrue();
+    }
+
+    @Test
+    void lockHeldByAnotherReplicaIsNotTaken() {
+        // El candado vigente no coincide con el filtro y el upsert choca con el _id existente
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Document.class), eq("migrations"))).thenThrow(new DuplicateKeyException("E11000"));
+
+        assertThat(lock.acquire("holidayBucketMigration", Duration.ofMinutes(30))).isFalse();
+    }
+
+    @Test
+    void onlyTheOwnerReleasesTheLock() {
+        lock.acquire("holidayBucketMigration", Duration.ofMinutes(30));
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class),
+                eq(Document.class), eq("migrations"));
+        String owner = update.getValue().getUpdateObject().get("$set", Document.class).getString("owner");
+
+        lock.release("holidayBucketMigration");
+
+        verify(mongoTemplate).updateFirst(query.capture(), any(Update.class), eq("migrations"));
+        assertThat(query.getValue().getQueryObject())
+                .containsEntry("_id", "holidayBucketMigration")
+                .containsEntry("owner", owner);
+    }
+}
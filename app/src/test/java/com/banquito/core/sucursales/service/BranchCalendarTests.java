@@ -0,0 +1,124 @@
+package com.banquito.core.sucursales.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class BranchCalendarTests {
+
+    private static final Set<DayOfWeek> WEEKEND = EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+    private static final LocalDate LEAP_DAY = LocalDate.of(2024, 2, 29);
+    private static final LocalDate LEAP_YEAR_END = LocalDate.of(2024, 12, 31);
+    private static final LocalDate NEW_YEAR = LocalDate.of(2025, 1, 1);
+    private static final LocalDate YEAR_END = LocalDate.of(2025, 12, 31);
+
+    @Test
+    void firstAndLastDayOfTheYearAreStored() {
+        BranchCalendar calendar = BranchCalendar.of(List.of(NEW_YEAR, YEAR_END));
+
+        assertThat(calendar.contains(NEW_YEAR)).isTrue();
+        assertThat(calendar.contains(YEAR_END)).isTrue();
+        assertThat(calendar.contains(NEW_YEAR.plusDays(1))).isFalse();
+        assertThat(calendar.contains(YEAR_END.minusDays(1))).isFalse();
+        assertThat(calendar.yearCount()).isEqualTo(1);
+    }
+
+    @Test
+    void dayOfYearDoesNotLeakAcrossYears() {
+        // 31 de diciembre es el día 366 en 2024 y el 365 en 2025
+        BranchCalendar calendar = BranchCalendar.of(List.of(LEAP_DAY, LEAP_YEAR_END));
+
+        assertThat(calendar.contains(LEAP_DAY)).isTrue();
+        assertThat(calendar.contains(LEAP_YEAR_END)).isTrue();
+        assertThat(calendar.contains(LocalDate.of(2025, 3, 1))).isFalse();
+        assertThat(calendar.contains(YEAR_END)).isFalse();
+        assertThat(calendar.contains(LocalDate.of(2023, 12, 31))).isFalse();
+    }
+
+    @Test
+    void emptyCalendarContainsNothing() {
+        BranchCalendar calendar = BranchCalendar.of(List.of());
+
+        assertThat(calendar).isSameAs(BranchCalendar.empty());
+        assertThat(calendar.contains(NEW_YEAR)).isFalse();
+        assertThat(calendar.size()).isZero();
+        assertThat(calendar.countWeekdayHolidays(NEW_YEAR, YEAR_END, WEEKEND)).isZero();
+    }
+
+    @Test
+    void duplicatedDatesAreStoredOnce() {
+        BranchCalendar calendar = BranchCalendar.of(List.of(NEW_YEAR, NEW_YEAR));
+
+        assertThat(calendar.size()).isEqualTo(1);
+        assertThat(calendar.countWeekdayHolidays(NEW_YEAR, NEW_YEAR, WEEKEND)).isEqualTo(1);
+    }
+
+    @Test
+    void withAndWithoutReturnNewInstances() {
+        BranchCalendar original = BranchCalendar.of(List.of(NEW_YEAR));
+
+        BranchCalendar added = original.with(LEAP_YEAR_END);
+        BranchCalendar removed = added.without(NEW_YEAR);
+
+        assertThat(original.contains(LEAP_YEAR_END)).isFalse();
+        assertThat(added.contains(LEAP_YEAR_END)).isTrue();
+        assertThat(added.yearCount()).isEqualTo(2);
+        assertThat(removed.contains(NEW_YEAR)).isFalse();
+        assertThat(removed.yearCount()).isEqualTo(1);
+        assertThat(added.with(NEW_YEAR)).isSameAs(added);
+        assertThat(removed.without(NEW_YEAR)).isSameAs(removed);
+    }
+
+    @Test
+    void removingTheLastHolidayGivesTheEmptyCalendar() {
+        BranchCalendar calendar = BranchCalendar.of(List.of(LEAP_DAY)).without(LEAP_DAY);
+
+        assertThat(calendar).isSameAs(BranchCalendar.empty());
+    }
+
+    @Test
+    void withKeepsTheCountsOrdered() {
+        BranchCalendar calendar = BranchCalendar.empty()
+                .with(YEAR_END)
+                .with(NEW_YEAR)
+                .with(LocalDate.of(2025, 8, 11));
+
+        assertThat(calendar.countWeekdayHolidays(NEW_YEAR, LocalDate.of(2025, 8, 11), WEEKEND)).isEqualTo(2);
+        assertThat(calendar.countWeekdayHolidays(LocalDate.of(2025, 8, 12), YEAR_END, WEEKEND)).isEqualTo(1);
+    }
+
+    @Test
+    void unionMergesYearsOfBothCalendars() {
+        BranchCalendar own = BranchCalendar.of(List.of(NEW_YEAR, LEAP_DAY));
+        BranchCalendar shared = BranchCalendar.of(List.of(NEW_YEAR, YEAR_END));
+
+        BranchCalendar calendar = own.union(shared);
+
+        assertThat(calendar.size()).isEqualTo(3);
+        assertThat(calendar.yearCount()).isEqualTo(2);
+        assertThat(calendar.contains(LEAP_DAY)).isTrue();
+        assertThat(calendar.contains(YEAR_END)).isTrue();
+        assertThat(own.contains(YEAR_END)).isFalse();
+        assertThat(own.union(BranchCalendar.empty())).isSameAs(own);
+        assertThat(BranchCalendar.empty().union(shared)).isSameAs(shared);
+    }
+
+    @Test
+    void countSpansYearsAndSkipsWeekendHolidays() {
+        // 2024-12-31 martes, 2025-01-01 miércoles, 2025-01-04 sábado
+        BranchCalendar calendar = BranchCalendar.of(List.of(LEAP_YEAR_END, NEW_YEAR, LocalDate.of(2025, 1, 4)));
+
+        assertThat(calendar.countWeekdayHolidays(LocalDate.of(2024, 12, 1), LocalDate.of(2025, 1, 31), WEEKEND))
+                .isEqualTo(2);
+        assertThat(calendar.countWeekdayHolidays(NEW_YEAR, NEW_YEAR, WEEKEND)).isEqualTo(1);
+        assertThat(calendar.countWeekdayHolidays(LocalDate.of(2025, 1, 2), YEAR_END, WEEKEND)).isZero();
+        assertThat(calendar.countWeekdayHolidays(LocalDate.of(2025, 1, 2), YEAR_END, EnumSet.of(DayOfWeek.SUNDAY)))
+                .isEqualTo(1);
+    }
+}
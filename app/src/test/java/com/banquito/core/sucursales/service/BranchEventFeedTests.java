@@ -0,0 +1,322 @@
+package com.banquito.core.sucursales.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.BsonArray;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListener;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.SubscriptionRequest;
+import org.springframework.scheduling.TaskScheduler;
+
+import com.banquito.core.sucursales.config.BranchProperties;
+import com.banquito.core.sucursales.dto.BranchEventDTO;
+import com.banquito.core.sucursales.dto.BranchHolidayDTO;
+import com.banquito.core.sucursales.mapper.BranchMapperImpl;
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import com.mongodb.client.model.changestream.TruncatedArray;
+import com.mongodb.client.model.changestream.UpdateDescription;
+
+@ExtendWith(MockitoExtension.class)
+class BranchEventFeedTests {
+
+    private static final ObjectId BRANCH_ID = new ObjectId("64b000000000000000000001");
+    private static final ObjectId BUCKET_ID = new ObjectId("64b000000000000000000002");
+    private static final LocalDate NEW_YEAR = LocalDate.of(2025, 1, 1);
+    private static final LocalDate CARNIVAL = LocalDate.of(2025, 3, 3);
+
+    @Mock
+    private MessageListenerContainer container;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BranchEventBroadcaster broadcaster;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Captor
+    private ArgumentCaptor<ChangeStreamRequest<Document>> request;
+
+    @Captor
+    private ArgumentCaptor<BranchEventDTO> published;
+
+    private final BranchProperties branchProperties = new BranchProperties();
+    private MappingMongoConverter converter;
+    private int sequence;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        lenient().when(mongoTemplate.getConverter()).thenReturn(converter);
+    }
+
+    @Test
+    void phoneUpdateIsReported() {
+        start();
+
+        send(update("branches", BRANCH_ID, null, null, new BsonDocument("phoneNumber", new BsonString("022222222")),
+                null));
+
+        BranchEventDTO event = lastEvent();
+        assertThat(event.getType()).isEqualTo("PHONE_UPDATED");
+        assertThat(event.getBranchId()).isEqualTo(BRANCH_ID.toHexString());
+        assertThat(event.getPhoneNumber()).isEqualTo("022222222");
+    }
+
+    @Test
+    void preImagesAreRequested() {
+        start();
+
+        verify(mongoTemplate).executeCommand(new Document("collMod", "branches")
+                .append("changeStreamPreAndPostImages", new Document("enabled", true)));
+        assertThat(request.getValue().getRequestOptions().getChangeStreamOptions().getFullDocumentBeforeChangeLookup())
+                .contains(FullDocumentBeforeChange.WHEN_AVAILABLE);
+    }
+
+    @Test
+    void pushedHolidayIsReportedAsAdded() {
+        start();
+
+        send(update("branches", BRANCH_ID, null, branch(NEW_YEAR, CARNIVAL),
+                new BsonDocument("branchHolidays.1", holiday(CARNIVAL)), null));
+
+        assertThat(lastEvent().getType()).isEqualTo("HOLIDAY_ADDED");
+        assertThat(dates(lastEvent())).containsExactly(CARNIVAL);
+    }
+
+    @Test
+    void pullFromTheEndReportsOnlyTheRemovedHoliday() {
+        start();
+
+        send(update("branches", BRANCH_ID, branch(NEW_YEAR, CARNIVAL), branch(NEW_YEAR), new BsonDocument(),
+                List.of(new TruncatedArray("branchHolidays", 1))));
+
+        assertThat(lastEvent().getType()).isEqualTo("HOLIDAY_REMOVED");
+        assertThat(dates(lastEvent())).containsExactly(CARNIVAL);
+    }
+
+    @Test
+    void pullFromTheMiddleReportsOnlyTheRemovedHoliday() {
+        start();
+
+        // $pull en medio del arreglo: el cambio trae el arreglo completo
+        send(update("branches", BRANCH_ID, branch(NEW_YEAR, CARNIVAL), branch(CARNIVAL),
+                new BsonDocument("branchHolidays", holidays(CARNIVAL)), null));
+
+        assertThat(lastEvent().getType()).isEqualTo("HOLIDAY_REMOVED");
+        assertThat(dates(lastEvent())).containsExactly(NEW_YEAR);
+    }
+
+    @Test
+    void removalWithoutPreImageIsReportedAsBranchUpdated() {
+        start();
+
+        send(update("branches", BRANCH_ID, null, branch(NEW_YEAR), new BsonDocument(),
+                List.of(new TruncatedArray("branchHolidays", 1))));
+
+        assertThat(lastEvent().getType()).isEqualTo("BRANCH_UPDATED");
+        assertThat(lastEvent().getHolidays()).isNull();
+    }
+
+    @Test
+    void pushIntoAMissingArrayIsReportedAsAdded() {
+        start();
+
+        send(update("branches", BRANCH_ID, new Document("name", "Matriz"), branch(NEW_YEAR),
+                new BsonDocument("branchHolidays", holidays(NEW_YEAR)), null));
+
+        assertThat(lastEvent().getType()).isEqualTo("HOLIDAY_ADDED");
+        assertThat(dates(lastEvent())).containsExactly(NEW_YEAR);
+    }
+
+    @Test
+    void rewriteWithTheSameHolidaysIsReportedAsBranchUpdated() {
+        start();
+
+        send(update("branches", BRANCH_ID, branch(NEW_YEAR, CARNIVAL), branch(NEW_YEAR, CARNIVAL),
+                new BsonDocument("branchHolidays", holidays(NEW_YEAR, CARNIVAL)), null));
+
+        assertThat(lastEvent().getType()).isEqualTo("BRANCH_UPDATED");
+    }
+
+    @Test
+    void holidaysMovedToACalendarAreReportedAsBranchUpdated() {
+        start();
+
+        // Migración a calendarios: Año Nuevo pasa al calendario nacional, los feriados efectivos no cambian
+        send(update("branches", BRANCH_ID, branch(NEW_YEAR, CARNIVAL), branch(CARNIVAL),
+                new BsonDocument("branchHolidays", holidays(CARNIVAL))
+                        .append("calendarIds", new BsonArray(List.of(new BsonString("calendar-1")))),
+                null));
+
+        assertThat(lastEvent().getType()).isEqualTo("BRANCH_UPDATED");
+    }
+
+    @Test
+    void pullFromABucketReportsOnlyTheRemovedHoliday() {
+        branchProperties.getHolidayStorage().setMode(BranchProperties.HolidayStorageMode.BUCKETED);
+        start();
+
+        send(update("branchHolidayBuckets", BUCKET_ID, bucket(NEW_YEAR, CARNIVAL), bucket(NEW_YEAR),
+                new BsonDocument(), List.of(new TruncatedArray("holidays", 1))));
+
+        assertThat(lastEvent().getType()).isEqualTo("HOLIDAY_REMOVED");
+        assertThat(lastEvent().getYear()).isEqualTo(2025);
+        assertThat(dates(lastEvent())).containsExactly(CARNIVAL);
+    }
+
+    @Test
+    void touchesAreDroppedInBucketedMode() {
+        branchProperties.getHolidayStorage().setMode(BranchProperties.HolidayStorageMode.BUCKETED);
+        start();
+
+        send(insert("branchHolidayBuckets", BUCKET_ID, bucket(NEW_YEAR)));
+        send(touch());
+        send(touch());
+
+        verify(broadcaster).publish(published.capture());
+        assertThat(published.getValue().getType()).isEqualTo("HOLIDAY_ADDED");
+        assertThat(published.getValue().getYear()).isEqualTo(2025);
+    }
+
+    @Test
+    void touchIsReportedAsBranchUpdatedInEmbeddedMode() {
+        start();
+
+        send(touch());
+
+        assertThat(lastEvent().getType()).isEqualTo("BRANCH_UPDATED");
+    }
+
+    @Test
+    void eventsWithoutResumeTokenAreIgnored() {
+        start();
+
+        send(new ChangeStreamDocument<>("insert", null, namespace("branches"), null, null, branch(NEW_YEAR), null,
+                new BsonDocument("_id", new BsonObjectId(BRANCH_ID)), null, null, null, null, null, null, null));
+
+        verify(broadcaster, never()).publish(any());
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void start() {
+        BranchEventFeed feed = new BranchEventFeed(container, mongoTemplate, new BranchMapperImpl(), broadcaster,
+                taskScheduler, branchProperties);
+        feed.start();
+        verify(container).register((SubscriptionRequest) request.capture(), eq(Document.class), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void send(ChangeStreamDocument<Document> change) {
+        Message<ChangeStreamDocument<Document>, Document> message = mock(Message.class);
+        when(message.getRaw()).thenReturn(change);
+        ((MessageListener<ChangeStreamDocument<Document>, Document>) request.getValue().getMessageListener())
+                .onMessage(message);
+    }
+
+    private BranchEventDTO lastEvent() {
+        verify(broadcaster, atLeast(1)).publish(published.capture());
+        return published.getValue();
+    }
+
+    private ChangeStreamDocument<Document> insert(String collection, ObjectId id, Document document) {
+        return new ChangeStreamDocument<>("insert", resumeToken(), namespace(collection), null, null, document, null,
+                new BsonDocument("_id", new BsonObjectId(id)), null, null, null, null, null, null, null);
+    }
+
+    private ChangeStreamDocument<Document> update(String collection, ObjectId id, Document before, Document document,
+            BsonDocument updatedFields, List<TruncatedArray> truncatedArrays) {
+        return new ChangeStreamDocument<>("update", resumeToken(), namespace(collection), null, null, document, before,
+                new BsonDocument("_id", new BsonObjectId(id)), null,
+                new UpdateDescription(List.of(), updatedFields, truncatedArrays), null, null, null, null, null);
+    }
+
+    private ChangeStreamDocument<Document> touch() {
+        BsonDocument fields = new BsonDocument("version", new BsonInt64(2))
+                .append("lastModifiedDate", new BsonDateTime(0));
+        return update("branches", BRANCH_ID, null, new Document("name", "Matriz"), fields, null);
+    }
+
+    private BsonDocument resumeToken() {
+        return new BsonDocument("_data", new BsonString(String.format("82%014X", ++sequence)));
+    }
+
+    private static BsonDocument namespace(String collection) {
+        return new BsonDocument("db", new BsonString("sucursales")).append("coll", new BsonString(collection));
+    }
+
+    private Document branch(LocalDate... dates) {
+        return new Document("name", "Matriz").append("branchHolidays", holidayDocuments(dates));
+    }
+
+    private Document bucket(LocalDate... dates) {
+        return new Document("branchId", BRANCH_ID.toHexString()).append("year", 2025)
+                .append("holidays", holidayDocuments(dates));
+    }
+
+    private List<Document> holidayDocuments(LocalDate... dates) {
+        List<Document> holidays = new ArrayList<>();
+        for (LocalDate date : dates) {
+            Document holiday = new Document();
+            converter.write(BranchHoliday.builder().date(date).name("Holiday " + date).build(), holiday);
+            holidays.add(holiday);
+        }
+        return holidays;
+    }
+
+    private BsonDocument holiday(LocalDate date) {
+        return holidayDocuments(date).get(0).toBsonDocument();
+    }
+
+    private BsonArray holidays(LocalDate... dates) {
+        BsonArray array = new BsonArray();
+        holidayDocuments(dates).forEach(holiday -> array.add(holiday.toBsonDocument()));
+        return array;
+    }
+
+    private static List<LocalDate> dates(BranchEventDTO event) {
+        return event.getHolidays().stream().map(BranchHolidayDTO::getDate).toList();
+    }
+}
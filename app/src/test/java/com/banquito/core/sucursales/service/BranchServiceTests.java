@@ -0,0 +1,397 @@
+package com.banquito.core.sucursales.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.banquito.core.sucursales.config.BranchProperties;
+import com.banquito.core.sucursales.config.ConcurrencyLimits;
+import com.banquito.core.sucursales.config.ConcurrencyLimits.EndpointClass;
+import com.banquito.core.sucursales.dto.BranchBatchCreateResultDTO;
+import com.banquito.core.sucursales.dto.BranchBatchItemDTO;
+import com.banquito.core.sucursales.dto.BranchChangesDTO;
+import com.banquito.core.sucursales.dto.BranchCreateDTO;
+import com.banquito.core.sucursales.dto.BranchHolidayDTO;
+import com.banquito.core.sucursales.dto.HolidayImportRequestDTO;
+import com.banquito.core.sucursales.dto.HolidayImportResponseDTO;
+import com.banquito.core.sucursales.dto.HolidayImportResultDTO;
+import com.banquito.core.sucursales.mapper.BranchMapperImpl;
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.banquito.core.sucursales.repository.BranchHolidayStore;
+import com.banquito.core.sucursales.repository.BranchRepository;
+import com.mongodb.bulk.BulkWriteError;
+
+@ExtendWith(MockitoExtension.class)
+class BranchServiceTests {
+
+    private static final LocalDateTime SERVER_TIME = LocalDateTime.of(2025, 6, 1, 12, 0);
+    private static final LocalDateTime SINCE = LocalDateTime.of(2025, 5, 1, 0, 0);
+    private static final LocalDate NEW_YEAR = LocalDate.of(2025, 1, 1);
+    private static final LocalDate CHRISTMAS = LocalDate.of(2025, 12, 25);
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @Mock
+    private BranchHolidayStore branchHolidayStore;
+
+    @Mock
+    private HolidayCalendarIndex holidayCalendarIndex;
+
+    @Mock
+    private HolidayCalendarRegistry holidayCalendarRegistry;
+
+    @Mock
+    private ConcurrencyLimits concurrencyLimits;
+
+    @Captor
+    private ArgumentCaptor<List<Branch>> inserted;
+
+    private final BranchProperties branchProperties = new BranchProperties();
+    private BranchService branchService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(branchRepository.currentTime()).thenReturn(SERVER_TIME);
+        lenient().when(concurrencyLimits.call(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        branchService = new BranchService(branchRepository, branchHolidayStore, new BranchMapperImpl(),
+                holidayCalendarIndex, holidayCalendarRegistry, branchProperties,
+                new BusinessDayCalculator(branchProperties), concurrencyLimits);
+    }
+
+    @Test
+    void changesWindowEndsAtServerTimeMinusSettleTime() {
+        when(branchRepository.findChangedAfter(eq(SINCE), isNull(), any(), anyInt())).thenReturn(List.of());
+
+        branchService.getChanges(SINCE, null, 10);
+
+        verify(branchRepository).findChangedAfter(SINCE, null,
+                SERVER_TIME.minus(branchProperties.getChanges().getSettleTime()), 11);
+    }
+
+    @Test
+    void nextTokenResumesAfterTheLastChangedBranch() {
+        LocalDateTime modified = SINCE.plusDays(3).withNano(123_000_000);
+        when(branchRepository.findChangedAfter(eq(SINCE), isNull(), any(), anyInt()))
+                .thenReturn(new ArrayList<>(List.of(branch("a1", SINCE.plusDays(1)), branch("b2", modified),
+                        branch("c3", modified.plusDays(1)))));
+
+        BranchChangesDTO page = branchService.getChanges(SINCE, null, 2);
+
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getChanged()).hasSize(2);
+        when(branchRepository.findChangedAfter(eq(modified), eq("b2"), any(), anyInt())).thenReturn(List.of());
+        BranchChangesDTO next = branchService.getChanges(null, page.getNextToken(), 2);
+        assertThat(next.getChanged()).isEmpty();
+        assertThat(next.isHasMore()).isFalse();
+    }
+
+    @Test
+    void emptyPageKeepsThePosition() {
+        when(branchRepository.findChangedAfter(eq(SINCE), isNull(), any(), anyInt())).thenReturn(List.of());
+
+        String token = branchService.getChanges(SINCE, null, 10).getNextToken();
+
+        when(branchRepository.findChangedAfter(eq(SINCE), isNull(), any(), anyInt())).thenReturn(List.of());
+        assertThat(branchService.getChanges(null, token, 10).getNextToken()).isEqualTo(token);
+    }
+
+    @Test
+    void deactivatedBranchesAreReportedAsRemoved() {
+        Branch closed = branch("a1", SINCE.plusDays(1));
+        closed.setState("INACTIVE");
+        when(branchRepository.findChangedAfter(eq(SINCE), isNull(), any(), anyInt()))
+                .thenReturn(new ArrayList<>(List.of(closed, branch("b2", SINCE.plusDays(2)))));
+
+        BranchChangesDTO page = branchService.getChanges(SINCE, null, 10);
+
+        assertThat(page.getRemoved()).extracting("id").containsExactly("a1");
+        assertThat(page.getChanged()).extracting("id").containsExactly("b2");
+    }
+
+    @Test
+    void tamperedTokensAreRejected() {
+        assertThatThrownBy(() -> branchService.getChanges(null, "not base64!", 10))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid change token");
+        assertThatThrownBy(() -> branchService.getChanges(null, encode("2025-05-01T00:00"), 10))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid change token");
+        assertThatThrownBy(() -> branchService.getChanges(null, encode("yesterday|a1"), 10))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid change token");
+        assertThatThrownBy(() -> branchService.getChanges(null, encode("2025-05-01T00:00|a1|b2"), 10))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid change token");
+    }
+
+    @Test
+    void sinceOrTokenIsRequired() {
+        assertThatThrownBy(() -> branchService.getChanges(null, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void pageSizeOutsideTheLimitsIsRejected() {
+        int maxSize = branchProperties.getChanges().getMaxSize();
+
+        assertThatThrownBy(() -> branchService.getChanges(SINCE, null, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> branchService.getChanges(SINCE, null, maxSize + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void csvSkipsHeaderAndBlankLinesAndUnquotesNames() {
+        String csv = "date,name\r\n2025-01-01, Año Nuevo \n\n   \n2025-12-25,\"Navidad, \"\"Día\"\"\"\n";
+
+        List<BranchHolidayDTO> holidays = branchService.parseHolidayCsv(csv);
+
+        assertThat(holidays).containsExactly(new BranchHolidayDTO(NEW_YEAR, "Año Nuevo"),
+                new BranchHolidayDTO(CHRISTMAS, "Navidad, \"Día\""));
+    }
+
+    @Test
+    void csvWithoutHeaderIsAccepted() {
+        assertThat(branchService.parseHolidayCsv("2025-01-01,Año Nuevo")).hasSize(1);
+    }
+
+    @Test
+    void csvDuplicatesAreLeftToTheImport() {
+        List<BranchHolidayDTO> holidays = branchService.parseHolidayCsv("2025-01-01,Año Nuevo\n2025-01-01,Otro");
+
+        assertThat(holidays).hasSize(2);
+        assertThatThrownBy(() -> branchService.importHolidays(HolidayImportRequestDTO.builder()
+                .holidays(holidays).all(true).build()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Duplicate date in calendar: 2025-01-01");
+    }
+
+    @Test
+    void csvBadRowsReportTheirLine() {
+        assertThatThrownBy(() -> branchService.parseHolidayCsv("date,name\n2025-01-01,Año Nuevo\n2025-13-01,Mal"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid date on CSV line 3");
+        assertThatThrownBy(() -> branchService.parseHolidayCsv("2025-01-01,Año Nuevo\n2025-12-25"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Missing holiday name on CSV line 2");
+        assertThatThrownBy(() -> branchService.parseHolidayCsv("2025-12-25,\"\""))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Missing holiday name on CSV line 1");
+        assertThatThrownBy(() -> branchService.parseHolidayCsv("Navidad,2025-12-25"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid date on CSV line 1");
+    }
+
+    @Test
+    void csvWithoutHolidaysIsRejected() {
+        assertThatThrownBy(() -> branchService.parseHolidayCsv(null))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("The calendar is empty");
+        assertThatThrownBy(() -> branchService.parseHolidayCsv("date,name\n\n"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("The calendar is empty");
+    }
+
+    @Test
+    void importNeedsExactlyOneSelector() {
+        List<BranchHolidayDTO> holidays = List.of(new BranchHolidayDTO(NEW_YEAR, "Año Nuevo"));
+
+        assertThatThrownBy(() -> branchService.importHolidays(HolidayImportRequestDTO.builder()
+                .holidays(holidays).build())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> branchService.importHolidays(HolidayImportRequestDTO.builder()
+                .holidays(holidays).state("ACTIVE").all(true).build())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void importClassifiesAddedSkippedAndConflicting() {
+        when(branchHolidayStore.findHolidaysFor(any(), isNull(), any())).thenReturn(List.of(
+                holidays("a1", new BranchHoliday(NEW_YEAR, "Año Nuevo")),
+                holidays("b2", new BranchHoliday(NEW_YEAR, "Feriado local"))));
+        when(branchHolidayStore.addAll(any())).thenReturn(2L);
+
+        HolidayImportResponseDTO response = branchService.importHolidays(HolidayImportRequestDTO.builder()
+                .holidays(calendar()).branchIds(List.of("a1", "b2", "c3")).build());
+
+        assertThat(response.getAdded()).isEqualTo(2);
+        assertThat(response.getSkipped()).isEqualTo(1);
+        assertThat(response.getConflicts()).isEqualTo(1);
+        assertThat(response.getResults()).extracting(HolidayImportResultDTO::getConflicts)
+                .containsExactly(List.of(), List.of(NEW_YEAR));
+        assertThat(response.getUnknownBranchIds()).containsExactly("c3");
+        verify(holidayCalendarIndex).addHolidays("a1", List.of(CHRISTMAS));
+        verify(holidayCalendarIndex).addHolidays("b2", List.of(CHRISTMAS));
+    }
+
+    @Test
+    void importMarksBranchesChangedDuringTheWriteForRetry() {
+        when(branchHolidayStore.findHolidaysFor(any(), isNull(), any()))
+                .thenReturn(List.of(holidays("a1"), holidays("b2")))
+                .thenReturn(List.of(holidays("a1", new BranchHoliday(NEW_YEAR, "Año Nuevo"),
+                        new BranchHoliday(CHRISTMAS, "Navidad")), holidays("b2")));
+        // b2 cambió de versión entre la lectura y la escritura
+        when(branchHolidayStore.addAll(any())).thenReturn(1L);
+
+        HolidayImportResponseDTO response = branchService.importHolidays(HolidayImportRequestDTO.builder()
+                .holidays(calendar()).all(true).build());
+
+        assertThat(response.getAdded()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(HolidayImportResultDTO::getBranchId,
+                HolidayImportResultDTO::isRetry).containsExactly(tuple("a1", false), tuple("b2", true));
+        verify(holidayCalendarIndex).addHolidays("a1", List.of(NEW_YEAR, CHRISTMAS));
+        verify(holidayCalendarIndex).evict("b2");
+        verify(holidayCalendarIndex, never()).addHolidays(eq("b2"), any());
+    }
+
+    @Test
+    void dryRunImportDoesNotWrite() {
+        when(branchHolidayStore.findHolidaysFor(isNull(), eq("ACTIVE"), any())).thenReturn(List.of(holidays("a1")));
+
+        HolidayImportResponseDTO response = branchService.importHolidays(HolidayImportRequestDTO.builder()
+                .holidays(calendar()).state("ACTIVE").dryRun(true).build());
+
+        assertThat(response.isDryRun()).isTrue();
+        assertThat(response.getAdded()).isEqualTo(2);
+        verify(branchHolidayStore, never()).addAll(any());
+        verify(holidayCalendarIndex, never()).addHolidays(any(), any());
+    }
+
+    @Test
+    void batchItemsAreMappedFromTheirWriteErrors() {
+        when(branchRepository.insertUnordered(any())).thenReturn(List.of(
+                new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1),
+                new BulkWriteError(2, "BadValue", new BsonDocument(), 2)));
+
+        BranchBatchCreateResultDTO result = branchService.createBranches(
+                List.of(create("a@banquito.ec"), create("b@banquito.ec"), create("c@banquito.ec")));
+
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getResults()).extracting(BranchBatchItemDTO::getIndex, BranchBatchItemDTO::getStatus,
+                BranchBatchItemDTO::getError).containsExactly(tuple(0, 200, null),
+                        tuple(1, 400, "Branch with this email already exists"),
+                        tuple(2, 500, "An unexpected error occurred"));
+        verify(branchRepository).insertUnordered(inserted.capture());
+        Branch created = inserted.getValue().get(0);
+        assertThat(result.getResults().get(0).getBranch().getId()).isEqualTo(created.getId());
+        verify(holidayCalendarIndex).put(eq(created), anyLong());
+        verify(holidayCalendarIndex, times(1)).put(any(), anyLong());
+    }
+
+    @Test
+    void batchBranchesGetIdsBeforeTheInsertAndLeaveTheDatesToTheServer() {
+        when(branchRepository.insertUnordered(any())).thenReturn(List.of());
+
+        BranchBatchCreateResultDTO result = branchService.createBranches(
+                List.of(create("a@banquito.ec"), create("b@banquito.ec")));
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        verify(branchRepository).insertUnordered(inserted.capture());
+        assertThat(inserted.getValue()).extracting(Branch::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(inserted.getValue()).allSatisfy(branch -> {
+            assertThat(branch.getCreationDate()).isNull();
+            assertThat(branch.getLastModifiedDate()).isNull();
+            assertThat(branch.getVersion()).isZero();
+            assertThat(branch.getBranchHolidays()).isEmpty();
+        });
+    }
+
+    @Test
+    void batchOverTheMaximumIsRejectedBeforeWriting() {
+        int maxSize = branchProperties.getBatchCreate().getMaxSize();
+        List<BranchCreateDTO> dtos = new ArrayList<>();
+        for (int i = 0; i <= maxSize; i++) {
+            dtos.add(create(i + "@banquito.ec"));
+        }
+
+        assertThatThrownBy(() -> branchService.createBranches(dtos)).isInstanceOf(IllegalArgumentException.class);
+        verify(branchRepository, never()).insertUnordered(any());
+    }
+
+    @Test
+    void creationDoesNotReadTheServerTimeBeforeWriting() {
+        when(branchRepository.insertWithServerTime(any())).thenAnswer(invocation -> {
+            Branch branch = invocation.getArgument(0);
+            branch.setId("a1");
+            branch.setCreationDate(SERVER_TIME);
+            branch.setLastModifiedDate(SERVER_TIME);
+            return branch;
+        });
+
+        assertThat(branchService.createBranch(create("a@banquito.ec")).getCreationDate()).isEqualTo(SERVER_TIME);
+        verify(branchRepository, never()).currentTime();
+    }
+
+    @Test
+    void holidayCheckOutsideTheIndexLoadsAndIndexesTheBranch() {
+        Branch branch = holidays("a1", new BranchHoliday(NEW_YEAR, "Año Nuevo"));
+        when(branchHolidayStore.findHolidayDates(List.of("a1"))).thenReturn(List.of(branch));
+        when(holidayCalendarIndex.put(eq(branch), anyLong())).thenReturn(BranchCalendar.of(List.of(NEW_YEAR)));
+
+        assertThat(branchService.isHoliday("a1", NEW_YEAR)).isTrue();
+        assertThat(branchService.isHoliday("a1", CHRISTMAS)).isFalse();
+
+        verify(holidayCalendarIndex, times(2)).put(eq(branch), anyLong());
+        verify(concurrencyLimits, times(2)).call(eq(EndpointClass.HOLIDAY_CHECKS), any());
+    }
+
+    @Test
+    void indexHitsDoNotTakeAHolidayCheckPermit() {
+        when(holidayCalendarIndex.get("a1")).thenReturn(BranchCalendar.of(List.of(NEW_YEAR)));
+
+        assertThat(branchService.isHoliday("a1", NEW_YEAR)).isTrue();
+        assertThat(branchService.nextBusinessDay("a1", NEW_YEAR.minusDays(1))).isEqualTo(NEW_YEAR.plusDays(1));
+
+        verify(concurrencyLimits, never()).call(any(), any());
+    }
+
+    @Test
+    void holidayCheckFallsBackToTheLastKnownCalendarWhenMongoIsDown() {
+        when(branchHolidayStore.findHolidayDates(List.of("a1")))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+        when(holidayCalendarIndex.getLastKnownGood("a1")).thenReturn(BranchCalendar.of(List.of(NEW_YEAR)));
+
+        assertThat(branchService.isHoliday("a1", NEW_YEAR)).isTrue();
+        verify(holidayCalendarIndex, never()).put(any(), anyLong());
+    }
+
+    private static BranchCreateDTO create(String emailAddress) {
+        return BranchCreateDTO.builder().emailAddress(emailAddress).name("Sucursal " + emailAddress)
+                .phoneNumber("022222222").build();
+    }
+
+    private static List<BranchHolidayDTO> calendar() {
+        return List.of(new BranchHolidayDTO(NEW_YEAR, "Año Nuevo"), new BranchHolidayDTO(CHRISTMAS, "Navidad"));
+    }
+
+    private static Branch holidays(String id, BranchHoliday... holidays) {
+        return Branch.builder().id(id).branchHolidays(new ArrayList<>(List.of(holidays))).build();
+    }
+
+    private static Branch branch(String id, LocalDateTime lastModifiedDate) {
+        return Branch.builder().id(id).state("ACTIVE").lastModifiedDate(lastModifiedDate).version(1L).build();
+    }
+
+    private static String encode(String position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,153 @@
+package com.banquito.core.sucursales.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.banquito.core.sucursales.config.BranchProperties;
+
+class BusinessDayCalculatorTests {
+
+    private static final LocalDate LEAP_DAY = LocalDate.of(2024, 2, 29);
+    private static final LocalDate LEAP_YEAR_END = LocalDate.of(2024, 12, 31);
+    private static final LocalDate NEW_YEAR = LocalDate.of(2025, 1, 1);
+
+    private final BranchProperties branchProperties = new BranchProperties();
+    private BusinessDayCalculator calculator;
+
+    @BeforeEach
+    void setUp() {
+        calculator = new BusinessDayCalculator(branchProperties);
+    }
+
+    @Test
+    void weekendsAndHolidaysAreNotBusinessDays() {
+        BranchCalendar calendar = BranchCalendar.of(List.of(NEW_YEAR));
+
+        assertThat(calculator.isBusinessDay(calendar, NEW_YEAR)).isFalse();
+        assertThat(calculator.isBusinessDay(calendar, LocalDate.of(2025, 1, 4))).isFalse();
+        assertThat(calculator.isBusinessDay(calendar, LocalDate.of(2025, 1, 2))).isTrue();
+    }
+
+    @Test
+    void nextBusinessDaySkipsTheYearEndHolidays() {
+        // 2024-12-31 martes y 2025-01-01 miércoles feriados
+        BranchCalendar calendar = BranchCalendar.of(List.of(LEAP_YEAR_END, NEW_YEAR));
+
+        assertThat(calculator.nextBusinessDay(calendar, LocalDate.of(2024, 12, 30)))
+                .isEqualTo(LocalDate.of(2025, 1, 2));
+        assertThat(calculator.addBusinessDays(calendar, LocalDate.of(2025, 1, 2), -1))
+                .isEqualTo(LocalDate.of(2024, 12, 30));
+    }
+
+    @Test
+    void leapDayIsCounted() {
+        // 2024-02-29 es jueves
+        assertThat(calculator.businessDaysBetween(BranchCalendar.empty(), LocalDate.of(2024, 2, 28),
+                LocalDate.of(2024, 3, 1))).isEqualTo(2);
+        assertThat(calculator.businessDaysBetween(BranchCalendar.of(List.of(LEAP_DAY)), LocalDate.of(2024, 2, 28),
+                LocalDate.of(2024, 3, 1))).isEqualTo(1);
+        assertThat(calculator.nextBusinessDay(BranchCalendar.of(List.of(LEAP_DAY)), LocalDate.of(2024, 2, 28)))
+                .isEqualTo(LocalDate.of(2024, 3, 1));
+    }
+
+    @Test
+    void businessDaysBetweenIsHalfOpenAndSigned() {
+        LocalDate monday = LocalDate.of(2025, 1, 6);
+        LocalDate nextMonday = monday.plusWeeks(1);
+
+        assertThat(calculator.businessDaysBetween(BranchCalendar.empty(), monday, monday)).isZero();
+        assertThat(calculator.businessDaysBetween(BranchCalendar.empty(), monday, nextMonday)).isEqualTo(5);
+        assertThat(calculator.businessDaysBetween(BranchCalendar.empty(), nextMonday, monday)).isEqualTo(-5);
+    }
+
+    @Test
+    void emptyCalendarOnlySkipsWeekends() {
+        LocalDate friday = LocalDate.of(2025, 1, 3);
+
+        assertThat(calculator.addBusinessDays(BranchCalendar.empty(), friday, 1))
+                .isEqualTo(LocalDate.of(2025, 1, 6));
+        assertThat(calculator.addBusinessDays(BranchCalendar.empty(), friday, 0)).isEqualTo(friday);
+        assertThat(calculator.addBusinessDays(BranchCalendar.empty(), friday, 260))
+                .isEqualTo(LocalDate.of(2026, 1, 2));
+    }
+
+    @Test
+    void matchesDayByDayCountingAcrossYears() {
+        Random random = new Random(42);
+        List<LocalDate> dates = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            dates.add(LocalDate.of(2023, 1, 1).plusDays(random.nextInt(365 * 4)));
+        }
+        BranchCalendar calendar = BranchCalendar.of(dates);
+
+        for (int i = 0; i < 300; i++) {
+            LocalDate from = LocalDate.of(2023, 6, 1).plusDays(random.nextInt(900));
+            int days = random.nextInt(121) - 60;
+
+            LocalDate to = from.plusDays(days);
+            assertThat(calculator.addBusinessDays(calendar, from, days))
+                    .isEqualTo(addDayByDay(calendar, from, days));
+            assertThat(calculator.businessDaysBetween(calendar, from, to))
+                    .isEqualTo(countDayByDay(calendar, from, to));
+        }
+    }
+
+    @Test
+    void sixDayWeekIsSupported() {
+        branchProperties.getBusinessDays().setWeekend(List.of(DayOfWeek.SUNDAY));
+        calculator = new BusinessDayCalculator(branchProperties);
+        LocalDate friday = LocalDate.of(2025, 1, 3);
+
+        assertThat(calculator.nextBusinessDay(BranchCalendar.empty(), friday)).isEqualTo(LocalDate.of(2025, 1, 4));
+        assertThat(calculator.businessDaysBetween(BranchCalendar.empty(), friday, friday.plusWeeks(1))).isEqualTo(6);
+    }
+
+    @Test
+    void spanOverTheMaximumIsRejected() {
+        int maxSpanDays = branchProperties.getBusinessDays().getMaxSpanDays();
+
+        assertThatThrownBy(() -> calculator.businessDaysBetween(BranchCalendar.empty(), NEW_YEAR,
+                NEW_YEAR.plusDays(maxSpanDays + 1))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> calculator.addBusinessDays(BranchCalendar.empty(), NEW_YEAR, maxSpanDays))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void weekWithoutWorkingDaysIsRejected() {
+        branchProperties.getBusinessDays().setWeekend(List.of(DayOfWeek.values()));
+
+        assertThatThrownBy(() -> new BusinessDayCalculator(branchProperties))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    // (from, to], con signo negativo si to es anterior
+    private long countDayByDay(BranchCalendar calendar, LocalDate from, LocalDate to) {
+        LocalDate start = from.isBefore(to) ? from : to;
+        LocalDate end = from.isBefore(to) ? to : from;
+        long count = start.plusDays(1).datesUntil(end.plusDays(1))
+                .filter(date -> calculator.isBusinessDay(calendar, date))
+                .count();
+        return to.isBefore(from) ? -count : count;
+    }
+
+    private LocalDate addDayByDay(BranchCalendar calendar, LocalDate date, int days) {
+        int step = days >= 0 ? 1 : -1;
+        LocalDate current = date;
+        for (int remaining = Math.abs(days); remaining > 0;) {
+            current = current.plusDays(step);
+            if (calculator.isBusinessDay(calendar, current)) {
+                remaining--;
+            }
+        }
+        return current;
+    }
+}
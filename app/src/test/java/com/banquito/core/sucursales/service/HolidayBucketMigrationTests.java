@@ -0,0 +1,121 @@
+package com.banquito.core.sucursales.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import com.banquito.core.sucursales.config.BranchProperties;
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.banquito.core.sucursales.repository.BranchHolidayStore;
+import com.banquito.core.sucursales.repository.BranchRepository;
+import com.banquito.core.sucursales.repository.BucketedBranchHolidayStore;
+import com.banquito.core.sucursales.repository.MigrationLock;
+
+@ExtendWith(MockitoExtension.class)
+class HolidayBucketMigrationTests {
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @Mock
+    private BucketedBranchHolidayStore buckets;
+
+    @Mock
+    private HolidayCalendarIndex holidayCalendarIndex;
+
+    @Mock
+    private MigrationLock migrationLock;
+
+    private final BranchProperties branchProperties = new BranchProperties();
+    private HolidayBucketMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        branchProperties.getHolidayStorage().setMigrationBatchSize(2);
+        lenient().when(migrationLock.acquire(any(), any())).thenReturn(true);
+        migration = new HolidayBucketMigration(branchRepository, buckets, holidayCalendarIndex, branchProperties,
+                migrationLock);
+    }
+
+    @Test
+    void batchesAreCopiedBeforeTheyAreCleared() {
+        List<Branch> first = List.of(branch("a1"), branch("b2"));
+        List<Branch> second = List.of(branch("c3"));
+        when(branchRepository.findWithEmbeddedHolidays(null, 2)).thenReturn(first);
+        when(branchRepository.findWithEmbeddedHolidays("b2", 2)).thenReturn(second);
+        when(branchRepository.findWithEmbeddedHolidays("c3", 2)).thenReturn(List.of());
+        when(branchRepository.clearEmbeddedHolidays(any())).thenReturn(2L, 1L);
+
+        migration.run(new DefaultApplicationArguments());
+
+        InOrder order = inOrder(buckets, branchRepository, holidayCalendarIndex);
+        order.verify(buckets).copyFromEmbedded(first);
+        order.verify(branchRepository).clearEmbeddedHolidays(first);
+        order.verify(buckets).copyFromEmbedded(second);
+        order.verify(branchRepository).clearEmbeddedHolidays(second);
+        order.verify(holidayCalendarIndex).reload();
+        verify(migrationLock).release("holidayBucketMigration");
+    }
+
+    @Test
+    void migrationRunningOnAnotherReplicaIsSkipped() {
+        when(migrationLock.acquire(any(), any())).thenReturn(false);
+
+        migration.run(new DefaultApplicationArguments());
+
+        verify(branchRepository, never()).findWithEmbeddedHolidays(any(), anyInt());
+        verify(migrationLock, never()).release(any());
+    }
+
+    @Test
+    void branchesLeftByTheClearAreCopiedAgainOnTheNextRun() {
+        Branch changed = branch("b2");
+        when(branchRepository.findWithEmbeddedHolidays(null, 2))
+                .thenReturn(List.of(branch("a1"), changed))
+                .thenReturn(List.of(changed));
+        when(branchRepository.findWithEmbeddedHolidays("b2", 2)).thenReturn(List.of());
+        // La lista de b2 cambió entre la copia y el borrado
+        when(branchRepository.clearEmbeddedHolidays(any())).thenReturn(1L, 1L);
+
+        migration.run(new DefaultApplicationArguments());
+        migration.run(new DefaultApplicationArguments());
+
+        verify(buckets).copyFromEmbedded(List.of(changed));
+        verify(branchRepository).clearEmbeddedHolidays(List.of(changed));
+    }
+
+    @Test
+    void embeddedStorageIsNotMigrated() {
+        migration = new HolidayBucketMigration(branchRepository, mock(BranchHolidayStore.class), holidayCalendarIndex,
+                branchProperties, migrationLock);
+
+        migration.run(new DefaultApplicationArguments());
+
+        verify(branchRepository, never()).findWithEmbeddedHolidays(any(), anyInt());
+        verify(holidayCalendarIndex, never()).reload();
+    }
+
+    private static Branch branch(String id) {
+        return Branch.builder()
+                .id(id)
+                .branchHolidays(List.of(new BranchHoliday(LocalDate.of(2025, 1, 1), "Año Nuevo")))
+                .build();
+    }
+}
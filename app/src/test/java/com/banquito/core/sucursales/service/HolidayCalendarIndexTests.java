@@ -0,0 +1,235 @@
+package com.banquito.core.sucursales.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.banquito.core.sucursales.model.HolidayCalendar;
+import com.banquito.core.sucursales.repository.BranchHolidayStore;
+import com.banquito.core.sucursales.repository.HolidayCalendarRepository;
+
+@ExtendWith(MockitoExtension.class)
+class HolidayCalendarIndexTests {
+
+    private static final String BRANCH_ID = "64b000000000000000000001";
+    private static final LocalDate NEW_YEAR = LocalDate.of(2025, 1, 1);
+    private static final LocalDate CARNIVAL = LocalDate.of(2025, 3, 3);
+    private static final LocalDate NATIONAL_DAY = LocalDate.of(2025, 8, 10);
+
+    @Mock
+    private BranchHolidayStore branchHolidayStore;
+
+    @Mock
+    private HolidayCalendarRepository holidayCalendarRepository;
+
+    private HolidayCalendarIndex index;
+
+    @BeforeEach
+    void setUp() {
+        HolidayCalendar national = HolidayCalendar.builder()
+                .id("national")
+                .code("EC")
+                .holidays(new ArrayList<>(List.of(holiday(NATIONAL_DAY))))
+                .version(1L)
+                .build();
+        lenient().when(holidayCalendarRepository.findAll()).thenReturn(List.of(national));
+        index = new HolidayCalendarIndex(branchHolidayStore, new HolidayCalendarRegistry(holidayCalendarRepository));
+    }
+
+    @Test
+    void missReturnsNullUntilTheBranchIsLoaded() {
+        assertThat(index.get(BRANCH_ID)).isNull();
+
+        BranchCalendar loaded = index.put(branch(NEW_YEAR), index.stamp());
+
+        assertThat(loaded.contains(NEW_YEAR)).isTrue();
+        assertThat(index.get(BRANCH_ID).contains(NEW_YEAR)).isTrue();
+        assertThat(index.stats()).containsEntry("hits", 1L).containsEntry("misses", 1L);
+    }
+
+    @Test
+    void effectiveCalendarIncludesSharedCalendars() {
+        Branch branch = branch(NEW_YEAR);
+        branch.setCalendarIds(List.of("national"));
+
+        index.put(branch, index.stamp());
+
+        assertThat(index.get(BRANCH_ID).contains(NATIONAL_DAY)).isTrue();
+        assertThat(index.get(BRANCH_ID).contains(CARNIVAL)).isFalse();
+    }
+
+    @Test
+    void reloadIndexesEveryBranch() {
+        when(branchHolidayStore.streamHolidayDates()).thenReturn(Stream.of(branch(NEW_YEAR)));
+
+        index.reload();
+
+        assertThat(index.get(BRANCH_ID).contains(NEW_YEAR)).isTrue();
+        assertThat(index.stats()).containsEntry("branches", 1).containsKey("lastReload");
+    }
+
+    @Test
+    void reloadDoesNotOverwriteBranchesChangedWhileItRuns() {
+        index.put(branch(NEW_YEAR), index.stamp());
+        // El alta llega mientras la recarga recorre el cursor, que ya leyó la sucursal sin el feriado
+        when(branchHolidayStore.streamHolidayDates()).thenReturn(Stream.of(branch(NEW_YEAR))
+                .peek(branch -> index.addHoliday(BRANCH_ID, CARNIVAL)));
+
+        index.reload();
+
+        assertThat(index.get(BRANCH_ID).contains(CARNIVAL)).isTrue();
+    }
+
+    @Test
+    void failedReloadKeepsIndexedBranches() {
+        index.put(branch(NEW_YEAR), index.stamp());
+        when(branchHolidayStore.streamHolidayDates()).thenThrow(new DataAccessResourceFailureException("down"));
+
+        index.reload();
+
+        assertThat(index.get(BRANCH_ID).contains(NEW_YEAR)).isTrue();
+    }
+
+    @Test
+    void loadOlderThanAConcurrentChangeIsNotIndexed() {
+        long stamp = index.stamp();
+        // addHoliday sobre una sucursal fuera del índice mientras otra petición la lee de MongoDB
+        index.addHoliday(BRANCH_ID, CARNIVAL);
+
+        BranchCalendar loaded = index.put(branch(NEW_YEAR), stamp);
+
+        assertThat(loaded.contains(NEW_YEAR)).isTrue();
+        assertThat(index.get(BRANCH_ID)).isNull();
+        assertThat(index.put(branch(NEW_YEAR, CARNIVAL), index.stamp()).contains(CARNIVAL)).isTrue();
+        assertThat(index.get(BRANCH_ID).contains(CARNIVAL)).isTrue();
+    }
+
+    @Test
+    void loadOlderThanAnEvictionIsNotIndexed() {
+        long stamp = index.stamp();
+        index.evict(BRANCH_ID);
+
+        index.put(branch(NEW_YEAR), stamp);
+
+        assertThat(index.get(BRANCH_ID)).isNull();
+    }
+
+    @Test
+    void changesApplyToIndexedBranches() {
+        index.put(branch(NEW_YEAR), index.stamp());
+
+        index.addHoliday(BRANCH_ID, CARNIVAL);
+        index.removeHoliday(BRANCH_ID, NEW_YEAR);
+        index.setCalendarIds(BRANCH_ID, List.of("national"), 3L);
+
+        BranchCalendar calendar = index.get(BRANCH_ID);
+        assertThat(calendar.contains(CARNIVAL)).isTrue();
+        assertThat(calendar.contains(NEW_YEAR)).isFalse();
+        assertThat(calendar.contains(NATIONAL_DAY)).isTrue();
+    }
+
+    @Test
+    void eventsOfChangesAlreadyAppliedKeepTheBranchIndexed() {
+        index.put(branch(NEW_YEAR), index.stamp());
+        index.addHoliday(BRANCH_ID, CARNIVAL);
+        index.addHolidays(BRANCH_ID, List.of(NATIONAL_DAY, LocalDate.of(2025, 5, 24)));
+
+        index.onChange(BRANCH_ID, 1L, true);
+        index.onChange(BRANCH_ID, 2L, true);
+
+        assertThat(index.get(BRANCH_ID).contains(NATIONAL_DAY)).isTrue();
+    }
+
+    @Test
+    void otherFieldsOnlyAdvanceTheIndexedVersion() {
+        index.put(branch(NEW_YEAR), index.stamp());
+
+        // Cambio de teléfono (versión 1) y luego un feriado de otra réplica (versión 2)
+        index.onChange(BRANCH_ID, 1L, false);
+        assertThat(index.get(BRANCH_ID)).isNotNull();
+        index.onChange(BRANCH_ID, 2L, true);
+
+        assertThat(index.get(BRANCH_ID)).isNull();
+    }
+
+    @Test
+    void newerHolidayChangesAndChangesWithoutVersionEvict() {
+        index.put(branch(NEW_YEAR), index.stamp());
+        index.onChange(BRANCH_ID, 1L, true);
+        assertThat(index.get(BRANCH_ID)).isNull();
+
+        index.put(branch(NEW_YEAR), index.stamp());
+        index.onChange(BRANCH_ID, null, true);
+        assertThat(index.get(BRANCH_ID)).isNull();
+    }
+
+    @Test
+    void holidayChangeOfABranchOutsideTheIndexDiscardsConcurrentLoads() {
+        long stamp = index.stamp();
+        index.onChange(BRANCH_ID, 4L, true);
+
+        index.put(branch(NEW_YEAR), stamp);
+
+        assertThat(index.get(BRANCH_ID)).isNull();
+    }
+
+    @Test
+    void evictedBranchRemainsAvailableAsLastKnownGood() {
+        index.put(branch(NEW_YEAR), index.stamp());
+
+        index.evict(BRANCH_ID);
+
+        assertThat(index.get(BRANCH_ID)).isNull();
+        assertThat(index.getLastKnownGood(BRANCH_ID).contains(NEW_YEAR)).isTrue();
+        assertThat(index.stats()).containsEntry("lastKnownGood", 1);
+
+        index.put(branch(CARNIVAL), index.stamp());
+
+        assertThat(index.stats()).containsEntry("lastKnownGood", 0);
+        assertThat(index.getLastKnownGood(BRANCH_ID).contains(CARNIVAL)).isTrue();
+    }
+
+    @Test
+    void clearDiscardsEveryBranchAndLoadsInProgress() {
+        index.put(branch(NEW_YEAR), index.stamp());
+        long stamp = index.stamp();
+
+        index.clear();
+        index.put(Branch.builder().id("64b000000000000000000002").version(0L).build(), stamp);
+
+        assertThat(index.get(BRANCH_ID)).isNull();
+        assertThat(index.get("64b000000000000000000002")).isNull();
+        assertThat(index.getLastKnownGood(BRANCH_ID).contains(NEW_YEAR)).isTrue();
+    }
+
+    @Test
+    void lastKnownGoodIsNullForUnknownBranches() {
+        assertThat(index.getLastKnownGood(BRANCH_ID)).isNull();
+    }
+
+    private static Branch branch(LocalDate... dates) {
+        List<BranchHoliday> holidays = new ArrayList<>();
+        for (LocalDate date : dates) {
+            holidays.add(holiday(date));
+        }
+        return Branch.builder().id(BRANCH_ID).branchHolidays(holidays).version(0L).build();
+    }
+
+    private static BranchHoliday holiday(LocalDate date) {
+        return BranchHoliday.builder().date(date).name("Holiday " + date).build();
+    }
+}
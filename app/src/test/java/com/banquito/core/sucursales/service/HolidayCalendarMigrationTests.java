@@ -0,0 +1,227 @@
+package com.banquito.core.sucursales.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import com.banquito.core.sucursales.config.BranchProperties;
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.banquito.core.sucursales.model.HolidayCalendar;
+import com.banquito.core.sucursales.repository.BranchRepository;
+import com.banquito.core.sucursales.repository.HolidayCalendarRepository;
+import com.banquito.core.sucursales.repository.MigrationLock;
+
+@ExtendWith(MockitoExtension.class)
+class HolidayCalendarMigrationTests {
+
+    private static final BranchHoliday NEW_YEAR = new BranchHoliday(LocalDate.of(2025, 1, 1), "Año Nuevo");
+    private static final BranchHoliday CARNIVAL = new BranchHoliday(LocalDate.of(2025, 3, 3), "Carnaval");
+    private static final BranchHoliday QUITO = new BranchHoliday(LocalDate.of(2025, 12, 6), "Fundación de Quito");
+    private static final BranchHoliday CUENCA = new BranchHoliday(LocalDate.of(2025, 11, 3), "Independencia de Cuenca");
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @Mock
+    private HolidayCalendarRepository holidayCalendarRepository;
+
+    @Mock
+    private HolidayCalendarRegistry holidayCalendarRegistry;
+
+    @Mock
+    private HolidayCalendarIndex holidayCalendarIndex;
+
+    @Mock
+    private MigrationLock migrationLock;
+
+    private final BranchProperties branchProperties = new BranchProperties();
+    // Contenido de las colecciones: las sucursales de conflicting cambian entre la lectura y la escritura
+    private final Map<String, Branch> stored = new HashMap<>();
+    private final List<HolidayCalendar> calendars = new ArrayList<>();
+    private final Set<String> conflicting = new HashSet<>();
+    private HolidayCalendarMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        store(branch("a1", NEW_YEAR, CARNIVAL, QUITO));
+        store(branch("b2", NEW_YEAR, CARNIVAL));
+        store(branch("c3", NEW_YEAR, CUENCA));
+        lenient().when(branchRepository.findAll()).thenAnswer(invocation -> stored.values().stream()
+                .sorted((a, b) -> a.getId().compareTo(b.getId()))
+                .map(HolidayCalendarMigrationTests::copy)
+                .toList());
+        lenient().when(holidayCalendarRepository.findAll()).thenAnswer(invocation -> List.copyOf(calendars));
+        lenient().when(holidayCalendarRepository.insert(any(HolidayCalendar.class))).thenAnswer(invocation -> {
+            HolidayCalendar calendar = invocation.getArgument(0);
+            calendar.setId("calendar-" + (calendars.size() + 1));
+            calendars.add(calendar);
+            return calendar;
+        });
+        lenient().when(branchRepository.updateHolidayLayout(any())).thenAnswer(invocation -> {
+            long updated = 0;
+            for (Branch branch : invocation.<List<Branch>>getArgument(0)) {
+                Branch current = stored.get(branch.getId());
+                if (!conflicting.contains(branch.getId()) && current.getVersion().equals(branch.getVersion())) {
+                    Branch saved = copy(branch);
+                    saved.setVersion(branch.getVersion() + 1);
+                    store(saved);
+                    updated++;
+                }
+            }
+            return updated;
+        });
+        lenient().when(migrationLock.acquire(any(), any())).thenReturn(true);
+        migration = new HolidayCalendarMigration(branchRepository, holidayCalendarRepository,
+                holidayCalendarRegistry, holidayCalendarIndex, branchProperties, migrationLock);
+    }
+
+    @Test
+    void repeatedHolidaysMoveToNationalAndRegionalCalendars() {
+        Map<String, Set<BranchHoliday>> before = effectiveHolidays();
+
+        run();
+
+        assertThat(calendars).extracting(HolidayCalendar::getType).containsExactly("NATIONAL", "REGIONAL");
+        assertThat(calendars.get(0).getHolidays()).containsExactly(NEW_YEAR);
+        assertThat(calendars.get(1).getHolidays()).containsExactly(CARNIVAL);
+        assertThat(stored.get("a1").getBranchHolidays()).containsExactly(QUITO);
+        assertThat(stored.get("a1").getCalendarIds()).containsExactly("calendar-1", "calendar-2");
+        assertThat(stored.get("b2").getBranchHolidays()).isEmpty();
+        assertThat(stored.get("c3").getBranchHolidays()).containsExactly(CUENCA);
+        assertThat(stored.get("c3").getCalendarIds()).containsExactly("calendar-1");
+        assertThat(effectiveHolidays()).isEqualTo(before);
+        verify(holidayCalendarRegistry, times(2)).put(any());
+        verify(holidayCalendarIndex).reload();
+    }
+
+    @Test
+    void rerunAfterACompleteMigrationChangesNothing() {
+        run();
+        Map<String, Branch> migrated = new HashMap<>(stored);
+
+        run();
+
+        assertThat(calendars).hasSize(2);
+        assertThat(stored).isEqualTo(migrated);
+        verify(branchRepository, times(1)).updateHolidayLayout(any());
+    }
+
+    @Test
+    void branchChangedDuringTheMigrationIsLinkedOnTheNextRun() {
+        Map<String, Set<BranchHoliday>> before = effectiveHolidays();
+        conflicting.add("c3");
+
+        run();
+
+        assertThat(stored.get("c3").getBranchHolidays()).containsExactly(NEW_YEAR, CUENCA);
+        assertThat(stored.get("c3").getCalendarIds()).isNull();
+        assertThat(stored.get("a1").getBranchHolidays()).containsExactly(QUITO);
+        verify(holidayCalendarIndex).reload();
+
+        conflicting.clear();
+        run();
+
+        assertThat(calendars).hasSize(2);
+        assertThat(stored.get("c3").getBranchHolidays()).containsExactly(CUENCA);
+        assertThat(stored.get("c3").getCalendarIds()).containsExactly("calendar-1");
+        assertThat(effectiveHolidays()).isEqualTo(before);
+    }
+
+    @Test
+    void holidaysOfASingleBranchStayEmbedded() {
+        stored.clear();
+        store(branch("a1", QUITO));
+        store(branch("b2", CUENCA));
+
+        run();
+
+        assertThat(calendars).isEmpty();
+        verify(branchRepository, never()).updateHolidayLayout(any());
+        verify(holidayCalendarIndex, never()).reload();
+    }
+
+    @Test
+    void migrationRunningOnAnotherReplicaIsSkipped() {
+        lenient().when(migrationLock.acquire(any(), any())).thenReturn(false);
+
+        run();
+
+        assertThat(calendars).isEmpty();
+        verify(branchRepository, never()).findAll();
+        verify(migrationLock, never()).release(any());
+    }
+
+    @Test
+    void lockIsReleasedWhenTheMigrationFails() {
+        lenient().when(holidayCalendarRepository.findAll()).thenThrow(new IllegalStateException("down"));
+
+        assertThatThrownBy(this::run).isInstanceOf(IllegalStateException.class);
+
+        verify(migrationLock).release("holidayCalendarMigration");
+    }
+
+    @Test
+    void bucketedStorageIsNotMigrated() {
+        branchProperties.getHolidayStorage().setMode(BranchProperties.HolidayStorageMode.BUCKETED);
+
+        run();
+
+        verify(branchRepository, never()).findAll();
+        assertThat(calendars).isEmpty();
+    }
+
+    private void run() {
+        migration.run(new DefaultApplicationArguments());
+    }
+
+    private Map<String, Set<BranchHoliday>> effectiveHolidays() {
+        Map<String, Set<BranchHoliday>> effective = new HashMap<>();
+        stored.values().forEach(branch -> {
+            Set<BranchHoliday> holidays = new HashSet<>(branch.getBranchHolidays());
+            if (branch.getCalendarIds() != null) {
+                calendars.stream()
+                        .filter(calendar -> branch.getCalendarIds().contains(calendar.getId()))
+                        .forEach(calendar -> holidays.addAll(calendar.getHolidays()));
+            }
+            effective.put(branch.getId(), holidays);
+        });
+        return effective;
+    }
+
+    private void store(Branch branch) {
+        stored.put(branch.getId(), branch);
+    }
+
+    private static Branch branch(String id, BranchHoliday... holidays) {
+        return Branch.builder().id(id).branchHolidays(List.of(holidays)).version(1L).build();
+    }
+
+    private static Branch copy(Branch branch) {
+        return Branch.builder()
+                .id(branch.getId())
+                .branchHolidays(new ArrayList<>(branch.getBranchHolidays()))
+                .calendarIds(branch.getCalendarIds() == null ? null : new ArrayList<>(branch.getCalendarIds()))
+                .version(branch.getVersion())
+                .build();
+    }
+}
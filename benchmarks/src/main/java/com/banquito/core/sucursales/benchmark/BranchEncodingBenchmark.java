@@ -0,0 +1,85 @@
+package com.banquito.core.sucursales.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.banquito.core.sucursales.config.BinaryContentConfig;
+import com.banquito.core.sucursales.config.BranchProperties.DateEncoding;
+import com.banquito.core.sucursales.dto.BranchHolidayDTO;
+import com.banquito.core.sucursales.dto.BranchResponseDTO;
+import com.banquito.core.sucursales.mapper.BranchMapperImpl;
+
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * JSON frente a CBOR y Smile, con fechas ISO o epoch (BinaryContentConfig): CPU de serializar el listado de
+ * GET /branches con feriados y de decodificar una lista de feriados del lado del cliente. Imprime los bytes
+ * de cada cuerpo, que es lo que viaja por la red sin compresión.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BranchEncodingBenchmark {
+
+    private static final TypeReference<List<BranchHolidayDTO>> HOLIDAY_LIST = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor-iso", "cbor-epoch", "smile-iso", "smile-epoch"})
+    private String format;
+
+    @Param({"10", "1000"})
+    private int branches;
+
+    @Param({"0", "50"})
+    private int holidays;
+
+    private ObjectMapper mapper;
+    private List<BranchResponseDTO> items;
+    private byte[] encodedHolidays;
+
+    @Setup
+    public void setUp() {
+        mapper = switch (format) {
+            case "json" -> JsonMapper.builder().build();
+            case "cbor-iso" -> BinaryContentConfig.cborMapper(DateEncoding.ISO);
+            case "cbor-epoch" -> BinaryContentConfig.cborMapper(DateEncoding.EPOCH);
+            case "smile-iso" -> BinaryContentConfig.smileMapper(DateEncoding.ISO);
+            case "smile-epoch" -> BinaryContentConfig.smileMapper(DateEncoding.EPOCH);
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        BranchMapperImpl branchMapper = new BranchMapperImpl();
+        items = BranchFixtures.branches(new Random(42), branches, holidays).stream().map(branchMapper::toResponseDTO).toList();
+        List<BranchHolidayDTO> allHolidays = items.stream().flatMap(item -> item.getBranchHolidays().stream()).toList();
+        encodedHolidays = mapper.writeValueAsBytes(allHolidays);
+        System.out.printf("%n%s branches=%d holidays=%d: branch list %d bytes, holiday list %d bytes%n",
+                format, branches, holidays, mapper.writeValueAsBytes(items).length, encodedHolidays.length);
+    }
+
+    @Benchmark
+    public byte[] writeBranches() {
+        return mapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public List<BranchHolidayDTO> readHolidays() {
+        return mapper.readValue(encodedHolidays, HOLIDAY_LIST);
+    }
+}
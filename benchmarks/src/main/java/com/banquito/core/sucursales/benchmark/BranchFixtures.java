@@ -0,0 +1,71 @@
+package com.banquito.core.sucursales.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.bson.types.ObjectId;
+
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchHoliday;
+
+/**
+ * Datos generados con semilla fija para que las corridas sean comparables: nombres, correos y teléfonos
+ * con el largo de los reales, y feriados en fechas distintas y ordenadas a partir del año 2000, como
+ * quedan en el documento tras años de altas.
+ */
+final class BranchFixtures {
+
+    private static final String[] CITIES = {
+        "Quito", "Guayaquil", "Cuenca", "Ambato", "Manta", "Loja", "Riobamba", "Ibarra", "Machala", "Portoviejo"
+    };
+    private static final String[] HOLIDAY_NAMES = {
+        "Año Nuevo", "Carnaval", "Viernes Santo", "Día del Trabajo", "Batalla de Pichincha", "Primer Grito de Independencia",
+        "Independencia de Guayaquil", "Día de los Difuntos", "Independencia de Cuenca", "Navidad", "Fundación de la ciudad"
+    };
+    private static final LocalDate FIRST_HOLIDAY = LocalDate.of(2000, 1, 1);
+
+    private BranchFixtures() {
+    }
+
+    static Branch branch(Random random, int holidays) {
+        String city = CITIES[random.nextInt(CITIES.length)];
+        int number = random.nextInt(1000);
+        LocalDateTime created = LocalDateTime.of(2015, 1, 1, 8, 0).plusMinutes(random.nextInt(5_000_000));
+        return Branch.builder()
+                .id(new ObjectId().toHexString())
+                .emailAddress("sucursal." + city.toLowerCase() + number + "@banquito.com")
+                .name("Sucursal " + city + " " + number)
+                .phoneNumber("0" + (2 + random.nextInt(8)) + String.format("%07d", random.nextInt(10_000_000)))
+                .state("ACTIVE")
+                .creationDate(created)
+                .lastModifiedDate(created.plusDays(random.nextInt(3000)))
+                .calendarIds(random.nextBoolean() ? List.of(new ObjectId().toHexString()) : null)
+                .version((long) random.nextInt(50))
+                .branchHolidays(holidays(random, holidays))
+                .build();
+    }
+
+    static List<Branch> branches(Random random, int count, int holidays) {
+        List<Branch> branches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            branches.add(branch(random, holidays));
+        }
+        return branches;
+    }
+
+    /**
+     * count feriados en fechas distintas y crecientes; con separación media de 4 días, 5.000 feriados cubren ~55 años.
+     */
+    static List<BranchHoliday> holidays(Random random, int count) {
+        List<BranchHoliday> holidays = new ArrayList<>(count);
+        LocalDate date = FIRST_HOLIDAY;
+        for (int i = 0; i < count; i++) {
+            date = date.plusDays(1 + random.nextInt(7));
+            holidays.add(new BranchHoliday(date, HOLIDAY_NAMES[random.nextInt(HOLIDAY_NAMES.length)]));
+        }
+        return holidays;
+    }
+}
@@ -0,0 +1,71 @@
+package com.banquito.core.sucursales.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.banquito.core.sucursales.dto.BranchResponseDTO;
+import com.banquito.core.sucursales.mapper.BranchMapperImpl;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Serialización JSON de listas de BranchResponseDTO: el arreglo completo de GET /branches frente a una
+ * línea por sucursal del streaming NDJSON. Imprime el tamaño del cuerpo de cada combinación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BranchJsonBenchmark {
+
+    @Param({"10", "1000"})
+    private int branches;
+
+    @Param({"0", "50"})
+    private int holidays;
+
+    private JsonMapper jsonMapper;
+    private List<BranchResponseDTO> items;
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        BranchMapperImpl mapper = new BranchMapperImpl();
+        items = BranchFixtures.branches(new Random(42), branches, holidays).stream().map(mapper::toResponseDTO).toList();
+        out = new ByteArrayOutputStream(1 << 20);
+        System.out.printf("%nbranches=%d holidays=%d: JSON array %d bytes%n",
+                branches, holidays, jsonMapper.writeValueAsBytes(items).length);
+    }
+
+    @Benchmark
+    public byte[] writeArray() {
+        return jsonMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public int writeNdjson() {
+        out.reset();
+        for (BranchResponseDTO item : items) {
+            out.writeBytes(jsonMapper.writeValueAsBytes(item));
+            out.write('\n');
+        }
+        return out.size();
+    }
+}
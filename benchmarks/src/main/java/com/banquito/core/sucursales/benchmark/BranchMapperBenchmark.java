@@ -0,0 +1,57 @@
+package com.banquito.core.sucursales.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.banquito.core.sucursales.dto.BranchResponseDTO;
+import com.banquito.core.sucursales.dto.BranchSummaryDTO;
+import com.banquito.core.sucursales.mapper.BranchMapper;
+import com.banquito.core.sucursales.mapper.BranchMapperImpl;
+import com.banquito.core.sucursales.model.Branch;
+
+/**
+ * Costo del mapeo entidad a DTO según la cantidad de feriados embebidos: toResponseDTO copia la lista
+ * completa, toSummaryDTO (usado por /closed) no la toca.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BranchMapperBenchmark {
+
+    @Param({"0", "50", "5000"})
+    private int holidays;
+
+    private BranchMapper mapper;
+    private Branch branch;
+
+    @Setup
+    public void setUp() {
+        mapper = new BranchMapperImpl();
+        branch = BranchFixtures.branch(new Random(42), holidays);
+    }
+
+    @Benchmark
+    public BranchResponseDTO toResponseDTO() {
+        return mapper.toResponseDTO(branch);
+    }
+
+    @Benchmark
+    public BranchSummaryDTO toSummaryDTO() {
+        return mapper.toSummaryDTO(branch);
+    }
+}
@@ -0,0 +1,107 @@
+package com.banquito.core.sucursales.benchmark;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.banquito.core.sucursales.config.BranchProperties;
+import com.banquito.core.sucursales.service.BranchCalendar;
+import com.banquito.core.sucursales.service.BusinessDayCalculator;
+
+/**
+ * Compara el motor de días hábiles contra el recorrido día por día que hacían los clientes,
+ * sobre calendarios de 30 años con ~12 feriados por año.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BusinessDayBenchmark {
+
+    private static final LocalDate START = LocalDate.of(2000, 1, 1);
+
+    @Param({"1", "5", "10"})
+    private int spanYears;
+
+    private BusinessDayCalculator calculator;
+    private BranchCalendar calendar;
+    private Set<LocalDate> holidays;
+    private LocalDate from;
+    private LocalDate to;
+    private int businessDays;
+
+    @Setup
+    public void setUp() {
+        calculator = new BusinessDayCalculator(new BranchProperties());
+        Random random = new Random(42);
+        List<LocalDate> dates = new ArrayList<>();
+        for (int year = 2000; year < 2030; year++) {
+            for (int i = 0; i < 12; i++) {
+                dates.add(LocalDate.of(year, 1, 1).plusDays(random.nextInt(365)));
+            }
+        }
+        calendar = BranchCalendar.of(dates);
+        holidays = new HashSet<>(dates);
+        from = START.plusYears(10);
+        to = from.plusYears(spanYears);
+        businessDays = spanYears * 250;
+    }
+
+    @Benchmark
+    public long businessDaysBetween() {
+        return calculator.businessDaysBetween(calendar, from, to);
+    }
+
+    @Benchmark
+    public LocalDate addBusinessDays() {
+        return calculator.addBusinessDays(calendar, from, businessDays);
+    }
+
+    @Benchmark
+    public long businessDaysBetweenDayByDay() {
+        long count = 0;
+        for (LocalDate date = from.plusDays(1); !date.isAfter(to); date = date.plusDays(1)) {
+            if (isBusinessDay(date)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public LocalDate addBusinessDaysDayByDay() {
+        LocalDate date = from;
+        int remaining = businessDays;
+        while (remaining > 0) {
+            date = date.plusDays(1);
+            if (isBusinessDay(date)) {
+                remaining--;
+            }
+        }
+        return date;
+    }
+
+    private boolean isBusinessDay(LocalDate date) {
+        DayOfWeek day = date.getDayOfWeek();
+        return day != DayOfWeek.SATURDAY && day != DayOfWeek.SUNDAY && !holidays.contains(date);
+    }
+}
@@ -0,0 +1,94 @@
+package com.banquito.core.sucursales.benchmark;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.banquito.core.sucursales.service.BranchCalendar;
+
+/**
+ * isHoliday y la verificación de duplicados de addHoliday: recorrido de la lista embebida (lo que hace
+ * cualquier lectura del documento, y lo que hacía el servicio antes del índice) frente al bitmap de
+ * BranchCalendar. Las fechas consultadas caen dentro del rango de feriados, la mitad son feriado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HolidayLookupBenchmark {
+
+    private static final int PROBES = 1024;
+
+    @Param({"50", "5000"})
+    private int holidays;
+
+    private List<BranchHoliday> branchHolidays;
+    private BranchCalendar calendar;
+    private LocalDate[] probes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        branchHolidays = BranchFixtures.holidays(random, holidays);
+        calendar = BranchCalendar.of(branchHolidays.stream().map(BranchHoliday::getDate).toList());
+        LocalDate first = branchHolidays.get(0).getDate();
+        long span = ChronoUnit.DAYS.between(first, branchHolidays.get(branchHolidays.size() - 1).getDate()) + 1;
+        probes = new LocalDate[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probes[i] = i % 2 == 0
+                    ? branchHolidays.get(random.nextInt(branchHolidays.size())).getDate()
+                    : first.plusDays(random.nextLong(span));
+        }
+    }
+
+    @Benchmark
+    public boolean isHolidayListScan() {
+        LocalDate date = nextProbe();
+        return branchHolidays.stream().anyMatch(holiday -> holiday.getDate().equals(date));
+    }
+
+    @Benchmark
+    public boolean isHolidayCalendar() {
+        return calendar.contains(nextProbe());
+    }
+
+    @Benchmark
+    public boolean addHolidayDuplicateScan() {
+        LocalDate date = nextProbe();
+        for (BranchHoliday holiday : branchHolidays) {
+            if (holiday.getDate().equals(date)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Benchmark
+    public BranchCalendar addHolidayCalendar() {
+        // Copia con la fecha agregada, como HolidayCalendarIndex.addHoliday tras un alta
+        return calendar.with(nextProbe());
+    }
+
+    private LocalDate nextProbe() {
+        next = (next + 1) & (PROBES - 1);
+        return probes[next];
+    }
+}
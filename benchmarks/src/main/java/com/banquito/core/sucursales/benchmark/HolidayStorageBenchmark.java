@@ -0,0 +1,144 @@
+package com.banquito.core.sucursales.benchmark;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.banquito.core.sucursales.model.BranchHolidayBucket;
+
+/**
+ * Compara el documento de sucursal con los feriados embebidos contra el modo BUCKETED (sucursal sin
+ * feriados más un bucket por año). Mide la lectura del lado del cliente (BSON a entidad, con el
+ * mismo convertidor que usa la aplicación) e imprime el tamaño de cada documento, que es lo que el
+ * servidor lee y envía por la red en cada findById.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HolidayStorageBenchmark {
+
+    private static final int FIRST_YEAR = 2000;
+    private static final DocumentCodec CODEC = new DocumentCodec();
+
+    @Param({"1", "10", "30"})
+    private int years;
+
+    private MappingMongoConverter converter;
+    private byte[] embeddedBranch;
+    private byte[] bucketedBranch;
+    private byte[] bucket;
+    private LocalDate probe;
+
+    @Setup
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        Random random = new Random(42);
+        List<BranchHoliday> holidays = new ArrayList<>();
+        for (int year = FIRST_YEAR; year < FIRST_YEAR + years; year++) {
+            for (int i = 0; i < 12; i++) {
+                LocalDate date = LocalDate.of(year, 1, 1).plusDays(random.nextInt(365));
+                holidays.add(new BranchHoliday(date, "Feriado " + date));
+            }
+        }
+        int lastYear = FIRST_YEAR + years - 1;
+        List<BranchHoliday> lastYearHolidays = holidays.stream().filter(holiday -> holiday.getDate().getYear() == lastYear).toList();
+        probe = lastYearHolidays.get(lastYearHolidays.size() - 1).getDate();
+
+        Branch branch = Branch.builder()
+                .id(new ObjectId().toHexString())
+                .emailAddress("sucursal.centro@banquito.com")
+                .name("Sucursal Centro")
+                .phoneNumber("022345678")
+                .state("ACTIVE")
+                .creationDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .calendarIds(List.of(new ObjectId().toHexString()))
+                .version(7L)
+                .branchHolidays(holidays)
+                .build();
+        embeddedBranch = encode(branch);
+        branch.setBranchHolidays(null);
+        bucketedBranch = encode(branch);
+        bucket = encode(BranchHolidayBucket.builder()
+                .id(new ObjectId().toHexString())
+                .branchId(branch.getId())
+                .year(lastYear)
+                .holidays(lastYearHolidays)
+                .build());
+        System.out.printf("%nyears=%d: embedded branch %d bytes, bucketed branch %d bytes, one bucket %d bytes%n",
+                years, embeddedBranch.length, bucketedBranch.length, bucket.length);
+    }
+
+    @Benchmark
+    public Branch findByIdEmbedded() {
+        return converter.read(Branch.class, decode(embeddedBranch));
+    }
+
+    @Benchmark
+    public Branch findByIdBucketed() {
+        return converter.read(Branch.class, decode(bucketedBranch));
+    }
+
+    @Benchmark
+    public boolean isHolidayEmbedded() {
+        return findByIdEmbedded().getBranchHolidays().stream().anyMatch(holiday -> holiday.getDate().equals(probe));
+    }
+
+    @Benchmark
+    public boolean isHolidayBucketed() {
+        return converter.read(BranchHolidayBucket.class, decode(bucket)).getHolidays().stream()
+                .anyMatch(holiday -> holiday.getDate().equals(probe));
+    }
+
+    private byte[] encode(Object entity) {
+        Document document = new Document();
+        converter.write(entity, document);
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        CODEC.encode(new BsonBinaryWriter(buffer), document, EncoderContext.builder().build());
+        return buffer.toByteArray();
+    }
+
+    private static Document decode(byte[] bytes) {
+        return CODEC.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), DecoderContext.builder().build());
+    }
+}
@@ -0,0 +1,149 @@
+package com.banquito.core.sucursales.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generador de carga de lazo cerrado contra una instancia en ejecución: N usuarios concurrentes
+ * repiten una mezcla de lecturas (detalle de sucursal, isHoliday, feriados) durante el tiempo indicado.
+ * Sirve para comparar el perfil virtual-threads contra los hilos de plataforma de Tomcat.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.banquito.core.sucursales.benchmark.LoadDriver \
+ *     --url=http://localhost:8080 --concurrency=400 --duration=PT30S --warmup=PT10S
+ * </pre>
+ */
+public class LoadDriver {
+
+    private static final Pattern ID = Pattern.compile("\"id\":\"([0-9a-f]{24})\"");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        Duration duration = Duration.parse(options.getOrDefault("duration", "PT30S"));
+        Duration warmup = Duration.parse(options.getOrDefault("warmup", "PT10S"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        List<String> branchIds = branchIds(client, url);
+        if (branchIds.isEmpty()) {
+            throw new IllegalStateException("No branches found at " + url + "; create some before running the load test");
+        }
+        System.out.printf("Load test against %s: %d branches, %d concurrent users, warmup %s, duration %s%n",
+                url, branchIds.size(), concurrency, warmup, duration);
+
+        run(client, url, branchIds, concurrency, warmup, false);
+        Result result = run(client, url, branchIds, concurrency, duration, true);
+        result.print(duration);
+    }
+
+    private static Result run(HttpClient client, String url, List<String> branchIds, int concurrency, Duration duration,
+            boolean record) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<long[]> samples = new ArrayList<>();
+        List<int[]> counts = new ArrayList<>();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                long[] latencies = new long[1 << 16];
+                int[] count = new int[1];
+                samples.add(latencies);
+                counts.add(count);
+                users.submit(() -> {
+                    long[] buffer = latencies;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        if (!call(client, next(url, branchIds))) {
+                            errors.incrementAndGet();
+                        }
+                        long elapsed = System.nanoTime() - start;
+                        if (record && count[0] < buffer.length) {
+                            buffer[count[0]++] = elapsed;
+                        }
+                    }
+                });
+            }
+        }
+        List<Long> all = new ArrayList<>();
+        for (int i = 0; i < samples.size(); i++) {
+            for (int j = 0; j < counts.get(i)[0]; j++) {
+                all.add(samples.get(i)[j]);
+            }
+        }
+        return new Result(all.stream().mapToLong(Long::longValue).sorted().toArray(), errors.get());
+    }
+
+    private static String next(String url, List<String> branchIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String branchId = branchIds.get(random.nextInt(branchIds.size()));
+        return switch (random.nextInt(3)) {
+            case 0 -> url + "/api/v1/branches/" + branchId;
+            case 1 -> url + "/api/v1/branches/" + branchId + "/isHoliday?date=" + LocalDate.of(2027, 1, 1).plusDays(random.nextInt(365));
+            default -> url + "/api/v1/branches/" + branchId + "/holidays";
+        };
+    }
+
+    private static boolean call(HttpClient client, String uri) {
+        try {
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(uri)).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() < 400;
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+
+    private static List<String> branchIds(HttpClient client, String url) throws Exception {
+        String body = client.send(HttpRequest.newBuilder(URI.create(url + "/api/v1/branches/page?size=1000&includeHolidays=false")).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        List<String> ids = new ArrayList<>();
+        Matcher matcher = ID.matcher(body);
+        while (matcher.find()) {
+            ids.add(matcher.group(1));
+        }
+        return ids;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        Arrays.stream(args)
+                .filter(arg -> arg.startsWith("--") && arg.contains("="))
+                .forEach(arg -> options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1)));
+        return options;
+    }
+
+    private record Result(long[] latencies, long errors) {
+
+        void print(Duration duration) {
+            System.out.printf("requests %d, errors %d, throughput %.0f req/s%n",
+                    latencies.length, errors, latencies.length / (duration.toMillis() / 1000.0));
+            if (latencies.length > 0) {
+                System.out.printf("latency ms: p50 %.2f, p90 %.2f, p99 %.2f, p99.9 %.2f, max %.2f%n",
+                        percentile(0.50), percentile(0.90), percentile(0.99), percentile(0.999),
+                        latencies[latencies.length - 1] / 1e6);
+            }
+        }
+
+        private double percentile(double quantile) {
+            return latencies[Math.min(latencies.length - 1, (int) Math.ceil(quantile * latencies.length) - 1)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.banquito.core.sucursales.benchmark;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Latencias de LoadSuite por operación: un Recorder de HdrHistogram por endpoint (escritura sin bloqueo desde
+ * todos los usuarios), el resumen en JSON con el histograma comprimido y la comparación contra una línea base.
+ */
+final class LoadReport {
+
+    static final String TOTAL = "TOTAL";
+
+    private static final long HIGHEST_TRACKABLE = TimeUnit.MINUTES.toNanos(1);
+    // Con menos muestras el p99 depende de una o dos peticiones y no sirve para detectar regresiones
+    private static final long MIN_SAMPLES = 200;
+
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final Map<String, String> firstErrors = new ConcurrentHashMap<>();
+
+    void record(String operation, long nanos) {
+        recorders.computeIfAbsent(operation, key -> new Recorder(HIGHEST_TRACKABLE, 3))
+                .recordValue(Math.min(nanos, HIGHEST_TRACKABLE));
+    }
+
+    void error(String operation, String detail) {
+        errors.computeIfAbsent(operation, key -> new LongAdder()).increment();
+        firstErrors.putIfAbsent(operation, detail);
+    }
+
+    /**
+     * Descarta lo registrado hasta ahora (fin del calentamiento).
+     */
+    void reset() {
+        recorders.values().forEach(Recorder::reset);
+        errors.clear();
+        firstErrors.clear();
+    }
+
+    Result snapshot(Map<String, String> config, Duration duration) {
+        double seconds = duration.toMillis() / 1000.0;
+        Map<String, Histogram> histograms = new TreeMap<>();
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+        errors.keySet().forEach(operation -> histograms.computeIfAbsent(operation, key -> new Histogram(HIGHEST_TRACKABLE, 3)));
+
+        Histogram total = new Histogram(HIGHEST_TRACKABLE, 3);
+        Map<String, Operation> operations = new LinkedHashMap<>();
+        histograms.forEach((operation, histogram) -> {
+            total.add(histogram);
+            operations.put(operation, Operation.of(histogram, errorCount(operation), seconds));
+        });
+        long totalErrors = errors.values().stream().mapToLong(LongAdder::sum).sum();
+        operations.put(TOTAL, Operation.of(total, totalErrors, seconds));
+        return new Result(config, operations, new TreeMap<>(firstErrors));
+    }
+
+    private long errorCount(String operation) {
+        LongAdder count = errors.get(operation);
+        return count == null ? 0 : count.sum();
+    }
+
+    static void print(Result result, PrintStream out) {
+        out.printf("%-26s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "Operation", "Requests", "Errors", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Max ms");
+        result.operations().forEach((name, operation) -> out.printf("%-26s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, operation.count(), operation.errors(), operation.throughput(),
+                operation.p50(), operation.p90(), operation.p99(), operation.p999(), operation.max()));
+        result.firstErrors().forEach((name, detail) -> out.printf("first error in %s: %s%n", name, detail));
+    }
+
+    static void write(JsonMapper jsonMapper, Result result, File file) {
+        jsonMapper.writerWithDefaultPrettyPrinter().writeValue(file, result);
+    }
+
+    static Result read(JsonMapper jsonMapper, File file) {
+        return jsonMapper.readValue(file, Result.class);
+    }
+
+    /**
+     * Compara el resultado con la línea base y devuelve true si alguna operación empeoró: p50 o p99 más de
+     * threshold (relativo) y más de floor (absoluto), throughput menor en más de threshold, o errores donde
+     * la línea base no los tenía.
+     */
+    static boolean compare(Result baseline, Result candidate, double threshold, Duration floor, PrintStream out) {
+        if (!baseline.config().equals(candidate.config())) {
+            out.printf("WARNING: baseline config %s differs from %s%n", baseline.config(), candidate.config());
+        }
+        double floorMillis = floor.toNanos() / 1e6;
+        boolean regressed = false;
+        out.printf("%-26s %21s %21s %21s  %s%n", "Operation", "p50 ms", "p99 ms", "Req/s", "Verdict");
+        for (Map.Entry<String, Operation> entry : candidate.operations().entrySet()) {
+            Operation now = entry.getValue();
+            Operation before = baseline.operations().get(entry.getKey());
+            if (before == null) {
+                out.printf("%-26s new%n", entry.getKey());
+                continue;
+            }
+            String verdict;
+            if (before.count() < MIN_SAMPLES || now.count() < MIN_SAMPLES) {
+                verdict = now.errors() > 0 && before.errors() == 0 ? "REGRESSION (errors)" : "too few samples";
+            } else if (now.errors() > 0 && before.errors() == 0) {
+                verdict = "REGRESSION (errors)";
+            } else if (slower(before.p50(), now.p50(), threshold, floorMillis)) {
+                verdict = "REGRESSION (p50)";
+            } else if (slower(before.p99(), now.p99(), threshold, floorMillis)) {
+                verdict = "REGRESSION (p99)";
+            } else if (now.throughput() < before.throughput() * (1 - threshold)) {
+                verdict = "REGRESSION (throughput)";
+            } else {
+                verdict = "ok";
+            }
+            regressed |= verdict.startsWith("REGRESSION");
+            out.printf("%-26s %9.2f -> %9.2f %9.2f -> %9.2f %9.1f -> %9.1f  %s%n", entry.getKey(),
+                    before.p50(), now.p50(), before.p99(), now.p99(), before.throughput(), now.throughput(), verdict);
+        }
+        baseline.operations().keySet().stream()
+                .filter(name -> !candidate.operations().containsKey(name))
+                .forEach(name -> out.printf("%-26s missing in candidate%n", name));
+        return regressed;
+    }
+
+    private static boolean slower(double before, double now, double threshold, double floorMillis) {
+        return now > before * (1 + threshold) && now - before > floorMillis;
+    }
+
+    /**
+     * config: parámetros de la corrida; sólo se comparan corridas con la misma configuración.
+     */
+    record Result(Map<String, String> config, Map<String, Operation> operations, Map<String, String> firstErrors) {
+    }
+
+    /**
+     * Latencias en milisegundos; histogram es el Histogram completo (nanosegundos) comprimido en Base64, se
+     * recupera con Histogram.decodeFromCompressedByteBuffer para otros percentiles o HistogramLogAnalyzer.
+     */
+    record Operation(long count, long errors, double throughput, double p50, double p90, double p99, double p999,
+            double max, String histogram) {
+
+        static Operation of(Histogram histogram, long errors, double seconds) {
+            ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+            int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+            return new Operation(
+                    histogram.getTotalCount(),
+                    errors,
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
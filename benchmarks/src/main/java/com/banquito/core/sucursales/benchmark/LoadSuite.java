@@ -0,0 +1,206 @@
+package com.banquito.core.sucursales.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.banquito.core.sucursales.CoreSucursalesApplication;
+import com.banquito.core.sucursales.config.BranchProperties;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.MongoVersion;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Suite de carga y regresión de latencia de punta a punta: levanta la aplicación en este mismo proceso contra
+ * un MongoDB en memoria (o uno local con --mongo=URI), siembra N sucursales × M feriados por la API y recorre
+ * todos los endpoints de BranchController con una mezcla de lecturas y escrituras (LoadWorkload). Guarda
+ * los histogramas por operación en JSON y, con --baseline, termina con código 1 si alguna operación empeoró
+ * más que --threshold respecto de esa corrida.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.banquito.core.sucursales.benchmark.LoadSuite \
+ *     --branches=10000 --holidays=30 --concurrency=32 --duration=PT60S --out=candidate.json --baseline=baseline.json
+ * </pre>
+ *
+ * Es carga de lazo cerrado: una pausa del servidor reduce las muestras en lugar de inflar los percentiles,
+ * así que los números sirven para comparar builds con la misma configuración, no como latencia de producción.
+ * Los argumentos que no son de la suite se pasan a la aplicación, por ejemplo
+ * --branch.holiday-storage.mode=bucketed o --spring.profiles.active=virtual-threads.
+ */
+public class LoadSuite {
+
+    private static final Set<String> OPTIONS = Set.of("mongo", "branches", "holidays", "concurrency", "warmup",
+            "duration", "writes", "seed", "out", "baseline", "threshold", "floor");
+    // El driver 5.x exige wire version 8 (MongoDB 4.2); mongo-java-server anuncia 4.0 por defecto
+    static final MongoVersion MONGO_4_2 = new MongoVersion() {
+        @Override
+        public List<Integer> getVersionArray() {
+            return List.of(4, 2, 0);
+        }
+
+        @Override
+        public int getWireVersion() {
+            return 8;
+        }
+    };
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (arg.startsWith("--") && equals > 2 && OPTIONS.contains(arg.substring(2, equals))) {
+                options.put(arg.substring(2, equals), arg.substring(equals + 1));
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+        String mongo = options.getOrDefault("mongo", "embedded");
+        int branches = Integer.parseInt(options.getOrDefault("branches", "10000"));
+        int holidays = Integer.parseInt(options.getOrDefault("holidays", "30"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "32"));
+        Duration warmup = Duration.parse(options.getOrDefault("warmup", "PT15S"));
+        Duration duration = Duration.parse(options.getOrDefault("duration", "PT60S"));
+        double writes = Double.parseDouble(options.getOrDefault("writes", "0.1"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        File out = new File(options.getOrDefault("out", "load-result.json"));
+        double threshold = Double.parseDouble(options.getOrDefault("threshold", "0.2"));
+        Duration floor = Duration.parse(options.getOrDefault("floor", "PT0.001S"));
+        if (writes < 0 || writes > 1) {
+            throw new IllegalArgumentException("--writes must be between 0 and 1");
+        }
+
+        Map<String, String> config = new LinkedHashMap<>();
+        config.put("mongo", "embedded".equals(mongo) ? "embedded" : "external");
+        config.put("branches", String.valueOf(branches));
+        config.put("holidays", String.valueOf(holidays));
+        config.put("concurrency", String.valueOf(concurrency));
+        config.put("duration", duration.toString());
+        config.put("writes", String.valueOf(writes));
+        config.put("applicationArgs", String.join(" ", applicationArgs));
+
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+        MongoServer mongoServer = null;
+        String uri = mongo;
+        if ("embedded".equals(mongo)) {
+            mongoServer = new MongoServer(new MemoryBackend().version(MONGO_4_2));
+            InetSocketAddress address = mongoServer.bind();
+            uri = "mongodb://" + address.getHostString() + ":" + address.getPort() + "/branch-load";
+            // El servidor en memoria no tiene change streams; con un solo nodo tampoco hay nada que invalidar
+            defaultArg(applicationArgs, "branch.change-stream.enabled", "false");
+        }
+        defaultArg(applicationArgs, "server.port", "0");
+        defaultArg(applicationArgs, "spring.mongodb.uri", uri);
+        // Un log INFO por petición en consola mide la terminal, no el servicio
+        defaultArg(applicationArgs, "logging.level.root", "WARN");
+        defaultArg(applicationArgs, "logging.level.com.banquito.core.sucursales", "WARN");
+
+        LoadReport.Result result;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CoreSucursalesApplication.class)
+                .run(applicationArgs.toArray(String[]::new))) {
+            String url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            int batchSize = context.getBean(BranchProperties.class).getBatchCreate().getMaxSize();
+
+            System.out.printf("Seeding %d branches x %d holidays at %s (%s)%n", branches, holidays, url, config.get("mongo"));
+            long seeding = System.nanoTime();
+            LoadWorkload workload = LoadWorkload.seed(client, url, jsonMapper, branches, holidays, batchSize, writes, seed);
+            System.out.printf("Seeded in %.1f s; warmup %s, duration %s, %d concurrent users, %.0f%% writes%n",
+                    (System.nanoTime() - seeding) / 1e9, warmup, duration, concurrency, writes * 100);
+
+            LoadReport report = new LoadReport();
+            drive(client, workload, report, concurrency, warmup);
+            report.reset();
+            drive(client, workload, report, concurrency, duration);
+            result = report.snapshot(config, duration);
+        } finally {
+            if (mongoServer != null) {
+                mongoServer.shutdownNow();
+            }
+        }
+
+        LoadReport.print(result, System.out);
+        LoadReport.write(jsonMapper, result, out);
+        System.out.printf("Result written to %s%n", out);
+        boolean regressed = false;
+        if (options.containsKey("baseline")) {
+            System.out.printf("%nComparing with %s (threshold %.0f%%, floor %s)%n", options.get("baseline"), threshold * 100, floor);
+            regressed = LoadReport.compare(LoadReport.read(jsonMapper, new File(options.get("baseline"))), result,
+                    threshold, floor, System.out);
+            System.out.println(regressed ? "REGRESSION against baseline" : "No regression against baseline");
+        }
+        System.exit(regressed ? 1 : 0);
+    }
+
+    private static void drive(HttpClient client, LoadWorkload workload, LoadReport report, int concurrency,
+            Duration duration) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                users.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        execute(client, workload.next(), report);
+                    }
+                });
+            }
+        }
+    }
+
+    private static void execute(HttpClient client, LoadWorkload.Call call, LoadReport report) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<InputStream> response = client.send(call.request(), HttpResponse.BodyHandlers.ofInputStream());
+            boolean expected = call.expected().test(response.statusCode());
+            String error = null;
+            try (InputStream body = response.body()) {
+                if (!expected) {
+                    error = response.statusCode() + " " + new String(body.readNBytes(300), StandardCharsets.UTF_8);
+                } else if (!call.streaming()) {
+                    body.transferTo(OutputStream.nullOutputStream());
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            if (expected) {
+                report.record(call.operation(), elapsed);
+                call.onSuccess().accept(response);
+            } else {
+                report.error(call.operation(), error);
+                call.onFailure().run();
+            }
+        } catch (IOException ex) {
+            report.error(call.operation(), ex.toString());
+            call.onFailure().run();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void defaultArg(List<String> applicationArgs, String name, String value) {
+        if (applicationArgs.stream().noneMatch(arg -> arg.startsWith("--" + name + "="))) {
+            applicationArgs.add("--" + name + "=" + value);
+        }
+    }
+}
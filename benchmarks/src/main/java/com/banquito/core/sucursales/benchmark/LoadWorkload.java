@@ -0,0 +1,392 @@
+package com.banquito.core.sucursales.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+import com.banquito.core.sucursales.dto.BranchBatchCreateDTO;
+import com.banquito.core.sucursales.dto.BranchCreateDTO;
+import com.banquito.core.sucursales.dto.BranchDateDTO;
+import com.banquito.core.sucursales.dto.BranchHolidayDTO;
+import com.banquito.core.sucursales.dto.BranchUpdateDTO;
+import com.banquito.core.sucursales.dto.HolidayCalendarCreateDTO;
+import com.banquito.core.sucursales.dto.HolidayCheckRequestDTO;
+import com.banquito.core.sucursales.dto.HolidayImportRequestDTO;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Datos sembrados y mezcla de operaciones de LoadSuite: cada endpoint de BranchController con un peso; los
+ * pesos de lectura y de escritura se escalan para que las escrituras sean la fracción pedida del total.
+ * Las escrituras mantienen el estado coherente: sólo se quitan feriados o calendarios que la propia carga
+ * agregó, y los correos de las altas no se repiten entre corridas.
+ */
+final class LoadWorkload {
+
+    private static final String BRANCHES = "/api/v1/branches";
+    // Los feriados sembrados caen en 2026-2027; las altas usan fechas desde 2030 para no chocar con ellos
+    private static final LocalDate SEED_FROM = LocalDate.of(2026, 1, 1);
+    private static final int SEED_DAYS = 730;
+    private static final LocalDate ADDED_FROM = LocalDate.of(2030, 1, 1);
+    private static final int GROUPS = 10;
+    private static final int BATCH_SIZE = 20;
+    private static final String[] HOLIDAY_NAMES = {
+        "Año Nuevo", "Carnaval", "Viernes Santo", "Día del Trabajo", "Batalla de Pichincha", "Primer Grito de Independencia",
+        "Independencia de Guayaquil", "Día de los Difuntos", "Independencia de Cuenca", "Navidad", "Fundación de la ciudad"
+    };
+    private static final List<BranchHolidayDTO> NATIONAL = List.of(
+            new BranchHolidayDTO(LocalDate.of(2026, 1, 1), "Año Nuevo"),
+            new BranchHolidayDTO(LocalDate.of(2026, 5, 1), "Día del Trabajo"),
+            new BranchHolidayDTO(LocalDate.of(2026, 12, 25), "Navidad"));
+    private static final String REGIONAL_CSV = "date,name\n2026-08-10,Primer Grito de Independencia\n"
+            + "2026-11-02,Día de los Difuntos\n2026-11-03,Independencia de Cuenca\n";
+
+    private final String url;
+    private final JsonMapper jsonMapper;
+    private final String runId;
+    private final List<String> branchIds;
+    private final String calendarId;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Queue<BranchDateDTO> addedHolidays = new ConcurrentLinkedQueue<>();
+    private final Set<String> linkedIds = ConcurrentHashMap.newKeySet();
+    private final Queue<String> linked = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<String, String> eTags = new ConcurrentHashMap<>();
+    private final List<Operation> operations = new ArrayList<>();
+    private final double[] cumulativeWeights;
+
+    private LoadWorkload(String url, JsonMapper jsonMapper, String runId, List<String> branchIds,
+            String calendarId, List<String> linkedBranchIds, double writes) {
+        this.url = url;
+        this.jsonMapper = jsonMapper;
+        this.runId = runId;
+        this.branchIds = branchIds;
+        this.calendarId = calendarId;
+        linkedIds.addAll(linkedBranchIds);
+        linked.addAll(linkedBranchIds);
+
+        read("getBranch", 20, () -> new Call("getBranch", get(BRANCHES + "/" + branchId() + "?includeHolidays=false"),
+                Call.OK, this::rememberETag));
+        read("getBranchConditional", 5, this::getBranchConditional);
+        read("getBranchWithHolidays", 5, () -> call("getBranchWithHolidays", get(BRANCHES + "/" + branchId())));
+        read("isHoliday", 20, () -> call("isHoliday", get(BRANCHES + "/" + branchId() + "/isHoliday?date=" + seededDay())));
+        read("getHolidays", 10, () -> call("getHolidays", get(BRANCHES + "/" + branchId() + "/holidays")));
+        read("nextBusinessDay", 8, () -> call("nextBusinessDay", get(BRANCHES + "/" + branchId() + "/nextBusinessDay?date=" + seededDay())));
+        read("addBusinessDays", 5, () -> call("addBusinessDays",
+                get(BRANCHES + "/" + branchId() + "/addBusinessDays?date=" + seededDay() + "&days=" + (1 + random().nextInt(60)))));
+        read("businessDaysBetween", 5, () -> {
+            LocalDate from = seededDay();
+            return call("businessDaysBetween", get(BRANCHES + "/" + branchId() + "/businessDaysBetween?from=" + from
+                    + "&to=" + from.plusDays(random().nextInt(365))));
+        });
+        read("checkHolidays", 4, this::checkHolidays);
+        read("getBranchPage", 4, () -> call("getBranchPage", get(BRANCHES + "/page?size=100&cursor=" + branchId())));
+        read("getChanges", 2, () -> call("getChanges", get(BRANCHES + "/changes?since=" + LocalDateTime.now().minusMinutes(1))));
+        read("getClosedBranches", 2, () -> call("getClosedBranches", get(BRANCHES + "/closed?date=" + seededDay())));
+        // Listados completos: pocos pero pesados, dominan el p99.9 del total
+        read("getAllBranches", 0.2, () -> call("getAllBranches", get(BRANCHES)));
+        read("streamAllBranches", 0.05, () -> call("streamAllBranches",
+                HttpRequest.newBuilder(URI.create(url + BRANCHES)).header("Accept", "application/x-ndjson").build()));
+        // Sin change stream (por defecto, y el MongoDB en memoria no lo soporta) la suscripción responde 503 de inmediato
+        read("subscribeToEvents", 0.1, () -> new Call("subscribeToEvents",
+                HttpRequest.newBuilder(URI.create(url + BRANCHES + "/events")).header("Accept", "text/event-stream").build(),
+                status -> status == 200 || status == 503, response -> { }, true));
+
+        write("createBranch", 10, () -> call("createBranch", post(BRANCHES, newBranch())));
+        write("createBranches", 2, this::createBranches);
+        write("updateBranch", 25, () -> call("updateBranch", HttpRequest.newBuilder(URI.create(url + BRANCHES + "/" + branchId()))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(json(BranchUpdateDTO.builder().phoneNumber(phoneNumber()).build())))
+                .build()));
+        write("addHoliday", 20, this::addHoliday);
+        write("removeHoliday", 20, this::removeHoliday);
+        write("linkCalendar", 5, this::linkCalendar);
+        write("unlinkCalendar", 5, this::unlinkCalendar);
+        write("importHolidays", 1.5, () -> call("importHolidays", post(BRANCHES + "/holidays/import", HolidayImportRequestDTO.builder()
+                .holidays(NATIONAL)
+                .branchIds(branchSample(10))
+                .build())));
+        write("importHolidaysCsv", 1.5, () -> call("importHolidaysCsv",
+                HttpRequest.newBuilder(URI.create(url + BRANCHES + "/holidays/import?branchIds=" + String.join(",", branchSample(10))))
+                        .header("Content-Type", "text/csv")
+                        .POST(HttpRequest.BodyPublishers.ofString(REGIONAL_CSV))
+                        .build()));
+
+        double readTotal = operations.stream().filter(operation -> !operation.write()).mapToDouble(Operation::weight).sum();
+        double writeTotal = operations.stream().filter(Operation::write).mapToDouble(Operation::weight).sum();
+        cumulativeWeights = new double[operations.size()];
+        double sum = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            Operation operation = operations.get(i);
+            sum += operation.write() ? operation.weight() / writeTotal * writes : operation.weight() / readTotal * (1 - writes);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    /**
+     * Siembra por la API un calendario compartido, branches sucursales (una de cada cinco asociada al calendario)
+     * y holidays feriados propios por sucursal. Las sucursales se reparten en grupos, cada uno con su
+     * propio juego de fechas, como las distintas ciudades.
+     */
+    static LoadWorkload seed(HttpClient client, String url, JsonMapper jsonMapper, int branches, int holidays,
+            int batchSize, double writes, long seed) {
+        Random random = new Random(seed);
+        String runId = Long.toHexString(System.currentTimeMillis());
+
+        // Los DTO de respuesta sólo tienen builder: se leen como árbol
+        String calendarId = jsonMapper.readTree(send(client, post(jsonMapper, url, "/api/v1/holiday-calendars",
+                HolidayCalendarCreateDTO.builder()
+                        .code("LOAD-" + runId)
+                        .name("Calendario de carga " + runId)
+                        .type("NATIONAL")
+                        .holidays(NATIONAL)
+                        .build()))).get("id").asString();
+
+        List<String> branchIds = new ArrayList<>(branches);
+        while (branchIds.size() < branches) {
+            List<BranchCreateDTO> batch = new ArrayList<>();
+            for (int i = branchIds.size(); i < Math.min(branches, branchIds.size() + batchSize); i++) {
+                batch.add(branch("carga" + i, runId, random));
+            }
+            JsonNode result = jsonMapper.readTree(send(client, post(jsonMapper, url, BRANCHES + "/batch", new BranchBatchCreateDTO(batch))));
+            for (JsonNode item : result.get("results")) {
+                if (item.get("status").asInt() != 200) {
+                    throw new IllegalStateException("Branch failed while seeding: " + item.get("error").asString());
+                }
+                branchIds.add(item.get("branch").get("id").asString());
+            }
+        }
+
+        for (int group = 0; group < GROUPS; group++) {
+            List<String> members = new ArrayList<>();
+            for (int i = group; i < branchIds.size(); i += GROUPS) {
+                members.add(branchIds.get(i));
+            }
+            Set<LocalDate> dates = new TreeSet<>();
+            while (dates.size() < Math.min(holidays, SEED_DAYS)) {
+                dates.add(SEED_FROM.plusDays(random.nextInt(SEED_DAYS)));
+            }
+            List<BranchHolidayDTO> calendarHolidays = dates.stream()
+                    .map(date -> new BranchHolidayDTO(date, HOLIDAY_NAMES[random.nextInt(HOLIDAY_NAMES.length)]))
+                    .toList();
+            for (int from = 0; from < members.size() && !calendarHolidays.isEmpty(); from += batchSize) {
+                send(client, post(jsonMapper, url, BRANCHES + "/holidays/import", HolidayImportRequestDTO.builder()
+                        .holidays(calendarHolidays)
+                        .branchIds(members.subList(from, Math.min(members.size(), from + batchSize)))
+                        .build()));
+            }
+        }
+
+        List<String> linkedBranchIds = new ArrayList<>();
+        for (int i = 0; i < branchIds.size(); i += 5) {
+            send(client, HttpRequest.newBuilder(URI.create(url + BRANCHES + "/" + branchIds.get(i) + "/calendars/" + calendarId))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build());
+            linkedBranchIds.add(branchIds.get(i));
+        }
+        return new LoadWorkload(url, jsonMapper, runId, List.copyOf(branchIds), calendarId, linkedBranchIds, writes);
+    }
+
+    Call next() {
+        double pick = random().nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations.get(i).call().get();
+            }
+        }
+        return operations.get(operations.size() - 1).call().get();
+    }
+
+    private Call getBranchConditional() {
+        String branchId = branchId();
+        String eTag = eTags.get(branchId);
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url + BRANCHES + "/" + branchId + "?includeHolidays=false"));
+        if (eTag != null) {
+            request.header("If-None-Match", eTag);
+        }
+        return new Call("getBranchConditional", request.build(), status -> status == 200 || status == 304, this::rememberETag);
+    }
+
+    private Call checkHolidays() {
+        List<BranchDateDTO> pairs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            pairs.add(new BranchDateDTO(branchId(), seededDay()));
+        }
+        return call("checkHolidays", post(BRANCHES + "/holidays/check", HolidayCheckRequestDTO.builder().pairs(pairs).build()));
+    }
+
+    private Call createBranches() {
+        List<BranchCreateDTO> batch = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(newBranch());
+        }
+        return call("createBranches", post(BRANCHES + "/batch", new BranchBatchCreateDTO(batch)));
+    }
+
+    private Call addHoliday() {
+        String branchId = branchId();
+        // Fechas consecutivas a partir de 2030: una sucursal no recibe dos veces la misma
+        LocalDate date = ADDED_FROM.plusDays(sequence.incrementAndGet() % 36_500);
+        return new Call("addHoliday", post(BRANCHES + "/" + branchId + "/holidays", new BranchHolidayDTO(date, "Feriado local")),
+                Call.OK, response -> addedHolidays.add(new BranchDateDTO(branchId, date)));
+    }
+
+    private Call removeHoliday() {
+        BranchDateDTO added = addedHolidays.poll();
+        if (added == null) {
+            return addHoliday();
+        }
+        return call("removeHoliday", HttpRequest.newBuilder(URI.create(url + BRANCHES + "/" + added.getBranchId()
+                + "/holidays?date=" + added.getDate())).DELETE().build());
+    }
+
+    private Call linkCalendar() {
+        String branchId = branchId();
+        if (!linkedIds.add(branchId)) {
+            return unlinkCalendar();
+        }
+        return new Call("linkCalendar", HttpRequest.newBuilder(URI.create(url + BRANCHES + "/" + branchId + "/calendars/" + calendarId))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), Call.OK, response -> linked.add(branchId), false, () -> linkedIds.remove(branchId));
+    }
+
+    private Call unlinkCalendar() {
+        String branchId = linked.poll();
+        if (branchId == null) {
+            return linkCalendar();
+        }
+        return new Call("unlinkCalendar", HttpRequest.newBuilder(URI.create(url + BRANCHES + "/" + branchId + "/calendars/" + calendarId))
+                .DELETE()
+                .build(), Call.OK, response -> linkedIds.remove(branchId), false, () -> linked.add(branchId));
+    }
+
+    private void rememberETag(HttpResponse<?> response) {
+        response.headers().firstValue("ETag").ifPresent(eTag -> eTags.put(response.uri().getPath().substring(BRANCHES.length() + 1), eTag));
+    }
+
+    private BranchCreateDTO newBranch() {
+        return branch("alta" + sequence.incrementAndGet(), runId, random());
+    }
+
+    private static BranchCreateDTO branch(String code, String runId, Random random) {
+        return BranchCreateDTO.builder()
+                .emailAddress("sucursal." + code + "." + runId + "@banquito.com")
+                .name("Sucursal " + code)
+                .phoneNumber(phoneNumber(random))
+                .build();
+    }
+
+    private String phoneNumber() {
+        return phoneNumber(random());
+    }
+
+    private static String phoneNumber(Random random) {
+        return "0" + (2 + random.nextInt(8)) + String.format("%07d", random.nextInt(10_000_000));
+    }
+
+    private String branchId() {
+        return branchIds.get(random().nextInt(branchIds.size()));
+    }
+
+    private List<String> branchSample(int count) {
+        List<String> sample = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            sample.add(branchId());
+        }
+        return sample;
+    }
+
+    private static LocalDate seededDay() {
+        return SEED_FROM.plusDays(random().nextInt(SEED_DAYS));
+    }
+
+    private static ThreadLocalRandom random() {
+        return ThreadLocalRandom.current();
+    }
+
+    private void read(String name, double weight, Supplier<Call> call) {
+        operations.add(new Operation(name, false, weight, call));
+    }
+
+    private void write(String name, double weight, Supplier<Call> call) {
+        operations.add(new Operation(name, true, weight, call));
+    }
+
+    private static Call call(String operation, HttpRequest request) {
+        return new Call(operation, request, Call.OK, response -> { });
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(url + path)).build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        return post(jsonMapper, url, path, body);
+    }
+
+    private String json(Object body) {
+        return jsonMapper.writeValueAsString(body);
+    }
+
+    private static HttpRequest post(JsonMapper jsonMapper, String url, String path, Object body) {
+        return HttpRequest.newBuilder(URI.create(url + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(jsonMapper.writeValueAsString(body)))
+                .build();
+    }
+
+    private static String send(HttpClient client, HttpRequest request) {
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("Seeding failed: " + request.method() + " " + request.uri()
+                        + " returned " + response.statusCode() + ": " + response.body());
+            }
+            return response.body();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Seeding interrupted", ex);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Seeding failed: " + request.method() + " " + request.uri(), ex);
+        }
+    }
+
+    private record Operation(String name, boolean write, double weight, Supplier<Call> call) {
+    }
+
+    /**
+     * Una petición de la mezcla. streaming: se cierra el cuerpo apenas llegan los encabezados (SSE).
+     * onFailure deshace la reserva hecha al armar la petición (calendario marcado como asociado).
+     */
+    record Call(String operation, HttpRequest request, IntPredicate expected, Consumer<HttpResponse<?>> onSuccess,
+            boolean streaming, Runnable onFailure) {
+
+        static final IntPredicate OK = status -> status / 100 == 2;
+
+        Call(String operation, HttpRequest request, IntPredicate expected, Consumer<HttpResponse<?>> onSuccess) {
+            this(operation, request, expected, onSuccess, false, () -> { });
+        }
+
+        Call(String operation, HttpRequest request, IntPredicate expected, Consumer<HttpResponse<?>> onSuccess, boolean streaming) {
+            this(operation, request, expected, onSuccess, streaming, () -> { });
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.banquito.core.sucursales.benchmark;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Compara dos resultados JMH en JSON (-rf json) benchmark por benchmark. Marca como cambio sólo las
+ * diferencias mayores que la suma de los errores de ambas corridas; el resto se reporta como ruido.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.banquito.core.sucursales.benchmark.ResultComparison \
+ *     baseline.json benchmarks/target/jmh-result.json
+ * </pre>
+ */
+public class ResultComparison {
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: ResultComparison <baseline.json> <candidate.json>");
+        }
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+        Map<String, JsonNode> baseline = read(jsonMapper, new File(args[0]));
+        Map<String, JsonNode> candidate = read(jsonMapper, new File(args[1]));
+
+        System.out.printf("%-90s %14s %14s %9s  %s%n", "Benchmark", "Baseline", "Candidate", "Change", "Verdict");
+        candidate.forEach((key, result) -> {
+            JsonNode before = baseline.get(key);
+            JsonNode metric = result.get("primaryMetric");
+            String unit = metric.get("scoreUnit").asString();
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s  new (%s)%n", key, "-", metric.get("score").asDouble(), "", unit);
+                return;
+            }
+            double oldScore = before.get("primaryMetric").get("score").asDouble();
+            double newScore = metric.get("score").asDouble();
+            double noise = error(before.get("primaryMetric")) + error(metric);
+            // En modo avgt/ss menor es mejor; en thrpt, mayor
+            boolean lowerIsBetter = !"thrpt".equals(result.get("mode").asString());
+            String verdict = Math.abs(newScore - oldScore) <= noise
+                    ? "within noise"
+                    : (newScore < oldScore) == lowerIsBetter ? "faster" : "SLOWER";
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%  %s (%s)%n",
+                    key, oldScore, newScore, (newScore - oldScore) / oldScore * 100, verdict, unit);
+        });
+        baseline.keySet().stream()
+                .filter(key -> !candidate.containsKey(key))
+                .forEach(key -> System.out.printf("%-90s removed%n", key));
+    }
+
+    private static Map<String, JsonNode> read(JsonMapper jsonMapper, File file) {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : jsonMapper.readTree(file)) {
+            Map<String, String> params = new TreeMap<>();
+            if (result.has("params")) {
+                result.get("params").properties().forEach(param -> params.put(param.getKey(), param.getValue().asString()));
+            }
+            String name = result.get("benchmark").asString().replace("com.banquito.core.sucursales.benchmark.", "");
+            results.put(params.isEmpty() ? name : name + " " + params, result);
+        }
+        return results;
+    }
+
+    private static double error(JsonNode metric) {
+        double error = metric.get("scoreError").asDouble();
+        return Double.isNaN(error) ? 0 : error;
+    }
+}
@@ -0,0 +1,228 @@
+package com.banquito.core.sucursales.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+/**
+ * Arranque en frío y primera petición: lanza --runs veces el comando que sigue a "--" (java -jar, el JAR con
+ * AOT y CDS o el ejecutable nativo) contra un MongoDB en memoria (o --mongo=URI) y mide
+ * <ul>
+ * <li>ready: desde el lanzamiento del proceso hasta la línea "Started" (contexto listo y puerto abierto);</li>
+ * <li>started: lo que Spring Boot informa en "Started ... in N seconds";</li>
+ * <li>por endpoint, la latencia de la primera llamada y la mediana de las --repeat siguientes.</li>
+ * </ul>
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.banquito.core.sucursales.benchmark.StartupBenchmark --runs=5 -- \
+ *     java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar sucursales-0.0.1-SNAPSHOT-exec.jar
+ * </pre>
+ *
+ * Se agregan al comando --server.port, --spring.mongodb.uri (una base distinta por corrida),
+ * --branch.change-stream.enabled=false (el MongoDB en memoria no tiene change streams) y niveles de log WARN,
+ * salvo la línea de arranque. Se informa la mediana de las corridas; la primera suele pagar la caché de disco.
+ */
+public class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+    private static final Pattern ID = Pattern.compile("\"id\":\"([0-9a-f]{24})\"");
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        int separator = Arrays.asList(args).indexOf("--");
+        if (separator < 0 || separator == args.length - 1) {
+            throw new IllegalArgumentException("Usage: StartupBenchmark [--runs=5] [--repeat=50] [--mongo=URI] -- <command>");
+        }
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : Arrays.copyOfRange(args, 0, separator)) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        List<String> command = List.of(Arrays.copyOfRange(args, separator + 1, args.length));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        int repeat = Integer.parseInt(options.getOrDefault("repeat", "50"));
+        String mongo = options.getOrDefault("mongo", "embedded");
+
+        MongoServer mongoServer = null;
+        String uri = mongo;
+        if ("embedded".equals(mongo)) {
+            // mongo-java-server registra cada conexión y cada índice secundario que no implementa
+            ((Logger) LoggerFactory.getLogger("de.bwaldvogel")).setLevel(Level.ERROR);
+            mongoServer = new MongoServer(new MemoryBackend().version(LoadSuite.MONGO_4_2));
+            InetSocketAddress address = mongoServer.bind();
+            uri = "mongodb://" + address.getHostString() + ":" + address.getPort();
+        }
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+
+        System.out.printf("%s%n%d runs, %d repeats per endpoint%n", String.join(" ", command), runs, repeat);
+        List<Run> results = new ArrayList<>();
+        try {
+            for (int i = 1; i <= runs; i++) {
+                Run run = run(client, command, uri + "/branch-startup-" + i + "-" + System.nanoTime(), repeat);
+                System.out.printf("run %d: ready %.0f ms, started %.3f s%n", i, run.readyMillis(), run.startedSeconds());
+                results.add(run);
+            }
+        } finally {
+            if (mongoServer != null) {
+                mongoServer.shutdownNow();
+            }
+        }
+
+        System.out.printf("%nMedian of %d runs%n", runs);
+        System.out.printf("%-36s %10.0f ms%n", "ready (process start to Started)", median(results.stream().mapToDouble(Run::readyMillis).toArray()));
+        System.out.printf("%-36s %10.3f s%n", "started (reported by Spring Boot)", median(results.stream().mapToDouble(Run::startedSeconds).toArray()));
+        System.out.printf("%n%-36s %10s %10s%n", "endpoint", "first ms", "warm ms");
+        for (String operation : results.get(0).firstMillis().keySet()) {
+            System.out.printf("%-36s %10.2f %10.2f%n", operation,
+                    median(results.stream().mapToDouble(run -> run.firstMillis().get(operation)).toArray()),
+                    median(results.stream().mapToDouble(run -> run.warmMillis().get(operation)).toArray()));
+        }
+    }
+
+    private static Run run(HttpClient client, List<String> command, String mongoUri, int repeat) throws Exception {
+        int port = freePort();
+        String url = "http://localhost:" + port;
+        List<String> fullCommand = new ArrayList<>(command);
+        fullCommand.add("--server.port=" + port);
+        fullCommand.add("--spring.mongodb.uri=" + mongoUri);
+        fullCommand.add("--branch.change-stream.enabled=false");
+        fullCommand.add("--logging.level.root=WARN");
+        fullCommand.add("--logging.level.com.banquito.core.sucursales=WARN");
+        fullCommand.add("--logging.level.com.banquito.core.sucursales.CoreSucursalesApplication=INFO");
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(fullCommand).redirectErrorStream(true).start();
+        CompletableFuture<Double> started = new CompletableFuture<>();
+        Deque<String> tail = new ArrayDeque<>();
+        Thread output = Thread.ofVirtual().start(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Matcher matcher = STARTED.matcher(line);
+                    if (matcher.find()) {
+                        started.complete(Double.parseDouble(matcher.group(1)));
+                    }
+                    synchronized (tail) {
+                        tail.addLast(line);
+                        if (tail.size() > 20) {
+                            tail.removeFirst();
+                        }
+                    }
+                }
+            } catch (IOException ex) {
+                // El proceso terminó
+            }
+            started.complete(Double.NaN);
+        });
+        try {
+            // Se espera la línea "Started" y no se sondea por HTTP: ese sondeo sería la primera petición
+            double startedSeconds = started.get(READY_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            double ready = (System.nanoTime() - start) / 1e6;
+            if (Double.isNaN(startedSeconds)) {
+                synchronized (tail) {
+                    throw new IllegalStateException("Application exited before starting:\n" + String.join("\n", tail));
+                }
+            }
+
+            Map<String, Double> first = new LinkedHashMap<>();
+            Map<String, Double> warm = new LinkedHashMap<>();
+            String body = "{\"emailAddress\":\"startup-%d@banquito.com\",\"name\":\"Sucursal Startup\","
+                    + "\"phoneNumber\":\"022345678\",\"state\":\"PICHINCHA\"}";
+            long[] email = {0};
+            String created = time(client, first, warm, "POST /branches", repeat, () -> HttpRequest.newBuilder(URI.create(url + "/api/v1/branches"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.formatted(email[0]++)))
+                    .build());
+            Matcher id = ID.matcher(created);
+            if (!id.find()) {
+                throw new IllegalStateException("Unexpected create response: " + created);
+            }
+            String branch = url + "/api/v1/branches/" + id.group(1);
+            time(client, first, warm, "GET /branches/{id}", repeat, () -> get(branch));
+            time(client, first, warm, "GET /branches/{id}/isHoliday", repeat, () -> get(branch + "/isHoliday?date=2026-12-25"));
+            time(client, first, warm, "GET /branches", repeat, () -> get(url + "/api/v1/branches"));
+            return new Run(ready, startedSeconds, first, warm);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            output.join();
+        }
+    }
+
+    /**
+     * Primera llamada y mediana de las repeat siguientes; devuelve el cuerpo de la primera.
+     */
+    private static String time(HttpClient client, Map<String, Double> first, Map<String, Double> warm, String operation,
+            int repeat, Supplier<HttpRequest> request) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request.get(), HttpResponse.BodyHandlers.ofString());
+        first.put(operation, (System.nanoTime() - start) / 1e6);
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(operation + " returned " + response.statusCode() + ": " + response.body());
+        }
+        double[] samples = new double[repeat];
+        for (int i = 0; i < repeat; i++) {
+            long sample = System.nanoTime();
+            client.send(request.get(), HttpResponse.BodyHandlers.discarding());
+            samples[i] = (System.nanoTime() - sample) / 1e6;
+        }
+        warm.put(operation, repeat == 0 ? Double.NaN : median(samples));
+        return response.body();
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).build();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    private record Run(double readyMillis, double startedSeconds, Map<String, Double> firstMillis,
+            Map<String, Double> warmMillis) {
+    }
+}
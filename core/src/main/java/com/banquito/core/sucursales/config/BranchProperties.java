@@ -0,0 +1,176 @@
+package com.banquito.core.sucursales.config;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "branch")
+public class BranchProperties {
+
+    private Pagination pagination = new Pagination();
+    private HolidayCheck holidayCheck = new HolidayCheck();
+    private BusinessDays businessDays = new BusinessDays();
+    private Changes changes = new Changes();
+    private ChangeStream changeStream = new ChangeStream();
+    private Events events = new Events();
+    private HolidayImport holidayImport = new HolidayImport();
+    private BatchCreate batchCreate = new BatchCreate();
+    private HolidayCalendars holidayCalendars = new HolidayCalendars();
+    private HolidayStorage holidayStorage = new HolidayStorage();
+    private Migrations migrations = new Migrations();
+    private MongoPool mongoPool = new MongoPool();
+    private MongoIndexes mongoIndexes = new MongoIndexes();
+    private VirtualThreads virtualThreads = new VirtualThreads();
+    private BinaryContent binaryContent = new BinaryContent();
+    private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    @Data
+    public static class Pagination {
+        private int defaultSize = 100;
+        private int maxSize = 1000;
+    }
+
+    @Data
+    public static class HolidayCheck {
+        private int maxChecks = 100_000;
+    }
+
+    @Data
+    public static class HolidayImport {
+        private int maxHolidays = 1000;
+    }
+
+    @Data
+    public static class BatchCreate {
+        private int maxSize = 1000;
+    }
+
+    @Data
+    public static class HolidayCalendars {
+        private boolean migrate = false;
+        // Un feriado repetido en al menos este número de sucursales pasa a un calendario compartido
+        private int migrationMinBranches = 2;
+    }
+
+    @Data
+    public static class HolidayStorage {
+        private HolidayStorageMode mode = HolidayStorageMode.EMBEDDED;
+        private boolean migrate = false;
+        private int migrationBatchSize = 500;
+    }
+
+    @Data
+    public static class Migrations {
+        // Vencimiento del candado de una migración: otra réplica la puede tomar si la que la ejecuta muere
+        private Duration lockLease = Duration.ofMinutes(30);
+    }
+
+    public enum HolidayStorageMode {
+        // Lista branchHolidays dentro del documento de la sucursal
+        EMBEDDED,
+        // Colección branchHolidayBuckets, un documento por sucursal y año
+        BUCKETED
+    }
+
+    @Data
+    public static class MongoPool {
+        private int maxSize = 100;
+        private int minSize = 10;
+        private int maxConnecting = 4;
+        // Con hilos virtuales no hay pool de Tomcat que frene la concurrencia: la espera por conexión se acota aquí
+        private Duration maxWaitTime = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class ChangeStream {
+        private boolean enabled = true;
+        // Espera antes de volver a abrir el cursor tras un error, duplicada en cada fallo seguido
+        private Duration retryDelay = Duration.ofSeconds(1);
+        private Duration maxRetryDelay = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class MongoIndexes {
+        // Sin poder crear los índices (el único de emailAddress) la aplicación no arranca
+        private boolean required = true;
+    }
+
+    @Data
+    public static class VirtualThreads {
+        private Duration pinnedThreshold = Duration.ofMillis(20);
+    }
+
+    @Data
+    public static class BinaryContent {
+        private DateEncoding dateEncoding = DateEncoding.EPOCH;
+    }
+
+    public enum DateEncoding {
+        // Texto ISO-8601, igual que en JSON
+        ISO,
+        // LocalDate como días desde 1970-01-01 y LocalDateTime como milisegundos desde 1970-01-01T00:00
+        EPOCH
+    }
+
+    @Data
+    public static class ConcurrencyLimit {
+        private boolean enabled = true;
+        // Espera máxima por un lugar cuando la clase de endpoint está en su límite; pasado este tiempo, 503
+        private Duration maxWait = Duration.ofMillis(50);
+        private int maxQueue = 50;
+        // Cuánto puede crecer la latencia reciente sobre la de referencia antes de reducir el límite
+        private double tolerance = 2.0;
+        private Duration retryAfter = Duration.ofSeconds(1);
+        // isHoliday responde con el último calendario conocido de la sucursal si MongoDB no está disponible
+        private boolean holidaySnapshot = true;
+        private Limit reads = limit(20, 4, 45);
+        private Limit holidayChecks = limit(20, 4, 30);
+        private Limit writes = limit(10, 2, 25);
+
+        private static Limit limit(int initialLimit, int minLimit, int maxLimit) {
+            Limit limit = new Limit();
+            limit.setInitialLimit(initialLimit);
+            limit.setMinLimit(minLimit);
+            limit.setMaxLimit(maxLimit);
+            return limit;
+        }
+    }
+
+    @Data
+    public static class Limit {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+    }
+
+    @Data
+    public static class BusinessDays {
+        private List<DayOfWeek> weekend = new ArrayList<>(List.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY));
+        private int maxSpanDays = 3660;
+    }
+
+    @Data
+    public static class Changes {
+        private int defaultSize = 500;
+        private int maxSize = 5000;
+        // Margen para que escrituras en curso no queden detrás del token; lastModifiedDate usa el reloj de MongoDB
+        private Duration settleTime = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class Events {
+        private int bufferSize = 256;
+        private int replaySize = 1000;
+        private int maxSubscribers = 1000;
+        private Duration timeout = Duration.ofMinutes(30);
+        private Duration heartbeat = Duration.ofSeconds(15);
+        private Duration retryDelay = Duration.ofSeconds(1);
+        private Duration maxRetryDelay = Duration.ofMinutes(1);
+    }
+}
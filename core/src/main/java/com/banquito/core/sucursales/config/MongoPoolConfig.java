@@ -0,0 +1,30 @@
+package com.banquito.core.sucursales.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Límites del pool de conexiones de MongoDB. Se aplican después de la URI, así que branch.mongo-pool
+ * prevalece sobre maxPoolSize y similares en la cadena de conexión.
+ */
+@Slf4j
+@Configuration
+public class MongoPoolConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoPoolCustomizer(BranchProperties branchProperties) {
+        BranchProperties.MongoPool pool = branchProperties.getMongoPool();
+        log.info("MongoDB pool: max {} connections, min {}, max connecting {}, max wait {}",
+                pool.getMaxSize(), pool.getMinSize(), pool.getMaxConnecting(), pool.getMaxWaitTime());
+        return builder -> builder.applyToConnectionPoolSettings(settings -> settings
+                .maxSize(pool.getMaxSize())
+                .minSize(pool.getMinSize())
+                .maxConnecting(pool.getMaxConnecting())
+                .maxWaitTime(pool.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS));
+    }
+}
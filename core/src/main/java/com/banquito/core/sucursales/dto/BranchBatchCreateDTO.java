@@ -0,0 +1,23 @@
+package com.banquito.core.sucursales.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BranchBatchCreateDTO {
+
+    @Valid
+    @NotEmpty
+    @Schema(description = "Sucursales a crear")
+    private List<BranchCreateDTO> branches;
+}
@@ -0,0 +1,21 @@
+package com.banquito.core.sucursales.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BranchBatchCreateResultDTO {
+
+    @Schema(description = "Sucursales creadas")
+    private int created;
+
+    @Schema(description = "Elementos rechazados")
+    private int failed;
+
+    @Schema(description = "Resultado por elemento, en el orden de la solicitud")
+    private List<BranchBatchItemDTO> results;
+}
@@ -0,0 +1,23 @@
+package com.banquito.core.sucursales.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BranchBatchItemDTO {
+
+    @Schema(description = "Posición del elemento en la solicitud")
+    private int index;
+
+    @Schema(description = "Código de estado del elemento, como en la creación individual", example = "200")
+    private int status;
+
+    @Schema(description = "Sucursal creada, sin creationDate ni lastModifiedDate (las fija MongoDB al escribir); "
+            + "nula si falló")
+    private BranchResponseDTO branch;
+
+    @Schema(description = "Motivo del fallo")
+    private String error;
+}
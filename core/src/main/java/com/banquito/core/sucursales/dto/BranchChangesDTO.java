@@ -0,0 +1,24 @@
+package com.banquito.core.sucursales.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BranchChangesDTO {
+
+    @Schema(description = "Sucursales activas creadas o modificadas, ordenadas por fecha de modificación")
+    private List<BranchResponseDTO> changed;
+
+    @Schema(description = "Sucursales que dejaron de estar activas")
+    private List<BranchTombstoneDTO> removed;
+
+    @Schema(description = "Token para continuar la sincronización desde el último cambio entregado")
+    private String nextToken;
+
+    @Schema(description = "Indica si hay más cambios disponibles inmediatamente")
+    private boolean hasMore;
+}
@@ -0,0 +1,26 @@
+package com.banquito.core.sucursales.dto;
+
+import java.time.LocalDate;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BranchDateDTO {
+
+    @NotBlank
+    @Schema(description = "ID de la sucursal", example = "6650f1c2a1b2c3d4e5f60718")
+    private String branchId;
+
+    @NotNull
+    @Schema(description = "Fecha a verificar", example = "2025-12-25")
+    private LocalDate date;
+}
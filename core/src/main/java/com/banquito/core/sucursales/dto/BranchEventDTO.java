@@ -0,0 +1,40 @@
+package com.banquito.core.sucursales.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BranchEventDTO {
+
+    @Schema(description = "Token de reanudación del change stream; se envía como id del evento SSE")
+    private String id;
+
+    @Schema(description = "Tipo de evento", example = "HOLIDAY_ADDED")
+    private String type;
+
+    @Schema(description = "ID de la sucursal afectada")
+    private String branchId;
+
+    @Schema(description = "Momento del cambio en la base de datos")
+    private LocalDateTime timestamp;
+
+    @Schema(description = "Nombre de la sucursal (BRANCH_CREATED)")
+    private String name;
+
+    @Schema(description = "Nuevo teléfono (PHONE_UPDATED)")
+    private String phoneNumber;
+
+    @Schema(description = "Feriados agregados (HOLIDAY_ADDED) o quitados (HOLIDAY_REMOVED)")
+    private List<BranchHolidayDTO> holidays;
+
+    @Schema(description = "Año del bucket en modo de almacenamiento BUCKETED")
+    private Integer year;
+}
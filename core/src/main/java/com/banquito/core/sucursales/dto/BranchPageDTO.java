@@ -0,0 +1,18 @@
+package com.banquito.core.sucursales.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BranchPageDTO {
+
+    @Schema(description = "Sucursales de la página actual, ordenadas por ID")
+    private List<BranchResponseDTO> items;
+
+    @Schema(description = "Cursor para solicitar la siguiente página; nulo si no hay más resultados")
+    private String nextCursor;
+}
@@ -32,6 +32,12 @@ public class BranchResponseDTO {
     @Schema(description = "Fecha de última modificación")
     private LocalDateTime lastModifiedDate;
 
-    @Schema(description = "Lista de feriados asociados")
+    @Schema(description = "Feriados propios de la sucursal (no incluye los de calendarios compartidos)")
     private List<BranchHolidayDTO> branchHolidays;
+
+    @Schema(description = "Calendarios de feriados compartidos que usa la sucursal")
+    private List<String> calendarIds;
+
+    @Schema(description = "Versión del registro; base del ETag")
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.banquito.core.sucursales.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BranchSummaryDTO {
+
+    @Schema(description = "ID único de la sucursal")
+    private String id;
+
+    @Schema(description = "Nombre de la sucursal")
+    private String name;
+}
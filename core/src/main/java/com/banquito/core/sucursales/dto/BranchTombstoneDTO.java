@@ -0,0 +1,21 @@
+package com.banquito.core.sucursales.dto;
+
+import java.time.LocalDateTime;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BranchTombstoneDTO {
+
+    @Schema(description = "ID de la sucursal que dejó de estar activa")
+    private String id;
+
+    @Schema(description = "Estado actual de la sucursal", example = "INACTIVE")
+    private String state;
+
+    @Schema(description = "Fecha del cambio de estado")
+    private LocalDateTime lastModifiedDate;
+}
@@ -0,0 +1,34 @@
+package com.banquito.core.sucursales.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HolidayCalendarCreateDTO {
+
+    @NotBlank
+    @Schema(description = "Código único del calendario", example = "EC-NACIONAL")
+    private String code;
+
+    @NotBlank
+    @Schema(description = "Nombre del calendario", example = "Feriados nacionales Ecuador")
+    private String name;
+
+    @NotBlank
+    @Schema(description = "Tipo de calendario: NATIONAL o REGIONAL", example = "NATIONAL")
+    private String type;
+
+    @Valid
+    @Schema(description = "Feriados iniciales")
+    private List<BranchHolidayDTO> holidays;
+}
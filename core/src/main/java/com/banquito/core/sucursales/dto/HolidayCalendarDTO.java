@@ -0,0 +1,30 @@
+package com.banquito.core.sucursales.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class HolidayCalendarDTO {
+
+    @Schema(description = "ID del calendario")
+    private String id;
+
+    @Schema(description = "Código único del calendario", example = "EC-NACIONAL")
+    private String code;
+
+    @Schema(description = "Nombre del calendario", example = "Feriados nacionales Ecuador")
+    private String name;
+
+    @Schema(description = "Tipo de calendario", example = "NATIONAL")
+    private String type;
+
+    @Schema(description = "Feriados del calendario")
+    private List<BranchHolidayDTO> holidays;
+
+    @Schema(description = "Versión del calendario")
+    private Long version;
+}
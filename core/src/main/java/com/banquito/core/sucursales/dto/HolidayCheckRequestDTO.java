@@ -0,0 +1,31 @@
+package com.banquito.core.sucursales.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HolidayCheckRequestDTO {
+
+    @Valid
+    @Schema(description = "Pares (sucursal, fecha) a verificar; excluyente con branchIds/from/to")
+    private List<BranchDateDTO> pairs;
+
+    @Schema(description = "Sucursales a verificar sobre el rango de fechas")
+    private List<String> branchIds;
+
+    @Schema(description = "Inicio del rango (inclusive)", example = "2025-01-01")
+    private LocalDate from;
+
+    @Schema(description = "Fin del rango (inclusive)", example = "2025-12-31")
+    private LocalDate to;
+}
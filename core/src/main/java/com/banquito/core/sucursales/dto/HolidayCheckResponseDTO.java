@@ -0,0 +1,29 @@
+package com.banquito.core.sucursales.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class HolidayCheckResponseDTO {
+
+    @Schema(description = "Resultado por par, en el mismo orden de la solicitud; nulo si la sucursal no existe")
+    private List<Boolean> results;
+
+    @Schema(description = "Inicio del rango consultado")
+    private LocalDate from;
+
+    @Schema(description = "Fin del rango consultado")
+    private LocalDate to;
+
+    @Schema(description = "Por sucursal, un carácter por día del rango: '1' feriado, '0' laborable", example = "{\"6650f1c2a1b2c3d4e5f60718\": \"0010000\"}")
+    private Map<String, String> calendar;
+
+    @Schema(description = "Sucursales solicitadas que no existen")
+    private List<String> unknownBranchIds;
+}
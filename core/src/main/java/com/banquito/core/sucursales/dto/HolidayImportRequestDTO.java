@@ -0,0 +1,35 @@
+package com.banquito.core.sucursales.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HolidayImportRequestDTO {
+
+    @Valid
+    @NotEmpty
+    @Schema(description = "Calendario de feriados a cargar")
+    private List<BranchHolidayDTO> holidays;
+
+    @Schema(description = "Sucursales destino; excluyente con state y all")
+    private List<String> branchIds;
+
+    @Schema(description = "Estado de las sucursales destino; excluyente con branchIds y all", example = "ACTIVE")
+    private String state;
+
+    @Schema(description = "Cargar en todas las sucursales")
+    private Boolean all;
+
+    @Schema(description = "Sólo calcular el resultado, sin escribir")
+    private Boolean dryRun;
+}
@@ -0,0 +1,33 @@
+package com.banquito.core.sucursales.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class HolidayImportResponseDTO {
+
+    @Schema(description = "Indica si la carga fue sólo una simulación")
+    private boolean dryRun;
+
+    @Schema(description = "Sucursales seleccionadas")
+    private int branches;
+
+    @Schema(description = "Total de feriados agregados")
+    private int added;
+
+    @Schema(description = "Total de feriados omitidos por existir")
+    private int skipped;
+
+    @Schema(description = "Total de fechas en conflicto")
+    private int conflicts;
+
+    @Schema(description = "Sucursales solicitadas que no existen")
+    private List<String> unknownBranchIds;
+
+    @Schema(description = "Resultado por sucursal")
+    private List<HolidayImportResultDTO> results;
+}
@@ -0,0 +1,28 @@
+package com.banquito.core.sucursales.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class HolidayImportResultDTO {
+
+    @Schema(description = "ID de la sucursal")
+    private String branchId;
+
+    @Schema(description = "Feriados agregados (o que se agregarían en dry-run)")
+    private int added;
+
+    @Schema(description = "Feriados omitidos porque ya existían con el mismo nombre")
+    private int skipped;
+
+    @Schema(description = "Fechas que ya tenían un feriado con otro nombre; no se modifican")
+    private List<LocalDate> conflicts;
+
+    @Schema(description = "Verdadero si la sucursal cambió durante la carga y no se escribió; debe reintentarse")
+    private boolean retry;
+}
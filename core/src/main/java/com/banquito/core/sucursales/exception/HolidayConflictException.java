@@ -0,0 +1,20 @@
+package com.banquito.core.sucursales.exception;
+
+import java.util.List;
+
+/**
+ * El cambio pedido sobre los feriados de una sucursal choca con los de un calendario compartido:
+ * se corrige en el calendario, no en la sucursal. Se responde 409 en ambas variantes del API.
+ */
+public class HolidayConflictException extends RuntimeException {
+
+    public HolidayConflictException(String message) {
+        super(message);
+    }
+
+    public static HolidayConflictException sharedCalendar(String branchId, List<String> calendarIds) {
+        return new HolidayConflictException("The holiday comes from the shared holiday calendar(s) " + calendarIds
+                + ": remove it with DELETE /api/v1/holiday-calendars/{id}/holidays or unlink the calendar with"
+                + " DELETE /api/v1/branches/" + branchId + "/calendars/{calendarId}");
+    }
+}
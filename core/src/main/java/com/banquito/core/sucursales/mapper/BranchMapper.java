@@ -2,15 +2,18 @@ package com.banquito.core.sucursales.mapper;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
-import org.mapstruct.MappingTarget;
 import org.mapstruct.ReportingPolicy;
 
 import com.banquito.core.sucursales.dto.BranchCreateDTO;
 import com.banquito.core.sucursales.dto.BranchHolidayDTO;
 import com.banquito.core.sucursales.dto.BranchResponseDTO;
-import com.banquito.core.sucursales.dto.BranchUpdateDTO;
+import com.banquito.core.sucursales.dto.BranchSummaryDTO;
+import com.banquito.core.sucursales.dto.BranchTombstoneDTO;
+import com.banquito.core.sucursales.dto.HolidayCalendarCreateDTO;
+import com.banquito.core.sucursales.dto.HolidayCalendarDTO;
 import com.banquito.core.sucursales.model.Branch;
 import com.banquito.core.sucursales.model.BranchHoliday;
+import com.banquito.core.sucursales.model.HolidayCalendar;
 
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface BranchMapper {
@@ -20,20 +23,23 @@ public interface BranchMapper {
     @Mapping(target = "creationDate", expression = "java(java.time.LocalDateTime.now())")
     @Mapping(target = "lastModifiedDate", expression = "java(java.time.LocalDateTime.now())")
     @Mapping(target = "branchHolidays", ignore = true) 
+    @Mapping(target = "calendarIds", ignore = true)
     @Mapping(target = "version", ignore = true)
     Branch toEntity(BranchCreateDTO dto);
 
     BranchResponseDTO toResponseDTO(Branch entity);
 
-    @Mapping(target = "lastModifiedDate", expression = "java(java.time.LocalDateTime.now())") // Actualizamos fecha mod
+    BranchSummaryDTO toSummaryDTO(Branch entity);
+
+    BranchTombstoneDTO toTombstoneDTO(Branch entity);
+
     @Mapping(target = "id", ignore = true)
-    @Mapping(target = "emailAddress", ignore = true)
-    @Mapping(target = "name", ignore = true)
-    @Mapping(target = "state", ignore = true)
-    @Mapping(target = "creationDate", ignore = true)
-    @Mapping(target = "branchHolidays", ignore = true)
+    @Mapping(target = "creationDate", expression = "java(java.time.LocalDateTime.now())")
+    @Mapping(target = "lastModifiedDate", expression = "java(java.time.LocalDateTime.now())")
     @Mapping(target = "version", ignore = true)
-    void updateEntityFromDTO(BranchUpdateDTO dto, @MappingTarget Branch entity);
+    HolidayCalendar toCalendarEntity(HolidayCalendarCreateDTO dto);
+
+    HolidayCalendarDTO toCalendarDTO(HolidayCalendar entity);
 
     BranchHolidayDTO toHolidayDTO(BranchHoliday holiday);
     BranchHoliday toHolidayEntity(BranchHolidayDTO dto);
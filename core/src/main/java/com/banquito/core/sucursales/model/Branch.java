@@ -0,0 +1,45 @@
+package com.banquito.core.sucursales.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "branches")
+@CompoundIndex(name = "lastModifiedDate_id", def = "{ 'lastModifiedDate': 1, '_id': 1 }")
+public class Branch {
+
+    @Id
+    private String id;
+
+    @Indexed(unique = true)
+    private String emailAddress;
+
+    private String name;
+    private String phoneNumber;
+    private String state;
+    private LocalDateTime creationDate;
+    private LocalDateTime lastModifiedDate;
+
+    // Feriados propios de la sucursal; se combinan con los de los calendarios compartidos referenciados
+    private List<BranchHoliday> branchHolidays;
+
+    @Indexed
+    private List<String> calendarIds;
+
+    @Version
+    private Long version;
+}
\ No newline at end of file
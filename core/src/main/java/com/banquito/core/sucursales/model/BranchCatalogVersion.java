@@ -0,0 +1,14 @@
+package com.banquito.core.sucursales.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BranchCatalogVersion {
+
+    private long count;
+    private long versionSum;
+}
@@ -1,6 +1,9 @@
 package com.banquito.core.sucursales.model;
 
 import java.time.LocalDate;
+
+import org.springframework.data.mongodb.core.index.Indexed;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,7 +14,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class BranchHoliday {
-    
+
+    @Indexed
     private LocalDate date;
     private String name;
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.banquito.core.sucursales.model;
+
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Feriados propios de una sucursal en un año (modo de almacenamiento BUCKETED). El documento de la
+ * sucursal queda acotado y una consulta por fecha lee un solo bucket.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "branchHolidayBuckets")
+@CompoundIndex(name = "branchId_year", def = "{ 'branchId': 1, 'year': 1 }", unique = true)
+public class BranchHolidayBucket {
+
+    @Id
+    private String id;
+
+    private String branchId;
+    private int year;
+
+    private List<BranchHoliday> holidays;
+}
@@ -17,23 +17,22 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Document(collection = "branches")
-public class Branch {
+@Document(collection = "holidayCalendars")
+public class HolidayCalendar {
 
     @Id
     private String id;
 
     @Indexed(unique = true)
-    private String emailAddress;
+    private String code;
 
     private String name;
-    private String phoneNumber;
-    private String state;
+    private String type;
     private LocalDateTime creationDate;
     private LocalDateTime lastModifiedDate;
 
-    private List<BranchHoliday> branchHolidays;
+    private List<BranchHoliday> holidays;
 
     @Version
     private Long version;
-}
\ No newline at end of file
+}
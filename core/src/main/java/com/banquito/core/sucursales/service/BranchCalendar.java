@@ -0,0 +1,179 @@
+package com.banquito.core.sucursales.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Inmutable: cada año se guarda como un bitset de 366 bits (un bit por día del año) y, en paralelo,
+ * los feriados como días epoch ordenados para contar rangos por búsqueda binaria.
+ * Las modificaciones devuelven una nueva instancia para que las lecturas no necesiten bloqueo.
+ */
+public final class BranchCalendar {
+
+    private static final int WORDS_PER_YEAR = 6;
+
+    private static final BranchCalendar EMPTY = new BranchCalendar(Map.of(), new int[0]);
+
+    private final Map<Integer, long[]> daysByYear;
+    private final int[] epochDays;
+    private volatile WeekdayHolidays weekdayHolidays;
+
+    private BranchCalendar(Map<Integer, long[]> daysByYear, int[] epochDays) {
+        this.daysByYear = daysByYear;
+        this.epochDays = epochDays;
+    }
+
+    public static BranchCalendar empty() {
+        return EMPTY;
+    }
+
+    public static BranchCalendar of(Collection<LocalDate> dates) {
+        Map<Integer, long[]> days = new HashMap<>();
+        for (LocalDate date : dates) {
+            int bit = date.getDayOfYear() - 1;
+            long[] words = days.computeIfAbsent(date.getYear(), y -> new long[WORDS_PER_YEAR]);
+            words[bit >>> 6] |= 1L << bit;
+        }
+        if (days.isEmpty()) {
+            return EMPTY;
+        }
+        int[] epochDays = dates.stream().mapToInt(date -> (int) date.toEpochDay()).sorted().distinct().toArray();
+        return new BranchCalendar(days, epochDays);
+    }
+
+    public boolean contains(LocalDate date) {
+        long[] words = daysByYear.get(date.getYear());
+        if (words == null) {
+            return false;
+        }
+        int bit = date.getDayOfYear() - 1;
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    public BranchCalendar with(LocalDate date) {
+        if (contains(date)) {
+            return this;
+        }
+        Map<Integer, long[]> days = new HashMap<>(daysByYear);
+        long[] words = days.containsKey(date.getYear())
+                ? days.get(date.getYear()).clone()
+                : new long[WORDS_PER_YEAR];
+        int bit = date.getDayOfYear() - 1;
+        words[bit >>> 6] |= 1L << bit;
+        days.put(date.getYear(), words);
+
+        int epochDay = (int) date.toEpochDay();
+        int insertAt = -Arrays.binarySearch(epochDays, epochDay) - 1;
+        int[] sorted = new int[epochDays.length + 1];
+        System.arraycopy(epochDays, 0, sorted, 0, insertAt);
+        sorted[insertAt] = epochDay;
+        System.arraycopy(epochDays, insertAt, sorted, insertAt + 1, epochDays.length - insertAt);
+        return new BranchCalendar(days, sorted);
+    }
+
+    public BranchCalendar without(LocalDate date) {
+        if (!contains(date)) {
+            return this;
+        }
+        Map<Integer, long[]> days = new HashMap<>(daysByYear);
+        long[] words = days.get(date.getYear()).clone();
+        int bit = date.getDayOfYear() - 1;
+        words[bit >>> 6] &= ~(1L << bit);
+        if (isEmpty(words)) {
+            days.remove(date.getYear());
+        } else {
+            days.put(date.getYear(), words);
+        }
+        if (days.isEmpty()) {
+            return EMPTY;
+        }
+
+        int removeAt = Arrays.binarySearch(epochDays, (int) date.toEpochDay());
+        int[] sorted = new int[epochDays.length - 1];
+        System.arraycopy(epochDays, 0, sorted, 0, removeAt);
+        System.arraycopy(epochDays, removeAt + 1, sorted, removeAt, sorted.length - removeAt);
+        return new BranchCalendar(days, sorted);
+    }
+
+    /**
+     * Unión de ambos calendarios; se usa para combinar los calendarios compartidos con los feriados propios.
+     */
+    public BranchCalendar union(BranchCalendar other) {
+        if (other.epochDays.length == 0) {
+            return this;
+        }
+        if (epochDays.length == 0) {
+            return other;
+        }
+        Map<Integer, long[]> days = new HashMap<>(daysByYear);
+        other.daysByYear.forEach((year, words) -> days.merge(year, words, (current, added) -> {
+            long[] merged = current.clone();
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] |= added[i];
+            }
+            return merged;
+        }));
+        int[] sorted = IntStream.concat(Arrays.stream(epochDays), Arrays.stream(other.epochDays))
+                .sorted()
+                .distinct()
+                .toArray();
+        return new BranchCalendar(days, sorted);
+    }
+
+    /**
+     * Cantidad de feriados entre ambas fechas (inclusive) que no caen en fin de semana.
+     */
+    public int countWeekdayHolidays(LocalDate from, LocalDate to, Set<DayOfWeek> weekend) {
+        int[] days = weekdayHolidays(weekend);
+        int start = insertionPoint(days, (int) from.toEpochDay());
+        int end = insertionPoint(days, (int) to.toEpochDay() + 1);
+        return end - start;
+    }
+
+    public int size() {
+        return epochDays.length;
+    }
+
+    public int yearCount() {
+        return daysByYear.size();
+    }
+
+    public long sizeInBytes() {
+        return (long) daysByYear.size() * WORDS_PER_YEAR * Long.BYTES + (long) epochDays.length * Integer.BYTES;
+    }
+
+    private int[] weekdayHolidays(Set<DayOfWeek> weekend) {
+        WeekdayHolidays cached = weekdayHolidays;
+        if (cached == null || !cached.weekend().equals(weekend)) {
+            int[] days = Arrays.stream(epochDays)
+                    .filter(day -> !weekend.contains(LocalDate.ofEpochDay(day).getDayOfWeek()))
+                    .toArray();
+            cached = new WeekdayHolidays(Set.copyOf(weekend), days);
+            weekdayHolidays = cached;
+        }
+        return cached.days();
+    }
+
+    private static int insertionPoint(int[] days, int epochDay) {
+        int index = Arrays.binarySearch(days, epochDay);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static boolean isEmpty(long[] words) {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record WeekdayHolidays(Set<DayOfWeek> weekend, int[] days) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.banquito.core.sucursales.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.banquito.core.sucursales.config.BranchProperties;
+
+/**
+ * Aritmética de días hábiles sin recorrer día por día: los días de semana de un rango se
+ * cuentan en forma cerrada y los feriados por búsqueda binaria sobre el calendario.
+ */
+@Component
+public class BusinessDayCalculator {
+
+    private final Set<DayOfWeek> weekend;
+    private final int workingDaysPerWeek;
+    private final int maxSpanDays;
+
+    public BusinessDayCalculator(BranchProperties branchProperties) {
+        BranchProperties.BusinessDays config = branchProperties.getBusinessDays();
+        this.weekend = config.getWeekend().isEmpty()
+                ? EnumSet.noneOf(DayOfWeek.class)
+                : EnumSet.copyOf(config.getWeekend());
+        this.workingDaysPerWeek = 7 - weekend.size();
+        this.maxSpanDays = config.getMaxSpanDays();
+        if (workingDaysPerWeek == 0) {
+            throw new IllegalStateException("At least one day of the week must be a working day");
+        }
+    }
+
+    public boolean isBusinessDay(BranchCalendar calendar, LocalDate date) {
+        return !weekend.contains(date.getDayOfWeek()) && !calendar.contains(date);
+    }
+
+    /**
+     * Días hábiles en el intervalo (from, to]; negativo si to es anterior a from.
+     */
+    public long businessDaysBetween(BranchCalendar calendar, LocalDate from, LocalDate to) {
+        checkSpan(ChronoUnit.DAYS.between(from, to));
+        if (to.isBefore(from)) {
+            return -countBusinessDays(calendar, to.plusDays(1), from);
+        }
+        return countBusinessDays(calendar, from.plusDays(1), to);
+    }
+
+    public LocalDate addBusinessDays(BranchCalendar calendar, LocalDate date, int days) {
+        checkSpan(days);
+        if (days == 0) {
+            return date;
+        }
+        int step = days > 0 ? 1 : -1;
+        long target = Math.abs((long) days);
+
+        // Cota superior: avanzar semanas completas hasta acumular suficientes días hábiles
+        long low = target;
+        long high = Math.min(target * 7 / workingDaysPerWeek + 7, maxSpanDays);
+        long reached;
+        while ((reached = countFrom(calendar, date, step, high)) < target) {
+            if (high == maxSpanDays) {
+                throw new IllegalArgumentException("Date span exceeds the maximum of " + maxSpanDays + " days");
+            }
+            high = Math.min(high + (target - reached) * 7 / workingDaysPerWeek + 7, maxSpanDays);
+        }
+        // Búsqueda binaria del menor desplazamiento que alcanza target días hábiles
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (countFrom(calendar, date, step, mid) >= target) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return date.plusDays(step * low);
+    }
+
+    public LocalDate nextBusinessDay(BranchCalendar calendar, LocalDate date) {
+        return addBusinessDays(calendar, date, 1);
+    }
+
+    private long countFrom(BranchCalendar calendar, LocalDate date, int step, long offset) {
+        return step > 0
+                ? countBusinessDays(calendar, date.plusDays(1), date.plusDays(offset))
+                : countBusinessDays(calendar, date.minusDays(offset), date.minusDays(1));
+    }
+
+    private long countBusinessDays(BranchCalendar calendar, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return 0;
+        }
+        return countWeekdays(from, to) - calendar.countWeekdayHolidays(from, to, weekend);
+    }
+
+    private long countWeekdays(LocalDate from, LocalDate to) {
+        long totalDays = ChronoUnit.DAYS.between(from, to) + 1;
+        long weekdays = totalDays / 7 * workingDaysPerWeek;
+        DayOfWeek day = from.getDayOfWeek();
+        for (long i = 0; i < totalDays % 7; i++) {
+            if (!weekend.contains(day)) {
+                weekdays++;
+            }
+            day = day.plus(1);
+        }
+        return weekdays;
+    }
+
+    private void checkSpan(long days) {
+        if (Math.abs(days) > maxSpanDays) {
+            throw new IllegalArgumentException("Date span exceeds the maximum of " + maxSpanDays + " days");
+        }
+    }
+}
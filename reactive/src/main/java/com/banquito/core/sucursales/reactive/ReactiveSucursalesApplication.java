@@ -0,0 +1,25 @@
+package com.banquito.core.sucursales.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+import com.banquito.core.sucursales.config.MongoPoolConfig;
+import com.banquito.core.sucursales.mapper.BranchMapper;
+import com.banquito.core.sucursales.service.BusinessDayCalculator;
+
+/**
+ * Variante no bloqueante del API de sucursales (WebFlux sobre Netty y el driver reactivo de MongoDB).
+ * Comparte el modelo, los DTOs, el mapper y la configuración branch.* con el servicio principal a través
+ * de sucursales-core; del core sólo se escanean los paquetes del mapper, la configuración y el calendario.
+ */
+@SpringBootApplication(scanBasePackageClasses = {
+		ReactiveSucursalesApplication.class, BranchMapper.class, MongoPoolConfig.class, BusinessDayCalculator.class })
+@ConfigurationPropertiesScan("com.banquito.core.sucursales.config")
+public class ReactiveSucursalesApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveSucursalesApplication.class, args);
+	}
+
+}
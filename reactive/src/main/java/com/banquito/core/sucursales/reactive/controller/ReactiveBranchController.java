@@ -0,0 +1,246 @@
+package com.banquito.core.sucursales.reactive.controller;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.banquito.core.sucursales.dto.BranchCreateDTO;
+import com.banquito.core.sucursales.dto.BranchHolidayDTO;
+import com.banquito.core.sucursales.dto.BranchPageDTO;
+import com.banquito.core.sucursales.dto.BranchResponseDTO;
+import com.banquito.core.sucursales.dto.BranchUpdateDTO;
+import com.banquito.core.sucursales.model.BranchCatalogVersion;
+import com.banquito.core.sucursales.reactive.service.ReactiveBranchService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mismo contrato que BranchController para lecturas, altas y feriados. La importación, los lotes,
+ * /changes, /events y los calendarios compartidos siguen sólo en el servicio principal.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/branches")
+@RequiredArgsConstructor
+@Tag(name = "Branch Management (reactive)", description = "API no bloqueante para consultar sucursales y sus feriados")
+public class ReactiveBranchController {
+
+    private final ReactiveBranchService branchService;
+
+    @Operation(summary = "Listar todas las sucursales", description = "Arreglo JSON emitido a medida que se lee de la base de datos; con includeHolidays=false se omiten los feriados propios")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Listado obtenido exitosamente"),
+        @ApiResponse(responseCode = "304", description = "El listado no cambió desde el ETag enviado")
+    })
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Flux<BranchResponseDTO>>> getAllBranches(
+            @RequestParam(defaultValue = "true") boolean includeHolidays,
+            ServerWebExchange exchange) {
+        log.debug("REST request to get all branches");
+        // El ETag se calcula antes de emitir: la lista no se acumula en memoria para derivarlo del cuerpo
+        return branchService.getCatalogVersion().flatMap(version -> hasIfNoneMatch(exchange)
+                        && notModified(exchange, catalogETag(version, variant(includeHolidays)))
+                ? Mono.empty()
+                : Mono.just(ResponseEntity.ok()
+                        .eTag(catalogETag(version, variant(includeHolidays)))
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .body(branchService.getAllBranches(includeHolidays))));
+    }
+
+    @Operation(summary = "Listar sucursales en streaming", description = "Emite cada sucursal como una línea JSON (NDJSON) con contrapresión sobre el cursor de MongoDB")
+    @ApiResponse(responseCode = "200", description = "Stream iniciado exitosamente")
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BranchResponseDTO> streamAllBranches(@RequestParam(defaultValue = "true") boolean includeHolidays) {
+        log.debug("REST request to stream all branches");
+        return branchService.getAllBranches(includeHolidays);
+    }
+
+    @Operation(summary = "Listar sucursales paginadas", description = "Paginación por cursor (keyset sobre el ID); opcionalmente excluye los feriados")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página obtenida exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Cursor o tamaño de página inválido")
+    })
+    @GetMapping("/page")
+    public Mono<BranchPageDTO> getBranchPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "true") boolean includeHolidays) {
+        log.debug("REST request to get branch page after cursor: {}", cursor);
+        return branchService.getBranchPage(cursor, size, includeHolidays);
+    }
+
+    @Operation(summary = "Crear nueva sucursal", description = "Crea una sucursal con estado ACTIVE y sin feriados iniciales")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Sucursal creada"),
+        @ApiResponse(responseCode = "400", description = "Datos inválidos o email duplicado")
+    })
+    @PostMapping
+    public Mono<BranchResponseDTO> createBranch(@Valid @RequestBody BranchCreateDTO dto) {
+        log.info("REST request to create branch with email: {}", dto.getEmailAddress());
+        return branchService.createBranch(dto);
+    }
+
+    @Operation(summary = "Obtener sucursal por ID", description = "Busca una sucursal específica por su identificador único; con includeHolidays=false se omiten los feriados propios")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Sucursal encontrada"),
+        @ApiResponse(responseCode = "304", description = "La sucursal no cambió desde el ETag enviado"),
+        @ApiResponse(responseCode = "404", description = "Sucursal no encontrada")
+    })
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<BranchResponseDTO>> getBranchById(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "true") boolean includeHolidays,
+            ServerWebExchange exchange) {
+        log.debug("REST request to get branch with ID: {}", id);
+        Mono<ResponseEntity<BranchResponseDTO>> branch = branchService.getBranchById(id, includeHolidays)
+                .map(found -> ResponseEntity.ok()
+                        .eTag(versionETag(versionOf(found.getVersion()), variant(includeHolidays)))
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .body(found));
+        if (!hasIfNoneMatch(exchange)) {
+            return branch;
+        }
+        return branchService.getBranchVersion(id)
+                .map(version -> notModified(exchange, versionETag(version, variant(includeHolidays))))
+                .defaultIfEmpty(false)
+                .flatMap(notModified -> notModified ? Mono.empty() : branch);
+    }
+
+    @Operation(summary = "Actualizar teléfono de sucursal", description = "Permite modificar únicamente el número de teléfono")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Sucursal actualizada"),
+        @ApiResponse(responseCode = "404", description = "Sucursal no encontrada")
+    })
+    @PutMapping("/{id}")
+    public Mono<BranchResponseDTO> updateBranch(@PathVariable String id, @Valid @RequestBody BranchUpdateDTO dto) {
+        log.info("REST request to update branch ID: {}", id);
+        return branchService.updateBranch(id, dto);
+    }
+
+    @Operation(summary = "Agregar feriado", description = "Añade un nuevo feriado a la lista de la sucursal")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Feriado agregado"),
+        @ApiResponse(responseCode = "404", description = "Sucursal no encontrada"),
+        @ApiResponse(responseCode = "400", description = "El feriado ya existe para esa fecha")
+    })
+    @PostMapping("/{id}/holidays")
+    public Mono<ResponseEntity<Void>> addHoliday(@PathVariable String id, @Valid @RequestBody BranchHolidayDTO holidayDTO) {
+        log.info("REST request to add holiday to branch ID: {}", id);
+        return branchService.addHoliday(id, holidayDTO).then(Mono.just(ResponseEntity.ok().build()));
+    }
+
+    @Operation(summary = "Eliminar feriado", description = "Elimina un feriado basado en su fecha")
+    @DeleteMapping("/{id}/holidays")
+    public Mono<ResponseEntity<Void>> removeHoliday(@PathVariable String id, @RequestParam LocalDate date) {
+        log.info("REST request to remove holiday date: {} from branch ID: {}", date, id);
+        return branchService.removeHoliday(id, date).then(Mono.just(ResponseEntity.ok().build()));
+    }
+
+    @Operation(summary = "Listar feriados", description = "Obtiene los feriados efectivos de una sucursal: los propios más los de sus calendarios compartidos")
+    @GetMapping("/{id}/holidays")
+    public Mono<ResponseEntity<Flux<BranchHolidayDTO>>> getHolidays(@PathVariable String id, ServerWebExchange exchange) {
+        log.debug("REST request to get holidays for branch ID: {}", id);
+        return branchService.getBranchVersion(id)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(version -> {
+                    if (version.isPresent() && hasIfNoneMatch(exchange)
+                            && notModified(exchange, versionETag(version.get(), variant(true)))) {
+                        return Mono.empty();
+                    }
+                    Flux<BranchHolidayDTO> holidays = branchService.getHolidays(id);
+                    return Mono.just(version.isPresent()
+                            ? ResponseEntity.ok().eTag(versionETag(version.get(), variant(true))).varyBy(HttpHeaders.ACCEPT).body(holidays)
+                            : ResponseEntity.ok(holidays));
+                });
+    }
+
+    @Operation(summary = "Verificar si es feriado", description = "Devuelve true si la fecha dada es feriado en la sucursal")
+    @GetMapping("/{id}/isHoliday")
+    public Mono<Boolean> isHoliday(@PathVariable String id, @RequestParam LocalDate date) {
+        log.debug("REST request to check holiday date: {} for branch ID: {}", date, id);
+        return branchService.isHoliday(id, date);
+    }
+
+    @Operation(summary = "Siguiente día hábil", description = "Devuelve el primer día hábil posterior a la fecha dada, considerando fines de semana y feriados de la sucursal")
+    @GetMapping("/{id}/nextBusinessDay")
+    public Mono<LocalDate> nextBusinessDay(@PathVariable String id, @RequestParam LocalDate date) {
+        log.debug("REST request to get next business day after: {} for branch ID: {}", date, id);
+        return branchService.nextBusinessDay(id, date);
+    }
+
+    @Operation(summary = "Sumar días hábiles", description = "Suma (o resta, si es negativo) N días hábiles a la fecha dada")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Fecha calculada"),
+        @ApiResponse(responseCode = "400", description = "El desplazamiento excede el rango permitido"),
+        @ApiResponse(responseCode = "404", description = "Sucursal no encontrada")
+    })
+    @GetMapping("/{id}/addBusinessDays")
+    public Mono<LocalDate> addBusinessDays(@PathVariable String id, @RequestParam LocalDate date, @RequestParam int days) {
+        log.debug("REST request to add {} business days to: {} for branch ID: {}", days, date, id);
+        return branchService.addBusinessDays(id, date, days);
+    }
+
+    @Operation(summary = "Contar días hábiles", description = "Cuenta los días hábiles entre dos fechas, excluyendo la fecha inicial e incluyendo la final")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cantidad calculada"),
+        @ApiResponse(responseCode = "400", description = "El rango excede el máximo permitido"),
+        @ApiResponse(responseCode = "404", description = "Sucursal no encontrada")
+    })
+    @GetMapping("/{id}/businessDaysBetween")
+    public Mono<Long> businessDaysBetween(@PathVariable String id, @RequestParam LocalDate from, @RequestParam LocalDate to) {
+        log.debug("REST request to count business days between: {} and {} for branch ID: {}", from, to, id);
+        return branchService.businessDaysBetween(id, from, to);
+    }
+
+    private static boolean hasIfNoneMatch(ServerWebExchange exchange) {
+        return exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH) != null;
+    }
+
+    private static long versionOf(Long version) {
+        return version == null ? 0L : version;
+    }
+
+    // El 304 también lleva Vary: en el listado Accept elige entre el arreglo JSON y NDJSON
+    private static boolean notModified(ServerWebExchange exchange, String eTag) {
+        if (!exchange.checkNotModified(eTag)) {
+            return false;
+        }
+        exchange.getResponse().getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return true;
+    }
+
+    // Este servicio sólo responde JSON; mismo formato de ETag que BranchController para que valga en ambos
+    private static String variant(boolean includeHolidays) {
+        return "json" + (includeHolidays ? "" : "-noholidays");
+    }
+
+    private static String versionETag(long version, String variant) {
+        return "\"" + version + "-" + variant + "\"";
+    }
+
+    private static String catalogETag(BranchCatalogVersion version, String variant) {
+        return "\"" + version.getCount() + "-" + version.getVersionSum() + "-" + variant + "\"";
+    }
+}
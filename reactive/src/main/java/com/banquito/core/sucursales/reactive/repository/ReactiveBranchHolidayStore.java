@@ -0,0 +1,29 @@
+package com.banquito.core.sucursales.reactive.repository;
+
+import java.time.LocalDate;
+
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchHoliday;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Contraparte reactiva de BranchHolidayStore; se elige con la misma propiedad branch.holiday-storage.mode.
+ */
+public interface ReactiveBranchHolidayStore {
+
+    /**
+     * false si la sucursal no existe o ya tiene un feriado en esa fecha.
+     */
+    Mono<Boolean> addIfAbsent(String branchId, BranchHoliday holiday);
+
+    Mono<Boolean> remove(String branchId, LocalDate date);
+
+    Mono<Boolean> contains(String branchId, LocalDate date);
+
+    /**
+     * Completa branchHolidays de sucursales leídas con feriados (en modo embebido ya vienen en el documento).
+     */
+    Flux<Branch> attach(Flux<Branch> branches);
+}
@@ -0,0 +1,10 @@
+package com.banquito.core.sucursales.reactive.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.core.sucursales.model.Branch;
+
+@Repository
+public interface ReactiveBranchRepository extends ReactiveMongoRepository<Branch, String>, ReactiveBranchRepositoryCustom {
+}
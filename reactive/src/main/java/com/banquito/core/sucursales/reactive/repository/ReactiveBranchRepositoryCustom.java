@@ -0,0 +1,38 @@
+package com.banquito.core.sucursales.reactive.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchCatalogVersion;
+import com.banquito.core.sucursales.model.BranchHoliday;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveBranchRepositoryCustom {
+
+    Mono<Branch> insertWithServerTime(Branch branch);
+
+    Mono<Branch> findById(String id, boolean includeHolidays);
+
+    Mono<Branch> findCalendarIdsById(String id);
+
+    Mono<Branch> updatePhoneNumber(String id, String phoneNumber);
+
+    Mono<Boolean> pushHolidayIfAbsent(String branchId, BranchHoliday holiday);
+
+    Mono<Boolean> pullHoliday(String branchId, LocalDate date);
+
+    Mono<Boolean> containsHoliday(String branchId, LocalDate date);
+
+    Mono<Long> touch(Collection<String> branchIds);
+
+    Flux<Branch> findPageAfter(String afterId, int limit, boolean includeHolidays);
+
+    Flux<Branch> streamAll(boolean includeHolidays);
+
+    Mono<Long> findVersionById(String id);
+
+    Mono<BranchCatalogVersion> getCatalogVersion();
+}
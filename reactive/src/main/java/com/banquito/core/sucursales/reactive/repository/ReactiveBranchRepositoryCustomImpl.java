@@ -0,0 +1,166 @@
+package com.banquito.core.sucursales.reactive.repository;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Set;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchCatalogVersion;
+import com.banquito.core.sucursales.model.BranchHoliday;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mismas consultas que BranchRepositoryCustomImpl: cada escritura, también el alta, fija las fechas con la hora
+ * del servidor de MongoDB e incrementa la versión, así que los ETags y /changes del servicio principal siguen
+ * siendo válidos.
+ */
+@RequiredArgsConstructor
+public class ReactiveBranchRepositoryCustomImpl implements ReactiveBranchRepositoryCustom {
+
+    private static final Set<String> SERVER_SET_FIELDS = Set.of("_id", "creationDate", "lastModifiedDate");
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Branch> insertWithServerTime(Branch branch) {
+        Update update = insertUpdate(branch);
+        return mongoTemplate.findAndModify(query(where("id").is(branch.getId())), update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), Branch.class);
+    }
+
+    @Override
+    public Mono<Branch> findById(String id, boolean includeHolidays) {
+        return mongoTemplate.findOne(withHolidays(query(where("id").is(id)), includeHolidays), Branch.class);
+    }
+
+    @Override
+    public Mono<Branch> findCalendarIdsById(String id) {
+        Query query = query(where("id").is(id));
+        query.fields().include("calendarIds");
+        return mongoTemplate.findOne(query, Branch.class);
+    }
+
+    @Override
+    public Mono<Branch> updatePhoneNumber(String id, String phoneNumber) {
+        Update update = new Update()
+                .set("phoneNumber", phoneNumber)
+                .currentDate("lastModifiedDate")
+                .inc("version", 1);
+        return mongoTemplate.findAndModify(withHolidays(query(where("id").is(id)), false), update,
+                FindAndModifyOptions.options().returnNew(true), Branch.class);
+    }
+
+    @Override
+    public Mono<Boolean> pushHolidayIfAbsent(String branchId, BranchHoliday holiday) {
+        Update update = new Update()
+                .push("branchHolidays", holiday)
+                .currentDate("lastModifiedDate")
+                .inc("version", 1);
+        return mongoTemplate.updateFirst(
+                query(where("id").is(branchId).and("branchHolidays.date").ne(holiday.getDate())),
+                update, Branch.class).map(result -> result.getMatchedCount() > 0);
+    }
+
+    @Override
+    public Mono<Boolean> pullHoliday(String branchId, LocalDate date) {
+        Update update = new Update()
+                .pull("branchHolidays", query(where("date").is(date)))
+                .currentDate("lastModifiedDate")
+                .inc("version", 1);
+        return mongoTemplate.updateFirst(
+                query(where("id").is(branchId).and("branchHolidays.date").is(date)),
+                update, Branch.class).map(result -> result.getMatchedCount() > 0);
+    }
+
+    @Override
+    public Mono<Boolean> containsHoliday(String branchId, LocalDate date) {
+        return mongoTemplate.exists(query(where("id").is(branchId).and("branchHolidays.date").is(date)), Branch.class);
+    }
+
+    @Override
+    public Mono<Long> touch(Collection<String> branchIds) {
+        if (branchIds.isEmpty()) {
+            return Mono.just(0L);
+        }
+        Update update = new Update()
+                .currentDate("lastModifiedDate")
+                .inc("version", 1);
+        return mongoTemplate.updateMulti(query(where("id").in(branchIds)), update, Branch.class)
+                .map(result -> result.getModifiedCount());
+    }
+
+    @Override
+    public Flux<Branch> findPageAfter(String afterId, int limit, boolean includeHolidays) {
+        Query query = afterId == null ? new Query() : query(where("id").gt(afterId));
+        query.with(Sort.by("id")).limit(limit);
+        return mongoTemplate.find(withHolidays(query, includeHolidays), Branch.class);
+    }
+
+    @Override
+    public Flux<Branch> streamAll(boolean includeHolidays) {
+        // El cursor se consume según la demanda del suscriptor: la memoria no crece con el tamaño del catálogo
+        Query query = new Query().with(Sort.by("id"));
+        return mongoTemplate.find(withHolidays(query, includeHolidays), Branch.class);
+    }
+
+    @Override
+    public Mono<Long> findVersionById(String id) {
+        Query query = query(where("id").is(id));
+        query.fields().include("version");
+        return mongoTemplate.findOne(query, Branch.class)
+                .map(branch -> branch.getVersion() == null ? 0L : branch.getVersion());
+    }
+
+    @Override
+    public Mono<BranchCatalogVersion> getCatalogVersion() {
+        return mongoTemplate.aggregate(
+                newAggregation(group().count().as("count").sum("version").as("versionSum")),
+                Branch.class, BranchCatalogVersion.class)
+                .next()
+                .defaultIfEmpty(new BranchCatalogVersion(0, 0));
+    }
+
+    // Upsert sobre un ID nuevo con las fechas de $currentDate, en una sola escritura
+    private Update insertUpdate(Branch branch) {
+        if (branch.getId() == null) {
+            branch.setId(new ObjectId().toHexString());
+        }
+        if (branch.getVersion() == null) {
+            branch.setVersion(0L);
+        }
+        Document document = new Document();
+        mongoTemplate.getConverter().write(branch, document);
+        Update update = new Update()
+                .currentDate("creationDate")
+                .currentDate("lastModifiedDate");
+        document.forEach((field, value) -> {
+            if (!SERVER_SET_FIELDS.contains(field)) {
+                update.setOnInsert(field, value);
+            }
+        });
+        return update;
+    }
+
+    private static Query withHolidays(Query query, boolean includeHolidays) {
+        if (!includeHolidays) {
+            query.fields().exclude("branchHolidays");
+        }
+        return query;
+    }
+}
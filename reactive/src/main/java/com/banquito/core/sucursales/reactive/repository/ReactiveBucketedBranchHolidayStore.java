@@ -0,0 +1,96 @@
+package com.banquito.core.sucursales.reactive.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.banquito.core.sucursales.model.BranchHolidayBucket;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Igual que BucketedBranchHolidayStore: el bucket se escribe antes de incrementar la versión de la sucursal.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "branch.holiday-storage", name = "mode", havingValue = "bucketed")
+public class ReactiveBucketedBranchHolidayStore implements ReactiveBranchHolidayStore {
+
+    private static final int ATTACH_BATCH_SIZE = 500;
+
+    private final ReactiveBranchRepository branchRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Boolean> addIfAbsent(String branchId, BranchHoliday holiday) {
+        Query query = bucket(branchId, holiday.getDate().getYear()).addCriteria(where("holidays.date").ne(holiday.getDate()));
+        Update update = new Update().push("holidays", holiday);
+        return branchRepository.existsById(branchId)
+                .flatMap(exists -> !exists
+                        ? Mono.just(false)
+                        : mongoTemplate.upsert(query, update, BranchHolidayBucket.class)
+                                .thenReturn(true)
+                                // Fecha ya presente, o bucket creado al mismo tiempo por otro upsert
+                                .onErrorResume(DuplicateKeyException.class, ex -> mongoTemplate
+                                        .updateFirst(query, update, BranchHolidayBucket.class)
+                                        .map(result -> result.getMatchedCount() > 0)))
+                .flatMap(added -> touchIf(added, branchId));
+    }
+
+    @Override
+    public Mono<Boolean> remove(String branchId, LocalDate date) {
+        return mongoTemplate.updateFirst(
+                bucket(branchId, date.getYear()).addCriteria(where("holidays.date").is(date)),
+                new Update().pull("holidays", query(where("date").is(date))),
+                BranchHolidayBucket.class)
+                .flatMap(result -> touchIf(result.getMatchedCount() > 0, branchId));
+    }
+
+    @Override
+    public Mono<Boolean> contains(String branchId, LocalDate date) {
+        return mongoTemplate.exists(bucket(branchId, date.getYear()).addCriteria(where("holidays.date").is(date)),
+                BranchHolidayBucket.class);
+    }
+
+    @Override
+    public Flux<Branch> attach(Flux<Branch> branches) {
+        // Una consulta de buckets cada ATTACH_BATCH_SIZE sucursales; concatMap conserva el orden y la contrapresión
+        return branches.buffer(ATTACH_BATCH_SIZE).concatMap(batch -> mongoTemplate
+                .find(query(where("branchId").in(batch.stream().map(Branch::getId).toList())).with(Sort.by("branchId", "year")),
+                        BranchHolidayBucket.class)
+                .collectMultimap(BranchHolidayBucket::getBranchId)
+                .flatMapIterable(buckets -> {
+                    batch.forEach(branch -> {
+                        List<BranchHoliday> holidays = new ArrayList<>();
+                        buckets.getOrDefault(branch.getId(), List.of()).stream()
+                                .filter(bucket -> bucket.getHolidays() != null)
+                                .forEach(bucket -> holidays.addAll(bucket.getHolidays()));
+                        branch.setBranchHolidays(holidays);
+                    });
+                    return batch;
+                }));
+    }
+
+    private Mono<Boolean> touchIf(boolean changed, String branchId) {
+        return changed ? branchRepository.touch(List.of(branchId)).thenReturn(true) : Mono.just(false);
+    }
+
+    private static Query bucket(String branchId, int year) {
+        return query(where("branchId").is(branchId).and("year").is(year));
+    }
+}
@@ -0,0 +1,41 @@
+package com.banquito.core.sucursales.reactive.repository;
+
+import java.time.LocalDate;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchHoliday;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "branch.holiday-storage", name = "mode", havingValue = "embedded", matchIfMissing = true)
+public class ReactiveEmbeddedBranchHolidayStore implements ReactiveBranchHolidayStore {
+
+    private final ReactiveBranchRepository branchRepository;
+
+    @Override
+    public Mono<Boolean> addIfAbsent(String branchId, BranchHoliday holiday) {
+        return branchRepository.pushHolidayIfAbsent(branchId, holiday);
+    }
+
+    @Override
+    public Mono<Boolean> remove(String branchId, LocalDate date) {
+        return branchRepository.pullHoliday(branchId, date);
+    }
+
+    @Override
+    public Mono<Boolean> contains(String branchId, LocalDate date) {
+        return branchRepository.containsHoliday(branchId, date);
+    }
+
+    @Override
+    public Flux<Branch> attach(Flux<Branch> branches) {
+        return branches;
+    }
+}
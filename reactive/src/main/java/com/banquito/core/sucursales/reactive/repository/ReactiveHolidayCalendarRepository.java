@@ -0,0 +1,17 @@
+package com.banquito.core.sucursales.reactive.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.core.sucursales.model.HolidayCalendar;
+
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveHolidayCalendarRepository extends ReactiveMongoRepository<HolidayCalendar, String> {
+
+    Mono<Boolean> existsByIdInAndHolidaysDate(Collection<String> ids, LocalDate date);
+}
@@ -0,0 +1,231 @@
+package com.banquito.core.sucursales.reactive.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import com.banquito.core.sucursales.config.BranchProperties;
+import com.banquito.core.sucursales.dto.BranchCreateDTO;
+import com.banquito.core.sucursales.dto.BranchHolidayDTO;
+import com.banquito.core.sucursales.dto.BranchPageDTO;
+import com.banquito.core.sucursales.dto.BranchResponseDTO;
+import com.banquito.core.sucursales.dto.BranchUpdateDTO;
+import com.banquito.core.sucursales.exception.HolidayConflictException;
+import com.banquito.core.sucursales.mapper.BranchMapper;
+import com.banquito.core.sucursales.model.Branch;
+import com.banquito.core.sucursales.model.BranchCatalogVersion;
+import com.banquito.core.sucursales.model.BranchHoliday;
+import com.banquito.core.sucursales.model.HolidayCalendar;
+import com.banquito.core.sucursales.reactive.repository.ReactiveBranchHolidayStore;
+import com.banquito.core.sucursales.reactive.repository.ReactiveBranchRepository;
+import com.banquito.core.sucursales.reactive.repository.ReactiveHolidayCalendarRepository;
+import com.banquito.core.sucursales.service.BranchCalendar;
+import com.banquito.core.sucursales.service.BusinessDayCalculator;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mismas reglas que BranchService, sin bloquear el event loop. No mantiene el índice de calendarios en
+ * memoria ni la caché de sucursales: cada consulta va a MongoDB, así que la memoria no crece con el
+ * número de sucursales ni de conexiones abiertas.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactiveBranchService {
+
+    private static final String DUPLICATE_EMAIL = "Branch with this email already exists";
+
+    private final ReactiveBranchRepository branchRepository;
+    private final ReactiveBranchHolidayStore branchHolidayStore;
+    private final ReactiveHolidayCalendarRepository holidayCalendarRepository;
+    private final BranchMapper branchMapper;
+    private final BranchProperties branchProperties;
+    private final BusinessDayCalculator businessDayCalculator;
+
+    public Flux<BranchResponseDTO> getAllBranches(boolean includeHolidays) {
+        log.debug("Streaming all branches, include holidays: {}", includeHolidays);
+        Flux<Branch> branches = branchRepository.streamAll(includeHolidays);
+        return (includeHolidays ? branchHolidayStore.attach(branches) : branches).map(branchMapper::toResponseDTO);
+    }
+
+    public Mono<BranchCatalogVersion> getCatalogVersion() {
+        return branchRepository.getCatalogVersion();
+    }
+
+    public Mono<Long> getBranchVersion(String id) {
+        return branchRepository.findVersionById(id);
+    }
+
+    public Mono<BranchPageDTO> getBranchPage(String cursor, Integer size, boolean includeHolidays) {
+        log.debug("Retrieving branch page after cursor: {}", cursor);
+        if (cursor != null && !ObjectId.isValid(cursor)) {
+            return Mono.error(new IllegalArgumentException("Invalid pagination cursor"));
+        }
+        BranchProperties.Pagination pagination = branchProperties.getPagination();
+        int pageSize = size == null ? pagination.getDefaultSize() : size;
+        if (pageSize < 1 || pageSize > pagination.getMaxSize()) {
+            return Mono.error(new IllegalArgumentException("Page size must be between 1 and " + pagination.getMaxSize()));
+        }
+
+        Flux<Branch> branches = branchRepository.findPageAfter(cursor, pageSize + 1, includeHolidays);
+        return (includeHolidays ? branchHolidayStore.attach(branches) : branches)
+                .map(branchMapper::toResponseDTO)
+                .collectList()
+                .map(items -> {
+                    boolean hasMore = items.size() > pageSize;
+                    List<BranchResponseDTO> page = hasMore ? items.subList(0, pageSize) : items;
+                    return BranchPageDTO.builder()
+                            .items(page)
+                            .nextCursor(hasMore ? page.get(page.size() - 1).getId() : null)
+                            .build();
+                });
+    }
+
+    public Mono<BranchResponseDTO> createBranch(BranchCreateDTO dto) {
+        log.info("Creating new branch with email: {}", dto.getEmailAddress());
+        Branch branch = branchMapper.toEntity(dto);
+        branch.setBranchHolidays(new ArrayList<>());
+        // Fechas con la hora del servidor de MongoDB, en la misma escritura, para el /changes del servicio principal
+        return branchRepository.insertWithServerTime(branch)
+                .onErrorMap(DuplicateKeyException.class, ex -> {
+                    log.error("Branch creation failed. Email {} already exists", dto.getEmailAddress());
+                    return new IllegalArgumentException(DUPLICATE_EMAIL);
+                })
+                .doOnNext(saved -> log.info("Branch created successfully with ID: {}", saved.getId()))
+                .map(branchMapper::toResponseDTO);
+    }
+
+    public Mono<BranchResponseDTO> getBranchById(String id, boolean includeHolidays) {
+        log.debug("Retrieving branch with ID: {}", id);
+        Mono<Branch> branch = findBranch(id, includeHolidays);
+        return (includeHolidays ? branchHolidayStore.attach(branch.flux()).next() : branch).map(branchMapper::toResponseDTO);
+    }
+
+    public Mono<BranchResponseDTO> updateBranch(String id, BranchUpdateDTO dto) {
+        log.info("Updating branch with ID: {}", id);
+        return branchRepository.updatePhoneNumber(id, dto.getPhoneNumber())
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException("Branch not found with ID: " + id)))
+                .map(branchMapper::toResponseDTO);
+    }
+
+    public Mono<Void> addHoliday(String branchId, BranchHolidayDTO holidayDTO) {
+        log.info("Adding holiday to branch ID: {}", branchId);
+        return branchHolidayStore.addIfAbsent(branchId, branchMapper.toHolidayEntity(holidayDTO))
+                .flatMap(added -> added
+                        ? Mono.<Void>empty()
+                        : branchRepository.existsById(branchId).flatMap(exists -> Mono.error(exists
+                                ? new IllegalArgumentException("Holiday already exists for this date")
+                                : new NoSuchElementException("Branch not found"))));
+    }
+
+    public Mono<Void> removeHoliday(String branchId, LocalDate date) {
+        log.info("Removing holiday for date: {} from branch ID: {}", date, branchId);
+        return branchHolidayStore.remove(branchId, date)
+                .flatMap(removed -> removed
+                        ? Mono.<Void>empty()
+                        : branchRepository.findCalendarIdsById(branchId)
+                                .switchIfEmpty(Mono.error(() -> new NoSuchElementException("Branch not found")))
+                                .flatMap(branch -> sharedCalendarsWith(branch.getCalendarIds(), date))
+                                .flatMap(calendarIds -> Mono.<Void>error(calendarIds.isEmpty()
+                                        ? new NoSuchElementException("Holiday not found for the given date")
+                                        : HolidayConflictException.sharedCalendar(branchId, calendarIds))));
+    }
+
+    // Los feriados de un calendario compartido no se quitan desde la sucursal
+    private Mono<List<String>> sharedCalendarsWith(Collection<String> calendarIds, LocalDate date) {
+        if (calendarIds == null || calendarIds.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return holidayCalendarRepository.findAllById(calendarIds)
+                .filter(calendar -> calendar.getHolidays() != null
+                        && calendar.getHolidays().stream().anyMatch(holiday -> date.equals(holiday.getDate())))
+                .map(HolidayCalendar::getId)
+                .collectList();
+    }
+
+    public Flux<BranchHolidayDTO> getHolidays(String branchId) {
+        log.debug("Retrieving holidays for branch ID: {}", branchId);
+        return findWithHolidays(branchId)
+                .flatMap(branch -> sharedHolidays(branch.getCalendarIds()).map(shared -> {
+                    // Calendario efectivo: los feriados propios prevalecen sobre los compartidos en la misma fecha
+                    Map<LocalDate, BranchHoliday> effective = new TreeMap<>();
+                    shared.forEach(holiday -> effective.putIfAbsent(holiday.getDate(), holiday));
+                    if (branch.getBranchHolidays() != null) {
+                        branch.getBranchHolidays().forEach(holiday -> effective.put(holiday.getDate(), holiday));
+                    }
+                    return effective.values();
+                }))
+                .flatMapIterable(holidays -> holidays)
+                .map(branchMapper::toHolidayDTO);
+    }
+
+    public Mono<Boolean> isHoliday(String branchId, LocalDate date) {
+        log.debug("Checking if date: {} is a holiday for branch ID: {}", date, branchId);
+        return branchRepository.findCalendarIdsById(branchId)
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException("Branch not found")))
+                .flatMap(branch -> branchHolidayStore.contains(branchId, date)
+                        .flatMap(own -> own || branch.getCalendarIds() == null || branch.getCalendarIds().isEmpty()
+                                ? Mono.just(own)
+                                : holidayCalendarRepository.existsByIdInAndHolidaysDate(branch.getCalendarIds(), date)));
+    }
+
+    public Mono<LocalDate> nextBusinessDay(String branchId, LocalDate date) {
+        return getCalendar(branchId).map(calendar -> businessDayCalculator.nextBusinessDay(calendar, date));
+    }
+
+    public Mono<LocalDate> addBusinessDays(String branchId, LocalDate date, int days) {
+        return getCalendar(branchId).map(calendar -> businessDayCalculator.addBusinessDays(calendar, date, days));
+    }
+
+    public Mono<Long> businessDaysBetween(String branchId, LocalDate from, LocalDate to) {
+        return getCalendar(branchId).map(calendar -> businessDayCalculator.businessDaysBetween(calendar, from, to));
+    }
+
+    private Mono<BranchCalendar> getCalendar(String branchId) {
+        return findWithHolidays(branchId)
+                .flatMap(branch -> sharedHolidays(branch.getCalendarIds()).map(shared -> {
+                    List<LocalDate> dates = new ArrayList<>();
+                    shared.forEach(holiday -> dates.add(holiday.getDate()));
+                    if (branch.getBranchHolidays() != null) {
+                        branch.getBranchHolidays().forEach(holiday -> dates.add(holiday.getDate()));
+                    }
+                    return BranchCalendar.of(dates);
+                }));
+    }
+
+    private Mono<Branch> findWithHolidays(String branchId) {
+        Mono<Branch> branch = branchRepository.findById(branchId, true)
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException("Branch not found")));
+        return branchHolidayStore.attach(branch.flux()).next();
+    }
+
+    private Mono<List<BranchHoliday>> sharedHolidays(Collection<String> calendarIds) {
+        if (calendarIds == null || calendarIds.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return holidayCalendarRepository.findAllById(calendarIds)
+                .filter(calendar -> calendar.getHolidays() != null)
+                .flatMapIterable(HolidayCalendar::getHolidays)
+                .collectList();
+    }
+
+    private Mono<Branch> findBranch(String id, boolean includeHolidays) {
+        return branchRepository.findById(id, includeHolidays)
+                .switchIfEmpty(Mono.error(() -> {
+                    log.error("Branch not found with ID: {}", id);
+                    return new NoSuchElementException("Branch not found with ID: " + id);
+                }));
+    }
+}